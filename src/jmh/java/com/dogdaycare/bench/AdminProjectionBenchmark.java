@@ -0,0 +1,141 @@
+package com.dogdaycare.bench;
+
+import com.dogdaycare.DogDaycareApplication;
+import com.dogdaycare.dto.AdminBookingRow;
+import com.dogdaycare.dto.InvoiceSnapshotRow;
+import com.dogdaycare.model.Booking;
+import com.dogdaycare.model.Invoice;
+import com.dogdaycare.model.InvoiceSnapshot;
+import com.dogdaycare.model.User;
+import com.dogdaycare.repository.BookingRepository;
+import com.dogdaycare.repository.InvoiceRepository;
+import com.dogdaycare.repository.InvoiceSnapshotRepository;
+import com.dogdaycare.repository.UserRepository;
+import com.dogdaycare.service.WeeklyInvoiceService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Admin JSON reads against a real persistence context (H2, "test" profile): managed entities
+ * mapped to rows, as the endpoints used to do, versus the JPQL constructor projections they use now.
+ * Sized like a full day (70 bookings) and a busy week (500 invoiced customers).
+ * Run with {@code -prof gc} for the allocation side, e.g.
+ * {@code mvn -Pbenchmarks test-compile exec:exec -Djmh.args="AdminProjection -prof gc"}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AdminProjectionBenchmark {
+
+    private static final int DAY_BOOKINGS = 70;
+    private static final int WEEK_CUSTOMERS = 500;
+    private static final LocalDate DAY = SyntheticBookings.WEEK_START.plusDays(1);
+
+    private ConfigurableApplicationContext context;
+    private BookingRepository bookingRepo;
+    private InvoiceSnapshotRepository snapshotRepo;
+    private InvoiceRepository invoiceRepo;
+
+    @Setup
+    public void setup() {
+        context = new SpringApplicationBuilder(DogDaycareApplication.class)
+                .profiles("test")
+                .properties("server.port=0") // SecurityConfig needs the servlet context; any free port will do
+                .run();
+        bookingRepo = context.getBean(BookingRepository.class);
+        snapshotRepo = context.getBean(InvoiceSnapshotRepository.class);
+        invoiceRepo = context.getBean(InvoiceRepository.class);
+        UserRepository userRepo = context.getBean(UserRepository.class);
+
+        // Every customer has a Monday booking (=> a snapshot); the first 70 are also in on Tuesday
+        List<Booking> bookings = new ArrayList<>();
+        List<Invoice> invoices = new ArrayList<>();
+        for (int i = 0; i < WEEK_CUSTOMERS; i++) {
+            User u = new User();
+            u.setUsername("customer" + i + "@example.com");
+            u.setPassword("{noop}pw");
+            u.setRole("CUSTOMER");
+            u.setEnabled(true);
+            u = userRepo.save(u);
+
+            bookings.add(booking(u, SyntheticBookings.WEEK_START, i));
+            if (i < DAY_BOOKINGS) bookings.add(booking(u, DAY, i));
+
+            // A third of the customers already have an invoice for the week
+            if (i % 3 == 0) {
+                Invoice inv = new Invoice();
+                inv.setCustomerEmail(u.getUsername());
+                inv.setCustomerName("Customer " + i);
+                inv.setWeekStart(SyntheticBookings.WEEK_START);
+                inv.setWeekEnd(SyntheticBookings.WEEK_START.plusDays(6));
+                inv.setAmount(new BigDecimal("90.00"));
+                inv.setPaid(i % 2 == 0);
+                invoices.add(inv);
+            }
+        }
+        bookingRepo.saveAll(bookings);
+        invoiceRepo.saveAll(invoices);
+        context.getBean(WeeklyInvoiceService.class).rebuildWeek(SyntheticBookings.WEEK_START);
+    }
+
+    private static Booking booking(User customer, LocalDate date, int i) {
+        Booking b = new Booking();
+        b.setCustomer(customer);
+        b.setDate(date);
+        b.setTime(LocalTime.of(7 + i % 4, 0));
+        b.setServiceType(i % 5 == 0 ? "Boarding" : "Daycare (6 AM - 3 PM)");
+        b.setPaid(i % 4 == 0);
+        b.setDogCount(1 + i % 2);
+        return b;
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<AdminBookingRow> dayEntities() {
+        return bookingRepo.findByDate(DAY).stream()
+                .map(b -> new AdminBookingRow(b.getId(), b.getCustomer().getId(), b.getCustomer().getUsername(),
+                        b.getServiceType(), b.getDate(), b.getTime(), b.getStatus(), b.isWantsAdvancePay(),
+                        b.isAdvanceEligible(), b.isPaid(), b.getQuotedRateAtLock(), b.getDogCount()))
+                .toList();
+    }
+
+    @Benchmark
+    public List<AdminBookingRow> dayProjection() {
+        return bookingRepo.findAdminRowsByDate(DAY);
+    }
+
+    @Benchmark
+    public List<InvoiceSnapshotRow> weekEntities() {
+        Map<String, Invoice> invoices = invoiceRepo.findByWeekStart(SyntheticBookings.WEEK_START).stream()
+                .collect(Collectors.toMap(Invoice::getCustomerEmail, Function.identity(), (a, b) -> a));
+        List<InvoiceSnapshotRow> rows = new ArrayList<>();
+        for (InvoiceSnapshot s : snapshotRepo.findByWeekStart(SyntheticBookings.WEEK_START)) {
+            if (s.getBookingCount() == 0) continue;
+            Invoice i = invoices.get(s.getCustomerEmail());
+            rows.add(new InvoiceSnapshotRow(s.getCustomerEmail(), s.getCurrentAmount(), s.getPaidToDate(),
+                    s.isAllDaysPaid(), i != null ? i.getId() : null, i != null ? i.isPaid() : null));
+        }
+        return rows;
+    }
+
+    @Benchmark
+    public List<InvoiceSnapshotRow> weekProjection() {
+        return snapshotRepo.findRowsByWeekStart(SyntheticBookings.WEEK_START);
+    }
+}
@@ -0,0 +1,89 @@
+package com.dogdaycare.bench;
+
+import com.dogdaycare.dto.EmergencyCounts;
+import com.dogdaycare.repository.BookingRepository;
+import com.dogdaycare.repository.DailyCapacityRepository;
+import com.dogdaycare.repository.DailyCapacityRepository.DayCounts;
+import com.dogdaycare.repository.EmergencyAllocationRepository;
+import com.dogdaycare.service.BookingLimitService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * BookingLimitService snapshots over a year of daily_capacity counters held in memory,
+ * so the numbers are the service's own cost (the real read is a single-row / range query).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CapacityBenchmark {
+
+    private static final LocalDate FIRST_DAY = LocalDate.of(2025, 1, 1);
+    private static final int DAYS = 365;
+
+    private BookingLimitService limits;
+    private int next;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(7L);
+        NavigableMap<LocalDate, DayCounts> rows = new TreeMap<>();
+        for (int i = 0; i < DAYS; i++) {
+            LocalDate day = FIRST_DAY.plusDays(i);
+            rows.put(day, new Row(day, random.nextInt(45), random.nextInt(25), random.nextInt(3)));
+        }
+
+        DailyCapacityRepository capacity = FakeRepositories.of(DailyCapacityRepository.class)
+                .on("findCountsByDate", a -> Optional.ofNullable(rows.get((LocalDate) a[0])))
+                .on("findCountsByDateBetween",
+                        a -> new ArrayList<>(rows.subMap((LocalDate) a[0], true, (LocalDate) a[1], true).values()))
+                .build();
+        limits = new BookingLimitService(
+                FakeRepositories.of(BookingRepository.class).build(),
+                capacity,
+                FakeRepositories.of(EmergencyAllocationRepository.class).build());
+
+        // @Value defaults from BookingLimitService
+        ReflectionTestUtils.setField(limits, "totalCap", 70);
+        ReflectionTestUtils.setField(limits, "daycareCap", 40);
+        ReflectionTestUtils.setField(limits, "boardingCap", 20);
+        ReflectionTestUtils.setField(limits, "emergencyCap", 10);
+    }
+
+    private record Row(LocalDate date, int daycare, int boarding, int emergencyUsed) implements DayCounts {
+        public LocalDate getDate() { return date; }
+        public int getDaycare() { return daycare; }
+        public int getBoarding() { return boarding; }
+        public int getEmergencyUsed() { return emergencyUsed; }
+    }
+
+    private LocalDate nextDay() {
+        int i = next;
+        next = (i + 1) % (DAYS - 14);
+        return FIRST_DAY.plusDays(i);
+    }
+
+    @Benchmark
+    public EmergencyCounts snapshot() {
+        return limits.snapshot(nextDay());
+    }
+
+    @Benchmark
+    public boolean canCustomerBook() {
+        return limits.canCustomerBook(nextDay(), SyntheticBookings.HALF_DAY);
+    }
+
+    // Two-week booking calendar
+    @Benchmark
+    public Map<LocalDate, EmergencyCounts> snapshotRange14Days() {
+        LocalDate start = nextDay();
+        return limits.snapshotRange(start, start.plusDays(13));
+    }
+}
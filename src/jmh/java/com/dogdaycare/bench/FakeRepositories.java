@@ -0,0 +1,53 @@
+package com.dogdaycare.bench;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Proxy;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * In-memory stand-ins for Spring Data repositories. Only the query methods a benchmark
+ * registers are implemented; anything else throws, so a service starting to call a new
+ * repository method shows up as a failure instead of a silently cheaper benchmark.
+ */
+final class FakeRepositories {
+
+    private FakeRepositories() {}
+
+    static <R> Builder<R> of(Class<R> repositoryType) {
+        return new Builder<>(repositoryType);
+    }
+
+    static final class Builder<R> {
+        private final Class<R> type;
+        private final Map<String, Function<Object[], Object>> methods = new HashMap<>();
+
+        private Builder(Class<R> type) {
+            this.type = type;
+        }
+
+        /** Answers every overload of {@code methodName} with {@code impl} (arguments as passed). */
+        Builder<R> on(String methodName, Function<Object[], Object> impl) {
+            methods.put(methodName, impl);
+            return this;
+        }
+
+        R build() {
+            InvocationHandler handler = (proxy, method, args) -> {
+                switch (method.getName()) {
+                    case "toString": return "Fake" + type.getSimpleName();
+                    case "hashCode": return System.identityHashCode(proxy);
+                    case "equals": return proxy == args[0];
+                    default: break;
+                }
+                Function<Object[], Object> impl = methods.get(method.getName());
+                if (impl == null) {
+                    throw new UnsupportedOperationException(type.getSimpleName() + "." + method.getName() + " is not faked");
+                }
+                return impl.apply(args != null ? args : new Object[0]);
+            };
+            return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, handler));
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package com.dogdaycare.bench;
+
+import com.dogdaycare.dto.InvoiceRowDto;
+import com.dogdaycare.dto.InvoiceSnapshotRow;
+import com.dogdaycare.model.EvaluationRequest;
+import com.dogdaycare.model.Invoice;
+import com.dogdaycare.model.InvoiceSnapshot;
+import com.dogdaycare.model.User;
+import com.dogdaycare.repository.EvaluationRepository;
+import com.dogdaycare.repository.InvoiceSnapshotRepository;
+import com.dogdaycare.repository.InvoiceSnapshotWeekRepository;
+import com.dogdaycare.repository.UserRepository;
+import com.dogdaycare.service.CustomerProfileCache;
+import com.dogdaycare.service.PricingService;
+import com.dogdaycare.service.WeeklyInvoiceService;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Weekly invoicing aggregation: rebuilding a week's snapshots from the booking stream
+ * (one pass per customer, boarding engines batched) and reading the admin rows back.
+ * Snapshot rows live in memory; after the first rebuild every call updates them in place,
+ * which is the steady state of the nightly / first-read rebuild.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class InvoiceBenchmark {
+
+    @Param({"100", "1000", "10000"})
+    public int customers;
+
+    private WeeklyInvoiceService invoices;
+
+    private record Key(Long customerId, LocalDate weekStart) {}
+
+    @Setup
+    public void setup() {
+        SyntheticBookings data = new SyntheticBookings(customers, 42L);
+        Map<Long, User> usersById = new HashMap<>();
+        data.customers.forEach(u -> usersById.put(u.getId(), u));
+
+        Map<Key, InvoiceSnapshot> snapshots = new LinkedHashMap<>();
+        Set<LocalDate> builtWeeks = new HashSet<>();
+        Clock clock = Clock.system(ZoneId.of("America/Los_Angeles"));
+
+        // A third of the customers already have an invoice for the week
+        Map<String, Invoice> weekInvoices = new HashMap<>();
+        for (User u : data.customers) {
+            if (u.getId() % 3 != 0) continue;
+            Invoice i = new Invoice();
+            i.setId(u.getId());
+            i.setCustomerEmail(u.getUsername());
+            i.setCustomerName("Customer " + u.getId());
+            i.setWeekStart(SyntheticBookings.WEEK_START);
+            i.setWeekEnd(SyntheticBookings.WEEK_START.plusDays(6));
+            i.setPaid(u.getId() % 2 == 0);
+            weekInvoices.put(i.getCustomerEmail(), i);
+        }
+        InvoiceSnapshotRepository snapshotRepo = FakeRepositories.of(InvoiceSnapshotRepository.class)
+                .on("findByWeekStart", a -> snapshots.values().stream()
+                        .filter(s -> s.getWeekStart().equals(a[0]))
+                        .toList())
+                .on("findRowsByWeekStart", a -> snapshots.values().stream()
+                        .filter(s -> s.getWeekStart().equals(a[0]) && s.getBookingCount() > 0)
+                        .map(s -> {
+                            Invoice i = weekInvoices.get(s.getCustomerEmail());
+                            return new InvoiceSnapshotRow(s.getCustomerEmail(), s.getCurrentAmount(), s.getPaidToDate(),
+                                    s.isAllDaysPaid(), i != null ? i.getId() : null, i != null ? i.isPaid() : null);
+                        })
+                        .toList())
+                .on("findByCustomerIdAndWeekStart", a -> Optional.ofNullable(snapshots.get(new Key((Long) a[0], (LocalDate) a[1]))))
+                .on("insertIfAbsent", a -> {
+                    Key key = new Key((Long) a[0], (LocalDate) a[2]);
+                    if (snapshots.containsKey(key)) return 0;
+                    InvoiceSnapshot s = new InvoiceSnapshot();
+                    s.setCustomer(usersById.get(key.customerId()));
+                    s.setCustomerEmail((String) a[1]);
+                    s.setWeekStart(key.weekStart());
+                    snapshots.put(key, s);
+                    return 1;
+                })
+                .build();
+        InvoiceSnapshotWeekRepository weekRepo = FakeRepositories.of(InvoiceSnapshotWeekRepository.class)
+                .on("existsById", a -> builtWeeks.contains((LocalDate) a[0]))
+                .on("insertIfAbsent", a -> builtWeeks.add((LocalDate) a[0]) ? 1 : 0)
+                .build();
+
+        @SuppressWarnings("unchecked")
+        EvaluationRepository evaluationRepo = FakeRepositories.of(EvaluationRepository.class)
+                .on("findLatestByEmailIn", a -> ((Collection<String>) a[0]).stream().map(email -> {
+                    EvaluationRequest e = new EvaluationRequest();
+                    e.setEmail(email);
+                    e.setClientName("Client " + email.substring(0, email.indexOf('@')));
+                    e.setDogName("Rex");
+                    return e;
+                }).toList())
+                .build();
+
+        invoices = new WeeklyInvoiceService(
+                data.repository(),
+                snapshotRepo,
+                weekRepo,
+                FakeRepositories.of(UserRepository.class).build(),
+                new PricingService(data.repository()),
+                new CustomerProfileCache(evaluationRepo, customers * 2, Duration.ofMinutes(10)),
+                clock);
+        invoices.rebuildWeek(SyntheticBookings.WEEK_START);
+    }
+
+    @Benchmark
+    public LocalDate rebuildWeek() {
+        invoices.rebuildWeek(SyntheticBookings.WEEK_START);
+        return SyntheticBookings.WEEK_START;
+    }
+
+    @Benchmark
+    public List<InvoiceRowDto> weeklyRows() {
+        return invoices.weeklyRows(SyntheticBookings.WEEK_START);
+    }
+}
@@ -0,0 +1,74 @@
+package com.dogdaycare.bench;
+
+import com.dogdaycare.model.Booking;
+import com.dogdaycare.model.User;
+import com.dogdaycare.service.PricingService;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * PricingService hot paths against an in-memory booking population. Each invocation picks
+ * the next customer round-robin so the engine sees varied weeks, as the booking page does.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PricingBenchmark {
+
+    @Param({"100", "1000", "10000"})
+    public int customers;
+
+    private SyntheticBookings data;
+    private PricingService pricing;
+    private Booking[] daycareProbes;
+    private Booking[] boardingProbes;
+    private int next;
+
+    @Setup
+    public void setup() {
+        data = new SyntheticBookings(customers, 42L);
+        pricing = new PricingService(data.repository());
+
+        daycareProbes = new Booking[customers];
+        boardingProbes = new Booking[customers];
+        for (int i = 0; i < customers; i++) {
+            User u = data.customers.get(i);
+            daycareProbes[i] = data.probe(u, SyntheticBookings.HALF_DAY, i % 5);
+            boardingProbes[i] = data.probe(u, SyntheticBookings.BOARDING, i % 7);
+        }
+    }
+
+    private int nextIndex() {
+        int i = next;
+        next = (i + 1) % customers;
+        return i;
+    }
+
+    @Benchmark
+    public BigDecimal priceForDaycare() {
+        return pricing.priceFor(daycareProbes[nextIndex()]);
+    }
+
+    @Benchmark
+    public BigDecimal priceForBoarding() {
+        return pricing.priceFor(boardingProbes[nextIndex()]);
+    }
+
+    @Benchmark
+    public BigDecimal previewDaycarePrice() {
+        int i = nextIndex();
+        return pricing.previewDaycarePrice(data.customers.get(i), SyntheticBookings.WEEK_START.plusDays(i % 5),
+                SyntheticBookings.EXTENDED, true, true);
+    }
+
+    @Benchmark
+    public BigDecimal quoteDaycareAtTier() {
+        int i = nextIndex();
+        return pricing.quoteDaycareAtTier(daycareProbes[i], (i & 1) == 0);
+    }
+}
@@ -0,0 +1,158 @@
+package com.dogdaycare.bench;
+
+import com.dogdaycare.model.Booking;
+import com.dogdaycare.model.BookingStatus;
+import com.dogdaycare.model.ServiceKind;
+import com.dogdaycare.model.User;
+import com.dogdaycare.repository.BookingRepository;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.*;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+/**
+ * A reproducible customer population with two months of bookings, plus a
+ * {@link BookingRepository} fake answering the queries the pricing and invoicing
+ * services issue, with the same status / service-kind semantics as the JPQL.
+ *
+ * Each customer books daycare on roughly half the weekdays (a third of them prepaying);
+ * about one in eight also boards for runs of 2–5 nights, in both months, so prior-month
+ * boarding tiers are exercised. About 5% of bookings are canceled.
+ */
+final class SyntheticBookings {
+
+    static final String HALF_DAY = "Daycare (6 AM - 3 PM)";
+    static final String EXTENDED = "Daycare (6 AM - 8 PM)";
+    static final String AFTER_HOURS = "Daycare After Hours (6 AM - 11 PM)";
+    static final String BOARDING = "Boarding";
+
+    /** Monday of the week the benchmarks price; the data covers the month before it too. */
+    static final LocalDate WEEK_START = LocalDate.of(2025, 6, 2);
+
+    final List<User> customers = new ArrayList<>();
+    final Map<Long, List<Booking>> byCustomer = new HashMap<>();
+    final NavigableMap<LocalDate, List<Booking>> byDate = new TreeMap<>();
+
+    SyntheticBookings(int customerCount, long seed) {
+        Random random = new Random(seed);
+        LocalDate from = WEEK_START.minusMonths(1).withDayOfMonth(1);
+        LocalDate to = WEEK_START.plusWeeks(2);
+        long nextBookingId = 1;
+
+        for (long id = 1; id <= customerCount; id++) {
+            User u = new User();
+            u.setId(id);
+            u.setUsername("customer" + id + "@bench.local");
+            u.setPassword("{noop}pw");
+            u.setRole("CUSTOMER");
+            customers.add(u);
+
+            boolean boards = random.nextInt(8) == 0;
+            List<Booking> list = new ArrayList<>();
+            for (LocalDate d = from; d.isBefore(to); d = d.plusDays(1)) {
+                if (boards && random.nextInt(12) == 0) {
+                    int nights = 2 + random.nextInt(4);
+                    for (int n = 0; n < nights && d.isBefore(to); n++, d = d.plusDays(1)) {
+                        list.add(booking(nextBookingId++, u, d, BOARDING, random));
+                    }
+                    continue;
+                }
+                boolean weekday = d.getDayOfWeek().getValue() <= DayOfWeek.FRIDAY.getValue();
+                if (weekday && random.nextBoolean()) {
+                    String svc = switch (random.nextInt(10)) {
+                        case 0 -> AFTER_HOURS;
+                        case 1, 2, 3 -> EXTENDED;
+                        default -> HALF_DAY;
+                    };
+                    list.add(booking(nextBookingId++, u, d, svc, random));
+                }
+            }
+            byCustomer.put(id, list);
+            for (Booking b : list) byDate.computeIfAbsent(b.getDate(), k -> new ArrayList<>()).add(b);
+        }
+    }
+
+    private static Booking booking(long id, User customer, LocalDate date, String serviceType, Random random) {
+        Booking b = new Booking();
+        b.setId(id);
+        b.setCustomer(customer);
+        b.setDate(date);
+        b.setTime(LocalTime.of(7, 30));
+        b.setServiceType(serviceType);
+        b.setStatus(random.nextInt(20) == 0 ? BookingStatus.CANCELED : BookingStatus.APPROVED);
+        b.setCreatedAt(date.minusDays(3).atTime(9, 0));
+        boolean prepay = serviceType.startsWith("Daycare (") && random.nextInt(3) == 0;
+        b.setAdvanceEligible(prepay);
+        b.setWantsAdvancePay(prepay);
+        b.setDogCount(random.nextInt(6) == 0 ? 2 : 1);
+        b.setPaid(date.isBefore(WEEK_START) || random.nextInt(4) == 0);
+        if (b.isPaid()) b.setPaidAt(LocalDateTime.of(date, LocalTime.NOON));
+        return b;
+    }
+
+    /** An unsaved booking for the benchmark week, as the booking form would build it. */
+    Booking probe(User customer, String serviceType, int dayOfWeek) {
+        Booking b = new Booking();
+        b.setCustomer(customer);
+        b.setDate(WEEK_START.plusDays(dayOfWeek));
+        b.setTime(LocalTime.of(7, 30));
+        b.setServiceType(serviceType);
+        b.setAdvanceEligible(true);
+        b.setWantsAdvancePay(true);
+        return b;
+    }
+
+    static boolean active(Booking b) {
+        return b.getStatus().isActive();
+    }
+
+    static boolean boarding(Booking b) {
+        return b.getServiceKind() == ServiceKind.BOARDING;
+    }
+
+    private List<Booking> forCustomer(Object user, Object start, Object end, Predicate<Booking> filter) {
+        LocalDate s = (LocalDate) start, e = (LocalDate) end;
+        return byCustomer.getOrDefault(((User) user).getId(), List.of()).stream()
+                .filter(b -> !b.getDate().isBefore(s) && !b.getDate().isAfter(e))
+                .filter(filter)
+                .toList();
+    }
+
+    private List<Booking> inRange(Object start, Object end, Predicate<Booking> filter) {
+        return byDate.subMap((LocalDate) start, true, (LocalDate) end, true).values().stream()
+                .flatMap(List::stream)
+                .filter(filter)
+                .collect(Collectors.toList());
+    }
+
+    @SuppressWarnings("unchecked")
+    BookingRepository repository() {
+        return FakeRepositories.of(BookingRepository.class)
+                .on("findByCustomerAndDateBetween", a -> forCustomer(a[0], a[1], a[2], b -> true))
+                .on("findActiveByCustomerAndDateBetween", a -> forCustomer(a[0], a[1], a[2], SyntheticBookings::active))
+                .on("findActiveByCustomerAndServiceKindInAndDateBetween",
+                        a -> forCustomer(a[0], a[2], a[3], b -> ((Collection<ServiceKind>) a[1]).contains(b.getServiceKind())
+                                && active(b)))
+                .on("findActiveByCustomerIdInAndDateBetween", a -> {
+                    Set<Long> ids = new HashSet<>((Collection<Long>) a[0]);
+                    return inRange(a[1], a[2], b -> ids.contains(b.getCustomer().getId()) && active(b));
+                })
+                .on("findActiveBoardingByCustomerIdInAndDateBetween", a -> {
+                    Set<Long> ids = new HashSet<>((Collection<Long>) a[0]);
+                    return inRange(a[1], a[2], b -> ids.contains(b.getCustomer().getId()) && boarding(b) && active(b));
+                })
+                .on("findCustomerIdsWithActiveBoarding", a -> inRange(a[0], a[1], b -> boarding(b) && active(b)).stream()
+                        .map(b -> b.getCustomer().getId())
+                        .distinct()
+                        .toList())
+                .on("streamActiveWithCustomerByDateBetween", a -> inRange(a[0], a[1], SyntheticBookings::active).stream()
+                        .sorted(Comparator.comparing((Booking b) -> b.getCustomer().getId())
+                                .thenComparing(Booking::getDate)
+                                .thenComparing(Booking::getId)))
+                .build();
+    }
+}
@@ -0,0 +1,9 @@
+package com.dogdaycare.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+@Configuration
+@EnableScheduling // background jobs (e.g. nightly capacity reconciliation)
+public class SchedulingConfig {
+}
@@ -0,0 +1,79 @@
+package com.dogdaycare.config;
+
+import org.ehcache.config.builders.CacheConfigurationBuilder;
+import org.ehcache.config.builders.ConfigurationBuilder;
+import org.ehcache.config.builders.ExpiryPolicyBuilder;
+import org.ehcache.config.builders.ResourcePoolsBuilder;
+import org.ehcache.jsr107.EhcacheCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Hibernate second-level and query cache, in-process (Ehcache behind JCache), enabled with
+ * {@code app.l2-cache.enabled=true}.
+ *
+ * Cached: {@code User} and {@code EvaluationRequest} entities (READ_WRITE, so saves through
+ * the session update their entries on commit) and {@code UserRepository#findByUsername}.
+ * Query results are dropped whenever their table is written, which covers the admin toggle
+ * and the new account created on evaluation approval. Native/bulk updates bypass the entity
+ * regions; none touch these tables today. Per-region counters: {@code GET /admin/cache-stats}.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.l2-cache.enabled", havingValue = "true")
+public class SecondLevelCacheConfig {
+
+    // Region names used by the @Cache annotations and query hints
+    public static final String USERS = "users";
+    public static final String EVALUATIONS = "evaluations";
+    public static final String USERS_BY_USERNAME = "users-by-username";
+    // Hibernate's own: cached query results check this table → last-write time map before use
+    public static final String UPDATE_TIMESTAMPS = "default-update-timestamps-region";
+    public static final String DEFAULT_QUERY_RESULTS = "default-query-results-region";
+
+    public static final List<String> REGIONS =
+            List.of(USERS, EVALUATIONS, USERS_BY_USERNAME, DEFAULT_QUERY_RESULTS, UPDATE_TIMESTAMPS);
+
+    @Bean(destroyMethod = "close")
+    public CacheManager hibernateCacheManager(@Value("${app.l2-cache.max-entries:5000}") long maxEntries,
+                                              @Value("${app.l2-cache.ttl:PT10M}") Duration ttl) {
+        var regions = ConfigurationBuilder.newConfigurationBuilder();
+        for (String region : List.of(USERS, EVALUATIONS, USERS_BY_USERNAME, DEFAULT_QUERY_RESULTS)) {
+            regions = regions.withCache(region, CacheConfigurationBuilder
+                    .newCacheConfigurationBuilder(Object.class, Object.class, ResourcePoolsBuilder.heap(maxEntries))
+                    .withExpiry(ExpiryPolicyBuilder.timeToLiveExpiration(ttl)));
+        }
+        // Never expire or evict timestamps: losing one could serve a stale query result
+        regions = regions.withCache(UPDATE_TIMESTAMPS, CacheConfigurationBuilder
+                .newCacheConfigurationBuilder(Object.class, Object.class, ResourcePoolsBuilder.heap(Long.MAX_VALUE)));
+
+        // A private manager per context (tests start several in the same JVM)
+        EhcacheCachingProvider provider =
+                (EhcacheCachingProvider) Caching.getCachingProvider(EhcacheCachingProvider.class.getName());
+        return provider.getCacheManager(URI.create("urn:dogdaycare:l2:" + UUID.randomUUID()), regions.build());
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheProperties(CacheManager hibernateCacheManager) {
+        return props -> {
+            props.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, true);
+            props.put(AvailableSettings.USE_QUERY_CACHE, true);
+            props.put(AvailableSettings.CACHE_REGION_FACTORY, "jcache");
+            props.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+            // Every region is created above; an unknown one is a mapping mistake
+            props.put(ConfigSettings.MISSING_CACHE_STRATEGY, "fail");
+            props.put(AvailableSettings.GENERATE_STATISTICS, true);
+        };
+    }
+}
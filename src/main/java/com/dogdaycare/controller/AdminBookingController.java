@@ -1,35 +1,41 @@
 package com.dogdaycare.controller;
 
+import com.dogdaycare.dto.AdminBookingRow;
 import com.dogdaycare.dto.BookingRowDto;
 import com.dogdaycare.dto.EmergencyCounts;
 import com.dogdaycare.model.Booking;
-import com.dogdaycare.model.EvaluationRequest;
 import com.dogdaycare.model.Invoice;
+import com.dogdaycare.model.ServiceKind;
 import com.dogdaycare.repository.BookingRepository;
-import com.dogdaycare.repository.EmergencyAllocationRepository;
-import com.dogdaycare.repository.EvaluationRepository;
 import com.dogdaycare.repository.InvoiceRepository;
 import com.dogdaycare.service.BookingLimitService;
+import com.dogdaycare.service.CustomerProfileCache;
 import com.dogdaycare.service.PricingService;
+import com.dogdaycare.service.WeeklyPricingEngine;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
 import java.math.BigDecimal;
 import java.time.*;
+import java.util.ArrayList;
 import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
-import java.util.Optional;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Collectors;
 
 @Controller
 @RequestMapping("/admin/bookings")
 public class AdminBookingController {
 
     private final BookingRepository bookingRepository;
-    private final EvaluationRepository evaluationRepository;
-    private final EmergencyAllocationRepository emergencyAllocationRepository;
+    private final CustomerProfileCache profileCache;
 
     // used when marking a day paid (kept as-is)
     private final InvoiceRepository invoiceRepository;
@@ -37,14 +43,12 @@ public class AdminBookingController {
     private final BookingLimitService bookingLimitService;
 
     public AdminBookingController(BookingRepository bookingRepository,
-                                  EvaluationRepository evaluationRepository,
-                                  EmergencyAllocationRepository emergencyAllocationRepository,
+                                  CustomerProfileCache profileCache,
                                   InvoiceRepository invoiceRepository,
                                   PricingService pricingService,
                                   BookingLimitService bookingLimitService) {
         this.bookingRepository = bookingRepository;
-        this.evaluationRepository = evaluationRepository;
-        this.emergencyAllocationRepository = emergencyAllocationRepository;
+        this.profileCache = profileCache;
         this.invoiceRepository = invoiceRepository;
         this.pricingService = pricingService;
         this.bookingLimitService = bookingLimitService;
@@ -56,39 +60,49 @@ public class AdminBookingController {
     // ---------------- JSON consumed by admin page (Bookings tab) ----------------
     @GetMapping
     @ResponseBody
+    @Transactional(readOnly = true) // the projection and the live-pricing lookups share one read-only transaction
     public List<BookingRowDto> getBookingsByDate(
             @RequestParam("date") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date
     ) {
-        List<Booking> bookings = bookingRepository.findByDate(date);
-
-        return bookings.stream().map(b -> {
-            String email = (b.getCustomer() != null) ? b.getCustomer().getUsername() : "N/A";
-
-            Optional<EvaluationRequest> evalOpt =
-                    (email == null || "N/A".equals(email))
-                            ? Optional.empty()
-                            : evaluationRepository.findTopByEmailOrderByCreatedAtDesc(email);
-
-            String customerName = evalOpt.map(EvaluationRequest::getClientName).orElse(email != null ? email : "N/A");
-            String dogName = evalOpt.map(EvaluationRequest::getDogName).orElse("N/A");
+        // Projected rows: no managed entities, dirty-checking snapshots or customer proxies for a read-only list
+        List<AdminBookingRow> rows = bookingRepository.findAdminRowsByDate(date);
+        // Pricing still works on Booking; these are detached stand-ins that are never persisted
+        List<Booking> bookings = rows.stream().map(AdminBookingRow::asBooking).toList();
+        LiveAmountContext live = liveAmountContext(date, bookings);
+
+        // Names for every customer on the day in one lookup (cached; misses batched)
+        var profiles = profileCache.getAll(rows.stream()
+                .map(AdminBookingRow::customerEmail)
+                .filter(Objects::nonNull)
+                .toList());
+
+        List<BookingRowDto> out = new ArrayList<>(rows.size());
+        for (int i = 0; i < rows.size(); i++) {
+            AdminBookingRow r = rows.get(i);
+            String email = (r.customerId() != null) ? r.customerEmail() : "N/A";
+
+            var profile = profiles.getOrDefault(email, CustomerProfileCache.Profile.NONE);
+            String customerName = profile.clientNameOr(email != null ? email : "N/A");
+            String dogName = profile.dogNameOr("N/A");
 
             // IMPORTANT: include both the historical lock and the current live (tier-aware) amount
-            return new BookingRowDto(
-                    b.getId(),
+            out.add(new BookingRowDto(
+                    r.id(),
                     customerName,
                     email,
                     dogName,
-                    b.getServiceType(),
-                    b.getTime(),
-                    b.getStatus(),
-                    b.isWantsAdvancePay(),
-                    b.isAdvanceEligible(),
-                    b.isPaid(),
-                    b.getQuotedRateAtLock(),
-                    b.getDogCount(),
-                    liveAmountFor(b) // << used by custom.js price chip
-            );
-        }).toList();
+                    r.serviceType(),
+                    r.time(),
+                    r.status().name(),
+                    r.wantsAdvancePay(),
+                    r.advanceEligible(),
+                    r.paid(),
+                    r.quotedRateAtLock(),
+                    r.dogCount(),
+                    liveAmountFor(bookings.get(i), live) // << used by custom.js price chip
+            ));
+        }
+        return out;
     }
 
     // ---------------- Optional server-side view (unchanged) ----------------
@@ -100,18 +114,17 @@ public class AdminBookingController {
         List<Booking> bookings = bookingRepository.findByDate(date);
 
         var daycare = bookings.stream()
-                .filter(b -> b.getServiceType() != null && b.getServiceType().toLowerCase().contains("daycare"))
+                .filter(b -> b.getServiceKind().isDaycare())
                 .sorted(Comparator.comparing(Booking::getTime, Comparator.nullsLast(Comparator.naturalOrder())))
                 .toList();
 
         var boarding = bookings.stream()
-                .filter(b -> b.getServiceType() != null && b.getServiceType().toLowerCase().contains("boarding"))
+                .filter(b -> b.getServiceKind().isBoarding())
                 .sorted(Comparator.comparing(Booking::getTime, Comparator.nullsLast(Comparator.naturalOrder())))
                 .toList();
 
         var afterHours = bookings.stream()
-                .filter(b -> b.getServiceType() != null &&
-                        b.getServiceType().toLowerCase().contains("after hours"))
+                .filter(b -> b.getServiceKind().isAfterHours())
                 .sorted(Comparator.comparing(Booking::getTime,
                         Comparator.nullsLast(Comparator.naturalOrder())))
                 .toList();
@@ -134,12 +147,24 @@ public class AdminBookingController {
         return bookingLimitService.snapshot(date);
     }
 
+    // capacity for a date range in one query (calendar heatmap / ribbon prefetch)
+    @GetMapping("/capacity/range")
+    @ResponseBody
+    public ResponseEntity<Map<LocalDate, EmergencyCounts>> capacityRange(
+            @RequestParam("start") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate start,
+            @RequestParam("end") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate end
+    ) {
+        try {
+            return ResponseEntity.ok(bookingLimitService.snapshotRange(start, end));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
     @PostMapping("/cancel/{id}")
     public String cancelBooking(@PathVariable Long id, RedirectAttributes ra) {
         bookingRepository.findById(id).ifPresent(booking -> {
-            booking.setStatus("CANCELED");
-            bookingRepository.save(booking);
-            emergencyAllocationRepository.deleteByBookingId(id);
+            bookingLimitService.cancelBooking(booking); // also frees any emergency allocation
             ra.addFlashAttribute("successMessage", "Booking canceled.");
         });
         return "redirect:/admin";
@@ -148,9 +173,9 @@ public class AdminBookingController {
     // Mark a single booking (day) as PAID (unchanged logic)
     @PostMapping("/mark-paid/{id}")
     public String markDayPaid(@PathVariable Long id, RedirectAttributes ra) {
-        bookingRepository.findById(id).ifPresent(b -> {
+        bookingRepository.findWithCustomerById(id).ifPresent(b -> {
             // 1) mark this single booking paid
-            if (!"CANCELED".equalsIgnoreCase(b.getStatus()) && !b.isPaid()) {
+            if (b.getStatus().isActive() && !b.isPaid()) {
                 b.setPaid(true);
                 b.setPaidAt(java.time.LocalDateTime.now());
                 bookingRepository.save(b);
@@ -162,10 +187,7 @@ public class AdminBookingController {
                 LocalDate ws = b.getDate().with(DayOfWeek.MONDAY);
                 LocalDate we = ws.plusDays(6);
 
-                var weekBookings = bookingRepository.findByDateBetween(ws, we).stream()
-                        .filter(x -> x.getCustomer() != null && customer.getId().equals(x.getCustomer().getId()))
-                        .filter(x -> !"CANCELED".equalsIgnoreCase(x.getStatus()))
-                        .toList();
+                var weekBookings = bookingRepository.findActiveByCustomerAndDateBetween(customer, ws, we);
 
                 boolean allPaid = !weekBookings.isEmpty() && weekBookings.stream().allMatch(Booking::isPaid);
 
@@ -205,20 +227,57 @@ public class AdminBookingController {
     }
 
     // ---------------- Live tier-aware per-booking total for Admin chip ----------------
-    private BigDecimal liveAmountFor(Booking b) {
+
+    /** Week context for every row of a day: daycare counts per customer + boarding engines. */
+    private record LiveAmountContext(Map<Long, Long> daycareCountByCustomer,
+                                     Map<Long, WeeklyPricingEngine> boardingEngines) {}
+
+    // One GROUP BY for the daycare tier and one batch for boarding, instead of queries per row
+    private LiveAmountContext liveAmountContext(LocalDate date, List<Booking> bookings) {
+        LocalDate ws = pricingService.weekStartMonday(date);
+        LocalDate we = ws.plusDays(6);
+
+        var daycareCustomers = bookings.stream()
+                .filter(b -> b.getCustomer() != null && isDaycareTiered(b))
+                .map(b -> b.getCustomer().getId())
+                .collect(Collectors.toSet());
+        var boardingCustomers = bookings.stream()
+                .filter(b -> b.getCustomer() != null && isBoardingRow(b))
+                .map(b -> b.getCustomer().getId())
+                .collect(Collectors.toSet());
+
+        Map<Long, Long> counts = new HashMap<>();
+        if (!daycareCustomers.isEmpty()) {
+            bookingRepository.countActiveByCustomerAndServiceKindIn(daycareCustomers, ServiceKind.DAYCARE, ws, we)
+                    .forEach(c -> counts.put(c.getCustomerId(), c.getBookings()));
+        }
+        return new LiveAmountContext(counts, pricingService.enginesFor(boardingCustomers, date));
+    }
+
+    private static boolean isBoardingRow(Booking b) {
+        return b.getServiceKind().isBoarding();
+    }
+    private static boolean isDaycareTiered(Booking b) {
+        return b.getServiceKind().isDaycare() && !b.getServiceKind().isAfterHours();
+    }
+
+    private BigDecimal liveAmountFor(Booking b, LiveAmountContext live) {
         int dogs = (b.getDogCount() != null ? b.getDogCount() : 1);
 
-        String svc = (b.getServiceType() == null ? "" : b.getServiceType()).toLowerCase();
-        boolean isDaycare = svc.contains("daycare");
-        boolean isAfterHours = svc.contains("after hours");
-        boolean isBoarding = svc.contains("boarding");
+        ServiceKind kind = b.getServiceKind();
+        boolean isDaycare = kind.isDaycare();
+        boolean isAfterHours = kind.isAfterHours();
+        boolean isBoarding = kind.isBoarding();
 
         if (isAfterHours) {
             return new BigDecimal("90.00").multiply(BigDecimal.valueOf(dogs));
         }
 
         if (isBoarding) {
-            BigDecimal base = pricingService.priceFor(b); // your boarding logic
+            WeeklyPricingEngine engine = (b.getCustomer() != null)
+                    ? live.boardingEngines().get(b.getCustomer().getId())
+                    : null;
+            BigDecimal base = (engine != null) ? engine.priceFor(b) : pricingService.priceFor(b); // your boarding logic
             return base.multiply(BigDecimal.valueOf(dogs));
         }
 
@@ -227,15 +286,7 @@ public class AdminBookingController {
             var customer = b.getCustomer();
             if (customer == null) return BigDecimal.ZERO;
 
-            LocalDate ws = pricingService.weekStartMonday(b.getDate());
-            LocalDate we = ws.plusDays(6);
-
-            var weekBookings = bookingRepository.findByCustomerAndDateBetween(customer, ws, we).stream()
-                    .filter(x -> x.getServiceType() != null && x.getServiceType().toLowerCase().contains("daycare"))
-                    .filter(x -> !"CANCELED".equalsIgnoreCase(x.getStatus()))
-                    .toList();
-
-            boolean atLeast4 = weekBookings.size() >= 4;
+            boolean atLeast4 = live.daycareCountByCustomer().getOrDefault(customer.getId(), 0L) >= 4;
 
             BigDecimal perDog = pricingService.quoteDaycareAtTier(b, atLeast4);
             return perDog.multiply(BigDecimal.valueOf(dogs));
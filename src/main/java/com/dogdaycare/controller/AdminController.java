@@ -1,12 +1,20 @@
 package com.dogdaycare.controller;
 
+import com.dogdaycare.model.CustomerDocumentStatus;
 import com.dogdaycare.model.EvaluationRequest;
 import com.dogdaycare.model.UploadedFile;
 import com.dogdaycare.model.User;
 import com.dogdaycare.repository.EvaluationRepository;
 import com.dogdaycare.repository.FileRepository;
 import com.dogdaycare.repository.UserRepository;
+import com.dogdaycare.service.AdminSearchService;
+import com.dogdaycare.service.CustomerProfileCache;
+import com.dogdaycare.service.DocumentComplianceService;
 import com.dogdaycare.service.EmailService;
+import com.dogdaycare.service.SecondLevelCacheStats;
+import com.dogdaycare.service.UserCache;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
@@ -15,7 +23,6 @@ import org.springframework.web.bind.annotation.*;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.*;
-import java.util.stream.Collectors;
 
 @Controller
 @RequestMapping("/admin")
@@ -26,61 +33,99 @@ public class AdminController {
     private final PasswordEncoder passwordEncoder;
     private final EmailService emailService;
     private final FileRepository fileRepository;
+    private final CustomerProfileCache profileCache;
+    private final DocumentComplianceService complianceService;
+    private final AdminSearchService searchService;
+    private final UserCache userCache;
+    private final SecondLevelCacheStats cacheStats;
 
     public AdminController(EvaluationRepository evaluationRepository,
                            UserRepository userRepository,
                            PasswordEncoder passwordEncoder,
                            EmailService emailService,
-                           FileRepository fileRepository) {
+                           FileRepository fileRepository,
+                           CustomerProfileCache profileCache,
+                           DocumentComplianceService complianceService,
+                           AdminSearchService searchService,
+                           UserCache userCache,
+                           SecondLevelCacheStats cacheStats) {
         this.evaluationRepository = evaluationRepository;
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
         this.emailService = emailService;
         this.fileRepository = fileRepository;
+        this.profileCache = profileCache;
+        this.complianceService = complianceService;
+        this.searchService = searchService;
+        this.userCache = userCache;
+        this.cacheStats = cacheStats;
     }
 
+    // Rows per dashboard list; each list pages independently with its own keyset cursor
+    static final int PAGE_SIZE = 50;
+
     // Admin dashboard (now also hydrates the Uploads tab model)
     @GetMapping
     public String adminDashboard(Model model,
                                  @RequestParam(value = "q", required = false) String q,
                                  @RequestParam(value = "filter", required = false, defaultValue = "all") String filter,
-                                 @RequestParam(value = "openTab", required = false) String openTab) {
-        // --- Evaluations (keep recent/pending)
+                                 @RequestParam(value = "openTab", required = false) String openTab,
+                                 @RequestParam(value = "evalBefore", required = false) Long evalBefore,
+                                 @RequestParam(value = "usersAfter", required = false) Long usersAfter,
+                                 @RequestParam(value = "uploadsAfter", required = false) Long uploadsAfter) {
+        // --- Evaluations (keep recent/pending), newest first
         LocalDateTime threeDaysAgo = LocalDateTime.now().minusDays(3);
-        List<EvaluationRequest> evaluations = evaluationRepository.findAll()
-                .stream()
-                .filter(e -> !e.isApproved() || e.getCreatedAt().isAfter(threeDaysAgo))
-                .collect(Collectors.toList());
+        List<EvaluationRequest> evaluations = evaluationRepository.findDashboardPage(
+                threeDaysAgo, evalBefore != null ? evalBefore : Long.MAX_VALUE, PageRequest.of(0, PAGE_SIZE + 1));
+        Long nextEvalBefore = hasMore(evaluations) ? evaluations.get(PAGE_SIZE - 1).getId() : null;
+        evaluations = firstPage(evaluations);
 
-        // --- Users list (sorted) - reused by Uploads tab to label groups
-        List<User> allUsersSorted = userRepository.findAll()
-                .stream()
-                .sorted(Comparator.comparing(User::getId))
-                .collect(Collectors.toList());
+        // --- User accounts, by id
+        List<User> users = userRepository.findByIdGreaterThanOrderByIdAsc(
+                usersAfter != null ? usersAfter : 0L, PageRequest.of(0, PAGE_SIZE + 1));
+        Long nextUsersAfter = hasMore(users) ? users.get(PAGE_SIZE - 1).getId() : null;
+        users = firstPage(users);
 
         // --- Uploads tab data
-        List<User> usersForUploads;
-        if (q != null && !q.isBlank()) {
-            String ql = q.toLowerCase();
-            usersForUploads = allUsersSorted.stream()
-                    .filter(u -> u.getUsername() != null && u.getUsername().toLowerCase().contains(ql))
-                    .collect(Collectors.toList());
-        } else {
-            usersForUploads = allUsersSorted;
-        }
-
         List<UploadedFile> files;
+        List<User> uploadUsers;
+        Long nextUploadsAfter;
         LocalDate today = LocalDate.now();
 
+        // A page of customers (optionally matching q), then only that page's files
+        long after = uploadsAfter != null ? uploadsAfter : 0L;
+        Pageable page = PageRequest.of(0, PAGE_SIZE + 1);
+        boolean searching = q != null && !q.isBlank();
+
         switch (filter) {
-            case "expired" -> files = fileRepository.findByExpirationDateBeforeOrderByExpirationDateAsc(today);
-            case "expiring" -> files = fileRepository.findByExpirationDateBetweenOrderByExpirationDateAsc(today, today.plusDays(30));
-            default -> {
-                List<Long> ids = usersForUploads.stream().map(User::getId).toList();
-                files = ids.isEmpty()
-                        ? Collections.emptyList()
-                        : fileRepository.findByUserIdInOrderByUserIdAscCreatedAtDesc(ids);
+            case "expired", "expiring" -> {
+                // Owners come from the precomputed compliance rows, so the page cost stays flat
+                boolean expired = "expired".equals(filter);
+                uploadUsers = userRepository.findByDocumentStatus(
+                        expired ? EnumSet.of(CustomerDocumentStatus.Compliance.EXPIRED)
+                                : EnumSet.of(CustomerDocumentStatus.Compliance.EXPIRING, CustomerDocumentStatus.Compliance.EXPIRED),
+                        expired ? 0 : 1,
+                        searching ? usernamePrefix(q) : "%",
+                        after, page);
             }
+            default -> uploadUsers = searching
+                    ? userRepository.searchWithUploadsByUsernamePrefix(usernamePrefix(q), after, page)
+                    : userRepository.findWithUploadsByIdGreaterThan(after, page);
+        }
+        nextUploadsAfter = hasMore(uploadUsers) ? uploadUsers.get(PAGE_SIZE - 1).getId() : null;
+        uploadUsers = firstPage(uploadUsers);
+
+        List<Long> ids = uploadUsers.stream().map(User::getId).toList();
+        if (ids.isEmpty()) {
+            files = Collections.emptyList();
+        } else {
+            files = switch (filter) {
+                case "expired" -> fileRepository
+                        .findByUserIdInAndExpirationDateBeforeOrderByUserIdAscExpirationDateAsc(ids, today);
+                case "expiring" -> fileRepository
+                        .findByUserIdInAndExpirationDateBetweenOrderByUserIdAscExpirationDateAsc(ids, today, today.plusDays(30));
+                default -> fileRepository.findByUserIdInOrderByUserIdAscCreatedAtDesc(ids);
+            };
         }
 
         Map<Long, List<UploadedFile>> byUser = new LinkedHashMap<>();
@@ -89,14 +134,22 @@ public class AdminController {
             byUser.computeIfAbsent(f.getUser().getId(), k -> new ArrayList<>()).add(f);
         }
 
+        // Per-customer compliance badge (one precomputed row per customer)
+        Map<Long, CustomerDocumentStatus> compliance = complianceService.summaries(byUser.keySet());
+
         // --- Model
         model.addAttribute("evaluations", evaluations);
-        model.addAttribute("users", allUsersSorted);
+        model.addAttribute("users", users);
+        model.addAttribute("nextEvalBefore", nextEvalBefore);
+        model.addAttribute("nextUsersAfter", nextUsersAfter);
 
         // Uploads tab attrs
         model.addAttribute("q", q);
         model.addAttribute("filter", filter);
+        model.addAttribute("uploadUsers", uploadUsers);
         model.addAttribute("byUser", byUser);
+        model.addAttribute("compliance", compliance);
+        model.addAttribute("nextUploadsAfter", nextUploadsAfter);
 
         // if you submitted the filter form, keep the Uploads tab open
         if ("uploads".equalsIgnoreCase(openTab)) {
@@ -106,6 +159,35 @@ public class AdminController {
         return "admin";
     }
 
+    // Pages are fetched with one extra row to learn whether another page follows
+    private static boolean hasMore(List<?> rows) {
+        return rows.size() > PAGE_SIZE;
+    }
+
+    private static <T> List<T> firstPage(List<T> rows) {
+        return hasMore(rows) ? rows.subList(0, PAGE_SIZE) : rows;
+    }
+
+    // Lower-cased LIKE prefix with the pattern characters escaped (see UserRepository)
+    static String usernamePrefix(String q) {
+        return AdminSearchService.escapeLike(q.trim().toLowerCase(Locale.ROOT)) + "%";
+    }
+
+    // Typeahead for the admin search boxes: users and evaluations whose email/name contains q
+    @GetMapping("/search")
+    @ResponseBody
+    public List<AdminSearchService.Hit> search(@RequestParam("q") String q,
+                                               @RequestParam(value = "limit", required = false, defaultValue = "10") int limit) {
+        return searchService.search(q, limit);
+    }
+
+    // Second-level / query cache counters per region (empty unless app.l2-cache.enabled)
+    @GetMapping("/cache-stats")
+    @ResponseBody
+    public List<SecondLevelCacheStats.Region> cacheStats() {
+        return cacheStats.regions();
+    }
+
     // Approve an evaluation and create a user with a custom password
     @PostMapping("/approve/{id}")
     public String approveEvaluation(@PathVariable Long id, @RequestParam String password) {
@@ -115,6 +197,7 @@ public class AdminController {
         if (!evaluation.isApproved()) {
             evaluation.setApproved(true);
             evaluationRepository.save(evaluation);
+            profileCache.invalidate(evaluation.getEmail());
 
             User newUser = new User();
             newUser.setUsername(evaluation.getEmail());
@@ -131,12 +214,14 @@ public class AdminController {
                             "Thank you,\nDog Daycare Team",
                     evaluation.getClientName(),
                     evaluation.getEmail(),
-                    password
+                    EmailService.SECRET
             );
-            emailService.sendEmail(
+            // The password is filled in at send time and never written to the outbox
+            emailService.sendEmailWithSecret(
                     evaluation.getEmail(),
                     "Your Dog Daycare Account Has Been Approved",
-                    approvalMessage
+                    approvalMessage,
+                    password
             );
         }
         return "redirect:/admin";
@@ -148,6 +233,7 @@ public class AdminController {
         User user = userRepository.findById(id).orElseThrow();
         user.setEnabled(!user.isEnabled());
         userRepository.save(user);
+        userCache.invalidate(id);
         return "redirect:/admin";
     }
 }
@@ -2,10 +2,9 @@ package com.dogdaycare.controller;
 
 import com.dogdaycare.dto.EmergencyCounts;
 import com.dogdaycare.model.Booking;
-import com.dogdaycare.model.EmergencyAllocation;
+import com.dogdaycare.model.BookingStatus;
+import com.dogdaycare.model.ServiceKind;
 import com.dogdaycare.model.User;
-import com.dogdaycare.repository.BookingRepository;
-import com.dogdaycare.repository.EmergencyAllocationRepository;
 import com.dogdaycare.repository.UserRepository;
 import com.dogdaycare.service.BookingLimitService;
 import jakarta.validation.constraints.NotBlank;
@@ -20,7 +19,6 @@ import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.*;
 
 import java.time.LocalDate;
-import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.util.Optional;
 
@@ -30,9 +28,7 @@ import java.util.Optional;
 @PreAuthorize("hasAnyRole('ADMIN','EMPLOYEE')")
 public class AdminEmergencyBookingController {
 
-    private final BookingRepository bookingRepository;
     private final UserRepository userRepository;
-    private final EmergencyAllocationRepository emergencyRepo;
     private final BookingLimitService limitService;
 
     // --------- GET: page ----------
@@ -80,9 +76,9 @@ public class AdminEmergencyBookingController {
         User customer = userOpt.get();
 
         // 3) Emergency can be used only if the selected service's normal capacity is already full
-        String svc = form.getServiceType().toLowerCase();
-        boolean isDaycare = svc.contains("daycare");
-        boolean isBoarding = svc.contains("boarding");
+        ServiceKind kind = ServiceKind.of(form.getServiceType());
+        boolean isDaycare = kind.isDaycare();
+        boolean isBoarding = kind.isBoarding();
 
         if (isDaycare && counts.getDaycare() < counts.daycareCap()) {
             return withError("Daycare normal capacity isn’t full yet. Please use the standard booking flow.", date, counts, form, model);
@@ -102,16 +98,10 @@ public class AdminEmergencyBookingController {
         booking.setServiceType(form.getServiceType());
         booking.setDate(date);
         booking.setTime(form.getTime() != null ? form.getTime() : LocalTime.of(6, 0));
-        booking.setStatus("APPROVED");
+        booking.setStatus(BookingStatus.APPROVED);
 
-        Booking saved = bookingRepository.save(booking);
-
-        // Optional audit row (kept for traceability; not used for capacity math)
-        EmergencyAllocation ea = new EmergencyAllocation();
-        ea.setDate(date);
-        ea.setBookingId(saved.getId());
-        ea.setCreatedAt(LocalDateTime.now());
-        emergencyRepo.save(ea);
+        // Saves the booking + audit allocation row and bumps the day's counters together
+        limitService.createEmergencyBooking(booking);
 
         // Refresh counts for UI after insert
         EmergencyCounts updated = limitService.snapshot(date);
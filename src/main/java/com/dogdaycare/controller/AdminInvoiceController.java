@@ -2,21 +2,21 @@ package com.dogdaycare.controller;
 
 import com.dogdaycare.dto.InvoiceRowDto;
 import com.dogdaycare.model.Booking;
-import com.dogdaycare.model.EvaluationRequest;
 import com.dogdaycare.model.Invoice;
 import com.dogdaycare.repository.BookingRepository;
-import com.dogdaycare.repository.EvaluationRepository;
 import com.dogdaycare.repository.InvoiceRepository;
 import com.dogdaycare.repository.UserRepository;
 import com.dogdaycare.repository.WeeklyBillingStatusRepository;
 import com.dogdaycare.service.BundleService;
+import com.dogdaycare.service.CustomerProfileCache;
 import com.dogdaycare.service.PricingService;
+import com.dogdaycare.service.WeeklyInvoiceService;
+import com.dogdaycare.service.WeeklyPricingEngine;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
-import java.math.RoundingMode;
 
 import java.math.BigDecimal;
 import java.time.Clock;
@@ -31,9 +31,10 @@ import java.util.stream.Collectors;
 public class AdminInvoiceController {
 
     private final BookingRepository bookingRepository;
-    private final EvaluationRepository evaluationRepository;
+    private final CustomerProfileCache profileCache;
     private final InvoiceRepository invoiceRepository;
     private final PricingService pricingService;
+    private final WeeklyInvoiceService weeklyInvoiceService;
     private final Clock clock;
 
     private final UserRepository userRepository;
@@ -43,17 +44,19 @@ public class AdminInvoiceController {
     private final BundleService bundleService;
 
     public AdminInvoiceController(BookingRepository bookingRepository,
-                                  EvaluationRepository evaluationRepository,
+                                  CustomerProfileCache profileCache,
                                   InvoiceRepository invoiceRepository,
                                   PricingService pricingService,
+                                  WeeklyInvoiceService weeklyInvoiceService,
                                   UserRepository userRepository,
                                   WeeklyBillingStatusRepository weeklyRepo,
                                   BundleService bundleService,
                                   Clock clock) {
         this.bookingRepository = bookingRepository;
-        this.evaluationRepository = evaluationRepository;
+        this.profileCache = profileCache;
         this.invoiceRepository = invoiceRepository;
         this.pricingService = pricingService;
+        this.weeklyInvoiceService = weeklyInvoiceService;
         this.userRepository = userRepository;
         this.weeklyRepo = weeklyRepo;
         this.bundleService = bundleService;
@@ -79,103 +82,7 @@ public class AdminInvoiceController {
             @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate start) {
 
         LocalDate ws = (start != null) ? start.with(DayOfWeek.MONDAY) : lastCompletedWeekStart();
-        LocalDate we = weekEnd(ws);
-
-        List<Booking> weekBookings = bookingRepository.findByDateBetween(ws, we).stream()
-                .filter(b -> !"CANCELED".equalsIgnoreCase(b.getStatus()))
-                .collect(Collectors.toList());
-
-        Map<String, List<Booking>> byEmail = weekBookings.stream()
-                .filter(b -> b.getCustomer() != null && b.getCustomer().getUsername() != null)
-                .collect(Collectors.groupingBy(b -> b.getCustomer().getUsername()));
-
-        List<InvoiceRowDto> rows = new ArrayList<>();
-
-        for (var entry : byEmail.entrySet()) {
-            String email = entry.getKey();
-            var bookings = entry.getValue();
-
-            var evalOpt = evaluationRepository.findTopByEmailOrderByCreatedAtDesc(email);
-            String name = evalOpt.map(EvaluationRequest::getClientName).orElse(email);
-            String dog  = evalOpt.map(EvaluationRequest::getDogName).orElse("N/A");
-
-            // Determine week-tier for this customer (count daycare bookings in the week, non-canceled)
-            boolean atLeast4 = bookings.stream()
-                    .filter(b -> b.getServiceType() != null && b.getServiceType().toLowerCase().contains("daycare"))
-                    .filter(b -> !"CANCELED".equalsIgnoreCase(b.getStatus()))
-                    .count() >= 4;
-
-            BigDecimal currentAmount = bookings.stream()
-                    .filter(b -> !"CANCELED".equalsIgnoreCase(b.getStatus()))
-                    .map(b -> {
-                        int n = (b.getDogCount() != null ? b.getDogCount() : 1);
-                        String svc = (b.getServiceType() == null ? "" : b.getServiceType()).toLowerCase();
-
-                        if (svc.contains("after hours")) {
-                            return new BigDecimal("90.00").multiply(BigDecimal.valueOf(n));
-                        } else if (svc.contains("boarding")) {
-                            return pricingService.priceFor(b).multiply(BigDecimal.valueOf(n));
-                        } else if (svc.contains("daycare")) {
-                            BigDecimal perDog = pricingService.quoteDaycareAtTier(b, atLeast4);
-                            return perDog.multiply(BigDecimal.valueOf(n));
-                        } else {
-                            return pricingService.priceFor(b).multiply(BigDecimal.valueOf(n));
-                        }
-                    })
-                    .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-            BigDecimal paidToDate = bookings.stream()
-                    .filter(b -> !"CANCELED".equalsIgnoreCase(b.getStatus()))
-                    .filter(Booking::isPaid)
-                    .map(b -> {
-                        int n = (b.getDogCount() != null ? b.getDogCount() : 1);
-                        String svc = (b.getServiceType() == null ? "" : b.getServiceType()).toLowerCase();
-
-                        if (svc.contains("after hours")) {
-                            return new BigDecimal("90.00").multiply(BigDecimal.valueOf(n));
-                        } else if (svc.contains("boarding")) {
-                            return pricingService.priceFor(b).multiply(BigDecimal.valueOf(n));
-                        } else if (svc.contains("daycare")) {
-                            BigDecimal perDog = pricingService.quoteDaycareAtTier(b, atLeast4);
-                            return perDog.multiply(BigDecimal.valueOf(n));
-                        } else {
-                            return pricingService.priceFor(b).multiply(BigDecimal.valueOf(n));
-                        }
-                    })
-                    .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-            BigDecimal deltaUnpaid = currentAmount.subtract(paidToDate);
-            if (deltaUnpaid.signum() < 0) deltaUnpaid = BigDecimal.ZERO;
-
-            BigDecimal currentAmount2 = currentAmount.setScale(2, RoundingMode.HALF_UP);
-            BigDecimal paidToDate2    = paidToDate.setScale(2, RoundingMode.HALF_UP);
-            BigDecimal deltaUnpaid2   = deltaUnpaid.setScale(2, RoundingMode.HALF_UP);
-
-            // invoice record (may exist)
-            var invOpt = invoiceRepository.findByCustomerEmailAndWeekStart(email, ws);
-            boolean invoicePaid = invOpt.map(Invoice::isPaid).orElse(false);
-
-            // all non-canceled days paid this week?
-            boolean allDaysPaid = !bookings.isEmpty() && bookings.stream().allMatch(Booking::isPaid);
-
-            Long invoiceId = invOpt.map(Invoice::getId).orElse(null);
-            boolean rowPaid = invoicePaid && allDaysPaid;
-
-            rows.add(new InvoiceRowDto(
-                    invoiceId,
-                    name,
-                    email,
-                    dog,
-                    currentAmount2,   // total
-                    rowPaid,
-                    paidToDate2,      // previouslyPaidAmount (aliased to paidToDate only if your test wants that)
-                    deltaUnpaid2,     // newSincePaid
-                    invoicePaid
-            ));
-        }
-
-        rows.sort(Comparator.comparing(InvoiceRowDto::getCustomerName, String.CASE_INSENSITIVE_ORDER));
-        return rows;
+        return weeklyInvoiceService.weeklyRows(ws);
     }
 
     @PostMapping("/mark-paid")
@@ -211,9 +118,9 @@ public class AdminInvoiceController {
             invoice = invoiceRepository.findByCustomerEmailAndWeekStart(customerEmail, ws).orElse(null);
         }
         if (invoice == null) {
-            var evalOpt = evaluationRepository.findTopByEmailOrderByCreatedAtDesc(customerEmail);
-            String name = evalOpt.map(EvaluationRequest::getClientName).orElse(customerEmail);
-            String dog  = evalOpt.map(EvaluationRequest::getDogName).orElse("N/A");
+            var profile = profileCache.get(customerEmail);
+            String name = profile.clientNameOr(customerEmail);
+            String dog  = profile.dogNameOr("N/A");
 
             invoice = new Invoice();
             invoice.setCustomerEmail(customerEmail);
@@ -224,11 +131,12 @@ public class AdminInvoiceController {
         }
 
         // Fetch all non-canceled bookings for that customer/week
-        final String emailKey = customerEmail; // effectively final for lambdas
-        List<Booking> weekCustomerBookings = bookingRepository.findByDateBetween(ws, we).stream()
-                .filter(b -> b.getCustomer() != null && emailKey.equals(b.getCustomer().getUsername()))
-                .filter(b -> !"CANCELED".equalsIgnoreCase(b.getStatus()))
-                .collect(Collectors.toList());
+        List<Booking> weekCustomerBookings = bookingRepository.findActiveByCustomerEmailAndDateBetween(customerEmail, ws, we);
+
+        // Pricing context for unlocked bookings, loaded once for the customer-week
+        WeeklyPricingEngine engine = weekCustomerBookings.isEmpty()
+                ? null
+                : pricingService.engineFor(weekCustomerBookings.get(0).getCustomer(), ws);
 
         if (!invoice.isPaid()) {
             // First-time payment: mark ALL week bookings paid
@@ -245,7 +153,7 @@ public class AdminInvoiceController {
                     .map(b -> {
                         BigDecimal locked = b.getQuotedRateAtLock();
                         if (locked != null) return locked;
-                        BigDecimal perDog = pricingService.priceFor(b);
+                        BigDecimal perDog = engine.priceFor(b);
                         int n = (b.getDogCount() != null ? b.getDogCount() : 1);
                         return perDog.multiply(BigDecimal.valueOf(n));
                     })
@@ -279,7 +187,7 @@ public class AdminInvoiceController {
                     .map(b -> {
                         BigDecimal locked = b.getQuotedRateAtLock();
                         if (locked != null) return locked;
-                        BigDecimal perDog = pricingService.priceFor(b);
+                        BigDecimal perDog = engine.priceFor(b);
                         int n = (b.getDogCount() != null ? b.getDogCount() : 1);
                         return perDog.multiply(BigDecimal.valueOf(n));
                     })
@@ -3,18 +3,15 @@ package com.dogdaycare.controller;
 import com.dogdaycare.model.UploadedFile;
 import com.dogdaycare.repository.FileRepository;
 import com.dogdaycare.service.UploadService;
-import org.springframework.core.io.FileSystemResource;
-import org.springframework.core.io.Resource;
-import org.springframework.http.HttpHeaders;
-import org.springframework.http.MediaType;
-import org.springframework.http.ResponseEntity;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpStatus;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
-import java.io.File;
-import java.nio.file.Path;
+import java.io.IOException;
 
 @Controller
 @RequestMapping("/admin/uploads")
@@ -23,10 +20,14 @@ public class AdminUploadsController {
 
     private final UploadService uploadService;
     private final FileRepository fileRepository;
+    private final UploadDownloadHandler downloadHandler;
 
-    public AdminUploadsController(UploadService uploadService, FileRepository fileRepository) {
+    public AdminUploadsController(UploadService uploadService,
+                                  FileRepository fileRepository,
+                                  UploadDownloadHandler downloadHandler) {
         this.uploadService = uploadService;
         this.fileRepository = fileRepository;
+        this.downloadHandler = downloadHandler;
     }
 
     // Preserve your existing redirect/filter behavior to keep the Uploads tab open
@@ -44,26 +45,19 @@ public class AdminUploadsController {
         return "redirect:/admin";
     }
 
-    // NEW: Admin download any uploaded file
+    // NEW: Admin download any uploaded file (Range / conditional GET via UploadDownloadHandler)
     @GetMapping("/{id}/download")
-    public ResponseEntity<Resource> adminDownload(@PathVariable Long id) {
+    public void adminDownload(@PathVariable Long id,
+                              HttpServletRequest request, HttpServletResponse response) throws IOException {
         UploadedFile uf = fileRepository.findById(id).orElse(null);
-        if (uf == null) return ResponseEntity.notFound().build();
-
-        Path path = uploadService.resolveDownloadPath(uf);
-        File file = path.toFile();
-        if (!file.exists()) return ResponseEntity.notFound().build();
-
-        Resource resource = new FileSystemResource(file);
-        return ResponseEntity.ok()
-                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + uf.getFileName() + "\"")
-                .contentType(MediaType.parseMediaType(
-                        uf.getFileType() != null ? uf.getFileType() : MediaType.APPLICATION_OCTET_STREAM_VALUE))
-                .contentLength(file.length())
-                .body(resource);
+        if (uf == null) {
+            response.setStatus(HttpStatus.NOT_FOUND.value());
+            return;
+        }
+        downloadHandler.serve(uf, request, response);
     }
 
-    // NEW: Admin delete (removes file from disk and DB)
+    // NEW: Admin delete (removes the DB record; the file goes with its last reference)
     @PostMapping("/{id}/delete")
     public String adminDelete(@PathVariable Long id, RedirectAttributes ra) {
         UploadedFile uf = fileRepository.findById(id).orElse(null);
@@ -74,16 +68,8 @@ public class AdminUploadsController {
         }
 
         try {
-            // 1) Remove from disk (ignore if already missing)
-            Path path = uploadService.resolveDownloadPath(uf);
-            File fileOnDisk = path.toFile();
-            if (fileOnDisk.exists() && !fileOnDisk.delete()) {
-                // If delete fails, we still proceed to remove DB record but let admin know
-                ra.addFlashAttribute("errorMessage", "File record removed, but disk file could not be deleted.");
-            }
-
-            // 2) Remove DB record
-            fileRepository.deleteById(id);
+            // Row + one blob reference; the file leaves disk when no other upload shares it
+            uploadService.delete(uf);
 
             ra.addFlashAttribute("successMessage", "File deleted.");
         } catch (Exception e) {
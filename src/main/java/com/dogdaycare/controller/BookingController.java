@@ -1,14 +1,19 @@
 package com.dogdaycare.controller;
 
+import com.dogdaycare.dto.CustomerBookingView;
 import com.dogdaycare.model.Booking;
+import com.dogdaycare.model.BookingStatus;
+import com.dogdaycare.model.ServiceKind;
 import com.dogdaycare.model.User;
 import com.dogdaycare.repository.BookingRepository;
 import com.dogdaycare.repository.FileRepository;
-import com.dogdaycare.repository.UserRepository;
 import com.dogdaycare.service.BookingLimitService;
 import com.dogdaycare.service.BundleService;
 import com.dogdaycare.service.CancelPolicyService;
+import com.dogdaycare.service.CustomerBookingViewService;
 import com.dogdaycare.service.PricingService;
+import com.dogdaycare.service.QuotePricingCache;
+import com.dogdaycare.service.UserCache;
 import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
@@ -19,129 +24,67 @@ import org.springframework.format.annotation.DateTimeFormat;
 import static org.springframework.format.annotation.DateTimeFormat.ISO;
 import org.springframework.web.bind.annotation.ResponseBody;
 
-import java.math.BigDecimal;
 import java.time.*;
-import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
-import java.util.HashMap;
 import java.util.LinkedHashMap;
-import java.util.LinkedHashSet;
-import java.util.stream.Collectors;
 
 @Controller
 @RequestMapping("/booking")
 public class BookingController {
 
     private final BookingRepository bookingRepository;
-    private final UserRepository userRepository;
+    private final UserCache userCache;
     private final BookingLimitService bookingLimitService;
     private final CancelPolicyService cancelPolicyService;
     private final FileRepository fileRepository;
     private final PricingService pricingService;
     private final BundleService bundleService;
+    private final CustomerBookingViewService bookingViewService;
+    private final QuotePricingCache quotePricingCache;
 
     private final Clock clock;
 
     public BookingController(BookingRepository bookingRepository,
-                             UserRepository userRepository,
+                             UserCache userCache,
                              BookingLimitService bookingLimitService,
                              CancelPolicyService cancelPolicyService,
                              FileRepository fileRepository,
                              PricingService pricingService,
                              BundleService bundleService,
+                             CustomerBookingViewService bookingViewService,
+                             QuotePricingCache quotePricingCache,
                              Clock clock) {
         this.bookingRepository = bookingRepository;
-        this.userRepository = userRepository;
+        this.userCache = userCache;
         this.bookingLimitService = bookingLimitService;
         this.cancelPolicyService = cancelPolicyService;
         this.fileRepository = fileRepository;
         this.pricingService = pricingService;
         this.bundleService = bundleService;
+        this.bookingViewService = bookingViewService;
+        this.quotePricingCache = quotePricingCache;
         this.clock = clock;
     }
 
-    private static String safe(String s) { return s == null ? "" : s.trim(); }
-
     private void prepareBookingPage(User customer,
                                     Model model,
+                                    CustomerBookingView view,
                                     String successMessage,
                                     String errorMessage) {
 
-        var all = bookingRepository.findByCustomer(customer);
-        // Show only CURRENT week (Mon–Sun) and future on the customer page
-        LocalDate visibleFrom = pricingService.weekStartMonday(LocalDate.now(clock));
-        var allVisible = all.stream()
-                .filter(b -> b.getDate() == null || !b.getDate().isBefore(visibleFrom))
-                .collect(Collectors.toList());
-
-// Build a date -> service label map for non-canceled bookings in that window
-        Map<LocalDate, String> bookedByDate = allVisible.stream()
-                .filter(b -> b.getDate() != null)
-                .filter(b -> {
-                    Object st = b.getStatus();
-                    return st == null || !"CANCELED".equalsIgnoreCase(String.valueOf(st));
-                })
-                .collect(Collectors.groupingBy(
-                        Booking::getDate,
-                        LinkedHashMap::new,
-                        Collectors.mapping(
-                                b -> safe(b.getServiceType()),
-                                Collectors.toCollection(LinkedHashSet::new)
-                        )
-                ))
-                .entrySet().stream()
-                .collect(Collectors.toMap(
-                        Map.Entry::getKey,
-                        e -> {
-                            var services = e.getValue().stream()
-                                    .filter(s -> s != null && !s.isBlank())
-                                    .toList();
-                            if (services.isEmpty()) return "Booked";
-                            if (services.size() == 1) return services.get(0);
-                            return "Multiple";
-                        },
-                        (a, b) -> a,
-                        LinkedHashMap::new
-                ));
-
-        model.addAttribute("bookedByDate", bookedByDate);
-
-        Comparator<Booking> sortByDateThenTime =
-                Comparator.comparing(Booking::getDate, Comparator.nullsLast(Comparator.naturalOrder()))
-                        .thenComparing(Booking::getTime, Comparator.nullsLast(Comparator.naturalOrder()));
-
-        var daycare = allVisible.stream()
-                .filter(b -> b.getServiceType() != null && b.getServiceType().toLowerCase().contains("daycare"))
-                .sorted(sortByDateThenTime)
-                .toList();
-
-        var boarding = allVisible.stream()
-                .filter(b -> b.getServiceType() != null && b.getServiceType().toLowerCase().contains("boarding"))
-                .sorted(sortByDateThenTime)
-                .toList();
-
-        var daycareShort = daycare.stream()
-                .filter(b -> "Daycare (6 AM - 3 PM)".equalsIgnoreCase(safe(b.getServiceType())))
-                .toList();
-
-        var daycareLong = daycare.stream()
-                .filter(b -> "Daycare (6 AM - 8 PM)".equalsIgnoreCase(safe(b.getServiceType())))
-                .toList();
-
-        var daycareAfterHours = daycare.stream()
-                .filter(b -> "Daycare After Hours (6 AM - 11 PM)".equalsIgnoreCase(safe(b.getServiceType())))
-                .toList();
+        // Date -> service label map for non-canceled bookings (current week onward)
+        model.addAttribute("bookedByDate", view.bookedByDate());
 
         var files = fileRepository.findByUserIdOrderByCreatedAtDesc(customer.getId());
         model.addAttribute("files", files);
 
-        model.addAttribute("bookings", allVisible);
-        model.addAttribute("bookingsDaycare", daycare);
-        model.addAttribute("bookingsBoarding", boarding);
-        model.addAttribute("bookingsDaycareShort", daycareShort);
-        model.addAttribute("bookingsDaycareLong", daycareLong);
-        model.addAttribute("bookingsDaycareAfterHours", daycareAfterHours);
+        model.addAttribute("bookings", view.bookings());
+        model.addAttribute("bookingsDaycare", view.daycare());
+        model.addAttribute("bookingsBoarding", view.boarding());
+        model.addAttribute("bookingsDaycareShort", view.daycareShort());
+        model.addAttribute("bookingsDaycareLong", view.daycareLong());
+        model.addAttribute("bookingsDaycareAfterHours", view.daycareAfterHours());
         model.addAttribute("today", LocalDate.now(clock));
 
         model.addAttribute("services", List.of(
@@ -161,42 +104,12 @@ public class BookingController {
 
         // Permanent weekly banner flags (THIS week: Mon–Sun of today)
         LocalDate selected = LocalDate.now(clock);
-        boolean hasWeekPaid = bundleService.hasWeekPaid(customer, selected);
-        model.addAttribute("hasWeekPaidThisWeek", hasWeekPaid);
+        model.addAttribute("hasWeekPaidThisWeek", view.isWeekPaid(selected));
         model.addAttribute("weekStart", pricingService.weekStartMonday(selected));
         model.addAttribute("weekEnd", pricingService.weekEndSunday(selected));
 
-        // === Provisional daycare quotes (always dynamic; no locking) ===
-        // For each Mon–Sun week, compute provisional quotes for ALL eligible, opted-in daycare bookings.
-        // We INCLUDE paid bookings here so customers still see prices after payment.
-        Map<Long, BigDecimal> provisionalQuotes = new HashMap<>();
-        var byWeek = daycare.stream()
-                .filter(b -> {
-                    Object st = b.getStatus();
-                    return st == null || !"CANCELED".equalsIgnoreCase(String.valueOf(st));
-                })
-                .collect(Collectors.groupingBy(b -> pricingService.weekStartMonday(b.getDate())));
-
-        for (var entry : byWeek.entrySet()) {
-            var weekBookings = entry.getValue();
-
-            // Eligible daycare for the week (opted-in + advance-eligible)
-            var eligible = weekBookings.stream()
-                    .filter(b -> b.isWantsAdvancePay() && b.isAdvanceEligible())
-                    .toList();
-
-            if (eligible.isEmpty()) continue;
-
-            boolean atLeast4 = eligible.size() >= 4;
-
-            // Quote every eligible daycare in that week (paid or not)
-            for (var b : eligible) {
-                java.math.BigDecimal base = pricingService.quoteDaycareAtTier(b, atLeast4);
-                int n = (b.getDogCount() != null ? b.getDogCount() : 1);
-                provisionalQuotes.put(b.getId(), base.multiply(java.math.BigDecimal.valueOf(n)));
-            }
-        }
-        model.addAttribute("provisionalQuotes", provisionalQuotes);
+        // Provisional daycare quotes (always dynamic; no locking), paid bookings included
+        model.addAttribute("provisionalQuotes", view.provisionalQuotes());
     }
 
     @GetMapping("/week-paid")
@@ -205,22 +118,35 @@ public class BookingController {
             @RequestParam("date") @DateTimeFormat(iso = ISO.DATE) LocalDate date,
             Authentication authentication
     ) {
-        User customer = userRepository.findByUsername(authentication.getName()).orElseThrow();
+        User customer = userCache.current(authentication);
         boolean weekPaid = bundleService.hasWeekPaid(customer, pricingService.weekStartMonday(date));
         return Map.of("weekPaid", weekPaid);
     }
 
+    // Per-day availability for the two-week calendar (one query for all 14 days).
+    // Customers only see whether a regular spot is left, not the raw counts.
+    @GetMapping("/availability")
+    @ResponseBody
+    public Map<LocalDate, Map<String, Boolean>> availability(
+            @RequestParam(value = "start", required = false) @DateTimeFormat(iso = ISO.DATE) LocalDate start
+    ) {
+        LocalDate week1Monday = pricingService.weekStartMonday(start != null ? start : LocalDate.now(clock));
+        LocalDate end = week1Monday.plusWeeks(2).minusDays(1);
+
+        Map<LocalDate, Map<String, Boolean>> out = new LinkedHashMap<>();
+        bookingLimitService.snapshotRange(week1Monday, end).forEach((d, c) -> out.put(d, Map.of(
+                "daycare", BookingLimitService.hasRegularSpot(c, ServiceKind.DAYCARE_OTHER),
+                "boarding", BookingLimitService.hasRegularSpot(c, ServiceKind.BOARDING)
+        )));
+        return out;
+    }
+
     @GetMapping
     public String bookingPage(Authentication authentication, Model model,
                               @RequestParam(value = "start", required = false) String startIso,
                               @ModelAttribute("successMessage") String successMessage,
                               @ModelAttribute("errorMessage") String errorMessage) {
-        User customer = userRepository.findByUsername(authentication.getName()).orElseThrow();
-
-        // --- Base grouping you already show (bookings lists, files, etc.) ---
-        prepareBookingPage(customer, model,
-                (successMessage != null && !successMessage.isBlank()) ? successMessage : null,
-                (errorMessage != null && !errorMessage.isBlank()) ? errorMessage : null);
+        User customer = userCache.current(authentication);
 
         // === Two-week calendar support ===
         LocalDate today = LocalDate.now(clock);
@@ -230,13 +156,22 @@ public class BookingController {
         LocalDate week1Monday = pricingService.weekStartMonday(anchor);
         LocalDate week2Monday = week1Monday.plusWeeks(1);
 
+        // Visible bookings + paid flags for this week and both calendar weeks, in one read
+        CustomerBookingView view = bookingViewService.load(
+                customer, pricingService.weekStartMonday(today), List.of(today, week1Monday, week2Monday));
+
+        // --- Base grouping you already show (bookings lists, files, etc.) ---
+        prepareBookingPage(customer, model, view,
+                (successMessage != null && !successMessage.isBlank()) ? successMessage : null,
+                (errorMessage != null && !errorMessage.isBlank()) ? errorMessage : null);
+
         // Build day lists (Mon..Sun)
         List<LocalDate> week1Days = weekDays(week1Monday);
         List<LocalDate> week2Days = weekDays(week2Monday);
 
         // Week banners: “planned/paid?” by week
-        boolean week1Paid = bundleService.hasWeekPaid(customer, week1Monday);
-        boolean week2Paid = bundleService.hasWeekPaid(customer, week2Monday);
+        boolean week1Paid = view.isWeekPaid(week1Monday);
+        boolean week2Paid = view.isWeekPaid(week2Monday);
 
         // Drop-off times (adjust to your exact slots)
         List<String> dropoffTimes = List.of("06:00", "06:30", "07:00", "07:30", "08:00", "08:30",
@@ -254,8 +189,8 @@ public class BookingController {
         model.addAttribute("dropoffTimes", dropoffTimes);
 
         // Keep this for banner logic on the current week (already used in your JS)
-        model.addAttribute("hasWeekPaidThisWeek", bundleService.hasWeekPaid(customer, LocalDate.now(clock)));
-        model.addAttribute("today", LocalDate.now(clock));
+        model.addAttribute("hasWeekPaidThisWeek", view.isWeekPaid(today));
+        model.addAttribute("today", today);
 
         return "booking";
     }
@@ -276,8 +211,6 @@ public class BookingController {
             @RequestParam(name = "wantsAdvancePay", defaultValue = "false") boolean wantsAdvancePay,
             @RequestParam(name = "dogCount", defaultValue = "1") Integer dogCount // <-- NEW
     ) {
-        User customer = userRepository.findByUsername(authentication.getName()).orElseThrow();
-
         // Clamp dogCount to [1..5]
         if (dogCount == null) dogCount = 1;
         dogCount = Math.max(1, Math.min(5, dogCount));
@@ -288,16 +221,10 @@ public class BookingController {
             localTime = LocalTime.parse(time);
         }
 
-        // Build a dummy booking shell for shared helpers
-        Booking probe = new Booking();
-        probe.setCustomer(customer);
-        probe.setServiceType(serviceType);
-        probe.setDate(date);
-        probe.setTime(localTime);
-
-        boolean isDaycare = serviceType != null && serviceType.toLowerCase().contains("daycare");
-        boolean isBoarding = serviceType != null && serviceType.toLowerCase().contains("boarding");
-        boolean isAfterHours = serviceType != null && serviceType.toLowerCase().contains("after hours");
+        ServiceKind kind = ServiceKind.of(serviceType);
+        boolean isDaycare = kind.isDaycare();
+        boolean isBoarding = kind.isBoarding();
+        boolean isAfterHours = kind.isAfterHours();
 
         boolean advanceEligible = false;
         if (isDaycare && localTime != null) {
@@ -322,7 +249,10 @@ public class BookingController {
             );
         }
 
-        boolean weekAlreadyPaid = bundleService.hasWeekPaid(customer, pricingService.weekStartMonday(date));
+        // Customer-week pricing context (week-paid, prepay count, boarding history), cached until their bookings change
+        QuotePricingCache.WeekContext ctx = quotePricingCache.get(authentication.getName(), date);
+
+        boolean weekAlreadyPaid = ctx.weekPaid();
         boolean wantsAdvancePayFinal = isDaycare && advanceEligible && wantsAdvancePay && !weekAlreadyPaid;
 
         java.math.BigDecimal amount;
@@ -330,13 +260,13 @@ public class BookingController {
 
         if (isDaycare) {
             amount = pricingService.previewDaycarePrice(
-                    customer, date, serviceType, advanceEligible, wantsAdvancePayFinal
+                    serviceType, advanceEligible, wantsAdvancePayFinal, ctx.engine()::prepayDaycareCount
             );
             note = wantsAdvancePayFinal
                     ? "Daycare prepay preview × " + dogCount
                     : (advanceEligible ? "Daycare immediate preview × " + dogCount : "Daycare (not prepay-eligible) × " + dogCount);
         } else if (isBoarding) {
-            amount = pricingService.priceFor(probe);
+            amount = ctx.engine().quoteBoarding(date);
             note = "Boarding preview × " + dogCount + " (prior-month tier & last-night logic).";
         } else {
             amount = java.math.BigDecimal.ZERO;
@@ -383,7 +313,7 @@ public class BookingController {
             return "redirect:/booking";
         }
 
-        final User customer = userRepository.findByUsername(authentication.getName()).orElseThrow();
+        final User customer = userCache.current(authentication);
 
         if (dogCount == null) dogCount = 1;
         dogCount = Math.max(1, Math.min(5, dogCount));
@@ -397,9 +327,7 @@ public class BookingController {
         }
 
         // Prevent double-booking on the same calendar day (any service)
-        var sameDay = bookingRepository.findByCustomerAndDate(customer, requestedDate);
-        boolean hasAnyServiceSameDay = sameDay.stream()
-                .anyMatch(b -> !"CANCELED".equalsIgnoreCase(b.getStatus()));
+        boolean hasAnyServiceSameDay = bookingRepository.existsActiveByCustomerAndDate(customer, requestedDate);
         if (hasAnyServiceSameDay) {
             redirectAttributes.addFlashAttribute(
                     "errorMessage",
@@ -408,21 +336,11 @@ public class BookingController {
             return "redirect:/booking";
         }
 
-        // Capacity check
-        boolean canBook = bookingLimitService.canCustomerBook(requestedDate, serviceType);
-        if (!canBook) {
-            redirectAttributes.addFlashAttribute(
-                    "errorMessage",
-                    "We’re full for this day. Please try a different date. " +
-                            "If this is an emergency, please contact the business at (XXX) XXX-XXXX."
-            );
-            return "redirect:/booking";
-        }
-
         // Flags
-        boolean isDaycareFlag  = serviceType != null && serviceType.toLowerCase().contains("daycare");
-        boolean isAfterHours   = serviceType != null && serviceType.toLowerCase().contains("after hours");
-        boolean isBoardingFlag = serviceType != null && serviceType.toLowerCase().contains("boarding");
+        ServiceKind kind = ServiceKind.of(serviceType);
+        boolean isDaycareFlag  = kind.isDaycare();
+        boolean isAfterHours   = kind.isAfterHours();
+        boolean isBoardingFlag = kind.isBoarding();
 
         // 24h rule for daycare only
         boolean advanceEligible = false;
@@ -447,7 +365,7 @@ public class BookingController {
         booking.setServiceType(serviceType);
         booking.setDate(requestedDate);   // reuse parsed date
         booking.setTime(localTime);
-        booking.setStatus("APPROVED");
+        booking.setStatus(BookingStatus.APPROVED);
         booking.setDogCount(dogCount);
 
         booking.setCreatedAt(LocalDateTime.now(clock));
@@ -477,7 +395,15 @@ public class BookingController {
                 .setScale(2, java.math.RoundingMode.HALF_UP);
         booking.setQuotedRateAtLock(total);
 
-        bookingRepository.save(booking);
+        // Capacity is claimed atomically together with the insert (no check-then-act race)
+        if (bookingLimitService.reserveAndCreate(booking).isEmpty()) {
+            redirectAttributes.addFlashAttribute(
+                    "errorMessage",
+                    "We’re full for this day. Please try a different date. " +
+                            "If this is an emergency, please contact the business at (XXX) XXX-XXXX."
+            );
+            return "redirect:/booking";
+        }
 
         String msg = "Booking submitted successfully!";
         if (wantsAdvancePayFinal) {
@@ -493,7 +419,7 @@ public class BookingController {
                                 RedirectAttributes redirectAttributes) {
         Booking booking = bookingRepository.findById(id).orElse(null);
         if (booking != null && booking.getCustomer() != null
-                && booking.getCustomer().getUsername().equals(authentication.getName())) {
+                && booking.getCustomer().getId().equals(userCache.current(authentication).getId())) {
 
             // Enforce 72-hour rule for Boarding (customers only)
             boolean canCancel = cancelPolicyService.canCustomerCancel(booking, clock);
@@ -505,8 +431,7 @@ public class BookingController {
                 return "redirect:/booking";
             }
 
-            booking.setStatus("CANCELED");
-            bookingRepository.save(booking);
+            bookingLimitService.cancelBooking(booking);
             redirectAttributes.addFlashAttribute("successMessage", "Your booking has been canceled.");
         }
         return "redirect:/booking";
@@ -1,8 +1,11 @@
 package com.dogdaycare.controller;
 
 import com.dogdaycare.model.EvaluationRequest;
+import com.dogdaycare.model.UploadedFile;
 import com.dogdaycare.repository.EvaluationRepository;
+import com.dogdaycare.service.CustomerProfileCache;
 import com.dogdaycare.service.EmailService;
+import com.dogdaycare.service.UploadService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Controller;
@@ -14,7 +17,6 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.multipart.MultipartFile;
 import org.springframework.web.bind.annotation.RequestParam;
 
-import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
@@ -24,16 +26,20 @@ public class EvaluationController {
 
     private final EvaluationRepository evaluationRepository;
     private final EmailService emailService;
-
-    @Value("${file.upload-dir}")
-    private String uploadDir;
+    private final CustomerProfileCache profileCache;
+    private final UploadService uploadService;
 
     @Value("${business.email}")
     private String businessEmail;  // <-- Configurable business email
 
-    public EvaluationController(EvaluationRepository evaluationRepository, EmailService emailService) {
+    public EvaluationController(EvaluationRepository evaluationRepository,
+                                EmailService emailService,
+                                CustomerProfileCache profileCache,
+                                UploadService uploadService) {
         this.evaluationRepository = evaluationRepository;
         this.emailService = emailService;
+        this.profileCache = profileCache;
+        this.uploadService = uploadService;
     }
 
     @GetMapping("/evaluation")
@@ -60,6 +66,17 @@ public class EvaluationController {
             return "evaluation";
         }
 
+        // Reject oversized attachments before anything is saved
+        if (files != null) {
+            for (MultipartFile file : files) {
+                if (file != null && file.getSize() > uploadService.getMaxFileBytes()) {
+                    model.addAttribute("errors", List.of(new ObjectError("files",
+                            "\"" + file.getOriginalFilename() + "\" is too large to upload.")));
+                    return "evaluation";
+                }
+            }
+        }
+
         // Build extras (cap at 4, ignore blank rows)
         if (additionalDogNames == null) additionalDogNames = List.of();
         if (additionalDogBreeds == null) additionalDogBreeds = List.of();
@@ -84,22 +101,16 @@ public class EvaluationController {
 
             // Save to DB (entity hooks serialize extras into JSON column)
             evaluationRepository.save(evaluation);
+            profileCache.invalidate(evaluation.getEmail());
 
-            // Save files to disk (up to 5)
-            List<File> savedFiles = new ArrayList<>();
+            // Stream files to disk (up to 5), hashed and size-checked
+            List<UploadedFile> savedFiles = new ArrayList<>();
             final int MAX_FILES = 5;
-            if (files != null && files.length > 0) {
-                File dir = new File(uploadDir);
-                if (!dir.exists()) dir.mkdirs();
-
-                int count = 0;
+            if (files != null) {
                 for (MultipartFile file : files) {
                     if (file != null && !file.isEmpty()) {
-                        if (count >= MAX_FILES) break;
-                        File savedFile = new File(dir, System.currentTimeMillis() + "_" + file.getOriginalFilename());
-                        file.transferTo(savedFile);
-                        savedFiles.add(savedFile);
-                        count++;
+                        if (savedFiles.size() >= MAX_FILES) break;
+                        savedFiles.add(uploadService.storeForEvaluation(evaluation, file));
                     }
                 }
             }
@@ -121,7 +132,7 @@ public class EvaluationController {
                 extrasText = sb.toString();
             }
 
-            // Send email to business
+            // Queue email to business (sent in the background)
             String businessMessage = String.format(
                     "New Evaluation Request:\n\nClient: %s\nEmail: %s\nPhone: %s\n"
                             + "Primary Dog: %s (%s)\n"
@@ -130,9 +141,9 @@ public class EvaluationController {
                     evaluation.getDogName(), evaluation.getDogBreed(),
                     extrasText
             );
-            emailService.sendEmailWithAttachments(businessEmail, "New Evaluation Request", businessMessage, savedFiles);
+            emailService.sendEmailWithUploads(businessEmail, "New Evaluation Request", businessMessage, savedFiles);
 
-            // Send confirmation email to customer
+            // Queue confirmation email to customer
             String customerMessage = String.format(
                     "Hello %s,\n\nThank you for submitting your evaluation for %s (%s). "
                             + "We also recorded the following additional dogs: %s.\n"
@@ -3,21 +3,18 @@ package com.dogdaycare.controller;
 import com.dogdaycare.model.UploadedFile;
 import com.dogdaycare.model.User;
 import com.dogdaycare.repository.FileRepository;
-import com.dogdaycare.repository.UserRepository;
 import com.dogdaycare.service.UploadService;
-import org.springframework.core.io.FileSystemResource;
-import org.springframework.core.io.Resource;
+import com.dogdaycare.service.UserCache;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.format.annotation.DateTimeFormat;
-import org.springframework.http.HttpHeaders;
-import org.springframework.http.MediaType;
-import org.springframework.http.ResponseEntity;
+import org.springframework.http.HttpStatus;
 import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
-import java.io.File;
-import java.nio.file.Path;
+import java.io.IOException;
 import java.time.LocalDate;
 
 @Controller
@@ -25,15 +22,18 @@ import java.time.LocalDate;
 public class UploadController {
 
     private final UploadService uploadService;
-    private final UserRepository userRepository;
+    private final UserCache userCache;
     private final FileRepository fileRepository;
+    private final UploadDownloadHandler downloadHandler;
 
     public UploadController(UploadService uploadService,
-                            UserRepository userRepository,
-                            FileRepository fileRepository) {
+                            UserCache userCache,
+                            FileRepository fileRepository,
+                            UploadDownloadHandler downloadHandler) {
         this.uploadService = uploadService;
-        this.userRepository = userRepository;
+        this.userCache = userCache;
         this.fileRepository = fileRepository;
+        this.downloadHandler = downloadHandler;
     }
 
     // 👇 Always show uploads inside the Booking page tab
@@ -50,7 +50,7 @@ public class UploadController {
                                @RequestParam(value = "expirationDate", required = false)
                                @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate expirationDate) {
         try {
-            User user = userRepository.findByUsername(auth.getName()).orElseThrow();
+            User user = userCache.current(auth);
             uploadService.storeForUser(user, file, displayName, expirationDate);
         } catch (Exception ignored) {
             // You can add a FlashAttribute error if you want; keeping it simple
@@ -58,25 +58,17 @@ public class UploadController {
         return "redirect:/booking#uploads";
     }
 
-    // Downloads stay here (deep link ok)
+    // Downloads stay here (deep link ok); Range / conditional GET via UploadDownloadHandler
     @GetMapping("/{id}/download")
-    public ResponseEntity<Resource> download(Authentication auth, @PathVariable Long id) {
-        User user = userRepository.findByUsername(auth.getName()).orElseThrow();
+    public void download(Authentication auth, @PathVariable Long id,
+                         HttpServletRequest request, HttpServletResponse response) throws IOException {
+        User user = userCache.current(auth);
         UploadedFile uf = fileRepository.findById(id).orElseThrow();
 
         if (uf.getUser() == null || !uf.getUser().getId().equals(user.getId())) {
-            return ResponseEntity.status(403).build();
+            response.setStatus(HttpStatus.FORBIDDEN.value());
+            return;
         }
-
-        Path path = uploadService.resolveDownloadPath(uf);
-        File file = path.toFile();
-        if (!file.exists()) return ResponseEntity.notFound().build();
-
-        Resource resource = new FileSystemResource(file);
-        return ResponseEntity.ok()
-                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + uf.getFileName() + "\"")
-                .contentType(MediaType.parseMediaType(uf.getFileType() != null ? uf.getFileType() : MediaType.APPLICATION_OCTET_STREAM_VALUE))
-                .contentLength(file.length())
-                .body(resource);
+        downloadHandler.serve(uf, request, response);
     }
 }
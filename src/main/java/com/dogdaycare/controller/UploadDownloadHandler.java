@@ -0,0 +1,157 @@
+package com.dogdaycare.controller;
+
+import com.dogdaycare.model.UploadedFile;
+import com.dogdaycare.service.UploadService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+
+/**
+ * Serves an uploaded file for both the customer and admin download endpoints.
+ *
+ * - ETag is the stored SHA-256 (strong); rows stored before hashing get a weak size/mtime tag.
+ *   Last-Modified is the upload's createdAt. If-None-Match / If-Modified-Since => 304.
+ * - A single {@code Range: bytes=...} is answered with 206 + Content-Range (honouring If-Range);
+ *   unsatisfiable ranges get 416, multiple ranges get the whole file.
+ * - The body is written with Tomcat sendfile when the connector offers it, otherwise with
+ *   FileChannel.transferTo into the response stream, so the file is never read into heap.
+ */
+@Component
+public class UploadDownloadHandler {
+
+    // Tomcat NIO/NIO2 connector sendfile contract (request attributes)
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    private final UploadService uploadService;
+
+    public UploadDownloadHandler(UploadService uploadService) {
+        this.uploadService = uploadService;
+    }
+
+    public void serve(UploadedFile uf, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        Path path = uploadService.resolveDownloadPath(uf);
+        if (!Files.isRegularFile(path)) {
+            response.setStatus(HttpStatus.NOT_FOUND.value());
+            return;
+        }
+        long length = Files.size(path);
+        String etag = etagFor(uf, path, length);
+        long lastModified = (uf.getCreatedAt() != null)
+                ? uf.getCreatedAt().toEpochMilli()
+                : Files.getLastModifiedTime(path).toMillis();
+
+        // Private: the file belongs to one customer. no-cache => browsers revalidate (cheap 304).
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "private, no-cache");
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        if (new ServletWebRequest(request, response).checkNotModified(etag, lastModified)) {
+            return; // 304 with ETag/Last-Modified already set
+        }
+
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + uf.getFileName() + "\"");
+        response.setContentType(uf.getFileType() != null ? uf.getFileType() : MediaType.APPLICATION_OCTET_STREAM_VALUE);
+
+        long start = 0;
+        long end = length - 1;
+        HttpRange range = requestedRange(request, etag, lastModified);
+        if (range != null) {
+            if (length == 0 || !isSatisfiable(range, length)) {
+                response.setStatus(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE.value());
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+                return;
+            }
+            start = range.getRangeStart(length);
+            end = range.getRangeEnd(length);
+            response.setStatus(HttpStatus.PARTIAL_CONTENT.value());
+            response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + length);
+        } else {
+            response.setStatus(HttpStatus.OK.value());
+        }
+
+        long count = end - start + 1;
+        response.setContentLengthLong(count);
+        if ("HEAD".equalsIgnoreCase(request.getMethod()) || count <= 0) return;
+
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            request.setAttribute(SENDFILE_FILENAME, path.toAbsolutePath().toString());
+            request.setAttribute(SENDFILE_START, start);
+            request.setAttribute(SENDFILE_END, end + 1); // exclusive
+            return;
+        }
+
+        try (FileChannel file = FileChannel.open(path, StandardOpenOption.READ)) {
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            long pos = start;
+            long remaining = count;
+            while (remaining > 0) {
+                long sent = file.transferTo(pos, remaining, out);
+                if (sent <= 0) break; // file shrank underneath us
+                pos += sent;
+                remaining -= sent;
+            }
+        }
+        response.flushBuffer();
+    }
+
+    // Single satisfiable-looking range, or null for "send the whole file"
+    private static HttpRange requestedRange(HttpServletRequest request, String etag, long lastModified) {
+        String header = request.getHeader(HttpHeaders.RANGE);
+        if (header == null || header.isBlank()) return null;
+        if (!ifRangeMatches(request.getHeader(HttpHeaders.IF_RANGE), etag, lastModified)) return null;
+
+        List<HttpRange> ranges;
+        try {
+            ranges = HttpRange.parseRanges(header);
+        } catch (IllegalArgumentException e) {
+            return null; // malformed => ignore, as RFC 9110 allows
+        }
+        return ranges.size() == 1 ? ranges.get(0) : null;
+    }
+
+    private static boolean ifRangeMatches(String ifRange, String etag, long lastModified) {
+        if (ifRange == null || ifRange.isBlank()) return true;
+        String v = ifRange.trim();
+        if (v.startsWith("\"") || v.startsWith("W/")) {
+            return !v.startsWith("W/") && v.equals(etag); // strong comparison only
+        }
+        try {
+            // HTTP dates have second precision
+            long since = ZonedDateTime.parse(v, DateTimeFormatter.RFC_1123_DATE_TIME).toInstant().getEpochSecond();
+            return since == lastModified / 1000;
+        } catch (DateTimeParseException e) {
+            return false;
+        }
+    }
+
+    private static boolean isSatisfiable(HttpRange range, long length) {
+        try {
+            return range.getRangeStart(length) < length;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    private static String etagFor(UploadedFile uf, Path path, long length) throws IOException {
+        if (uf.getSha256() != null) return "\"" + uf.getSha256() + "\"";
+        return "W/\"" + Long.toHexString(length) + "-" + Long.toHexString(Files.getLastModifiedTime(path).toMillis()) + "\"";
+    }
+}
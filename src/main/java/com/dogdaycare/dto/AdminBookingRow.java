@@ -0,0 +1,54 @@
+package com.dogdaycare.dto;
+
+import com.dogdaycare.model.Booking;
+import com.dogdaycare.model.BookingStatus;
+import com.dogdaycare.model.User;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+/**
+ * One booking as the admin Bookings tab needs it, read by a JPQL constructor projection
+ * (BookingRepository#findAdminRowsByDate) instead of hydrating managed entities.
+ *
+ * @param customerId    null for bookings without a customer
+ * @param customerEmail the customer's username
+ */
+public record AdminBookingRow(
+        Long id,
+        Long customerId,
+        String customerEmail,
+        String serviceType,
+        LocalDate date,
+        LocalTime time,
+        BookingStatus status,
+        boolean wantsAdvancePay,
+        boolean advanceEligible,
+        boolean paid,
+        BigDecimal quotedRateAtLock,
+        Integer dogCount
+) {
+
+    /** A detached, never-persisted Booking carrying just what the pricing engine reads. */
+    public Booking asBooking() {
+        Booking b = new Booking();
+        b.setId(id);
+        if (customerId != null) {
+            User customer = new User();
+            customer.setId(customerId);
+            customer.setUsername(customerEmail);
+            b.setCustomer(customer);
+        }
+        b.setServiceType(serviceType);
+        b.setDate(date);
+        b.setTime(time);
+        b.setStatus(status);
+        b.setWantsAdvancePay(wantsAdvancePay);
+        b.setAdvanceEligible(advanceEligible);
+        b.setPaid(paid);
+        b.setQuotedRateAtLock(quotedRateAtLock);
+        b.setDogCount(dogCount);
+        return b;
+    }
+}
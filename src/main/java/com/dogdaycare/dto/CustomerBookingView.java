@@ -0,0 +1,35 @@
+package com.dogdaycare.dto;
+
+import com.dogdaycare.model.Booking;
+
+import java.math.BigDecimal;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Everything the customer booking page renders from the booking table, built in one pass
+ * by CustomerBookingViewService.
+ *
+ * @param bookings          visible bookings (current week onward), sorted by date then time
+ * @param bookedByDate      non-canceled service label per date ("Multiple" when several)
+ * @param provisionalQuotes booking id → tier-aware daycare quote × dog count (opted-in, eligible only)
+ * @param paidWeeks         Mondays of the requested weeks that have a paid, non-canceled booking
+ */
+public record CustomerBookingView(
+        List<Booking> bookings,
+        List<Booking> daycare,
+        List<Booking> boarding,
+        List<Booking> daycareShort,
+        List<Booking> daycareLong,
+        List<Booking> daycareAfterHours,
+        Map<LocalDate, String> bookedByDate,
+        Map<Long, BigDecimal> provisionalQuotes,
+        Set<LocalDate> paidWeeks
+) {
+    public boolean isWeekPaid(LocalDate anyDateInWeek) {
+        return anyDateInWeek != null && paidWeeks.contains(anyDateInWeek.with(DayOfWeek.MONDAY));
+    }
+}
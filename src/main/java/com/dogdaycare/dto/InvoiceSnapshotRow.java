@@ -0,0 +1,26 @@
+package com.dogdaycare.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * A non-empty invoice snapshot joined with the customer's invoice for the week (if any),
+ * read by a JPQL constructor projection (InvoiceSnapshotRepository#findRowsByWeekStart).
+ *
+ * @param invoiceId   null when no invoice exists yet for the customer-week
+ * @param invoicePaid null when no invoice exists yet for the customer-week
+ */
+public record InvoiceSnapshotRow(
+        String customerEmail,
+        BigDecimal currentAmount,
+        BigDecimal paidToDate,
+        boolean allDaysPaid,
+        Long invoiceId,
+        Boolean invoicePaid
+) {
+
+    /** Same rule as InvoiceSnapshot#getDeltaUnpaid: charges not yet covered, never negative. */
+    public BigDecimal deltaUnpaid() {
+        BigDecimal delta = currentAmount.subtract(paidToDate);
+        return delta.signum() < 0 ? BigDecimal.ZERO : delta;
+    }
+}
@@ -1,15 +1,19 @@
 package com.dogdaycare.model;
 
 import jakarta.persistence.*;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Setter;
 import jakarta.persistence.Column;
+import org.springframework.data.domain.DomainEvents;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.time.OffsetDateTime;
+import java.util.Collection;
+import java.util.List;
 
 @Entity
 @Table(name = "booking")
@@ -21,7 +25,8 @@ public class Booking {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @ManyToOne
+    // Lazy: only listing paths that show the customer fetch it (entity graphs / join fetch in BookingRepository)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id")
     private User customer;
 
@@ -30,11 +35,18 @@ public class Booking {
     @Column(name = "service_type")
     private String serviceType;
 
+    // Derived from serviceType whenever it is set; indexed, so queries filter on it instead of LIKE
+    @Enumerated(EnumType.STRING)
+    @Column(name = "service_kind", nullable = false, length = 24)
+    @Setter(AccessLevel.NONE)
+    private ServiceKind serviceKind = ServiceKind.OTHER;
+
     private LocalDate date;
     private LocalTime time;
 
-    // PENDING, APPROVED, CANCELED
-    private String status = "APPROVED";
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 16)
+    private BookingStatus status = BookingStatus.APPROVED;
 
     // --- Discounts / audit / locking ---
     @Column(name = "created_at")
@@ -66,6 +78,18 @@ public class Booking {
     @Column(name = "dog_count", nullable = false)
     private Integer dogCount = 1;
 
+    public void setServiceType(String serviceType) {
+        this.serviceType = serviceType;
+        this.serviceKind = ServiceKind.of(serviceType);
+    }
+
     public Integer getDogCount() { return dogCount; }
     public void setDogCount(Integer dogCount) { this.dogCount = dogCount; }
+
+    // Published by Spring Data after every repository save (keeps invoice snapshots current)
+    @DomainEvents
+    Collection<BookingChangedEvent> domainEvents() {
+        if (customer == null || customer.getId() == null || date == null) return List.of();
+        return List.of(new BookingChangedEvent(customer.getId(), date, serviceKind));
+    }
 }
@@ -0,0 +1,10 @@
+package com.dogdaycare.model;
+
+import java.time.LocalDate;
+
+/**
+ * Published by Spring Data whenever a {@link Booking} is saved through its repository
+ * (create, cancel, mark-paid, bundle lock, ...). Carries just enough to find the
+ * customer-weeks whose invoice snapshot may have changed.
+ */
+public record BookingChangedEvent(Long customerId, LocalDate date, ServiceKind serviceKind) {}
@@ -0,0 +1,14 @@
+package com.dogdaycare.model;
+
+/**
+ * Lifecycle of a {@link Booking}, stored by name in {@code booking.status} (normalized by V13).
+ * Everything except CANCELED holds capacity and is priced; "active" queries filter on
+ * {@code status <> 'CANCELED'} literally so the partial indexes apply.
+ */
+public enum BookingStatus {
+    PENDING,
+    APPROVED,
+    CANCELED;
+
+    public boolean isActive() { return this != CANCELED; }
+}
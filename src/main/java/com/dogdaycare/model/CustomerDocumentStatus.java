@@ -0,0 +1,60 @@
+package com.dogdaycare.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Precomputed document compliance for one customer, from the expiration dates on their
+ * uploads. Rebuilt nightly by DocumentComplianceJob (dates move even when files don't)
+ * and per customer whenever they upload or an upload is deleted.
+ */
+@Entity
+@Table(
+        name = "customer_document_status",
+        indexes = @Index(name = "idx_customer_document_status_status_customer", columnList = "status, customer_id")
+)
+@Getter
+@Setter
+@NoArgsConstructor
+public class CustomerDocumentStatus {
+
+    /** Worst state across the customer's dated documents; NONE when nothing has a date. */
+    public enum Compliance { NONE, VALID, EXPIRING, EXPIRED }
+
+    @Id
+    @Column(name = "customer_id")
+    private Long customerId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 16)
+    private Compliance status = Compliance.NONE;
+
+    @Column(name = "document_count", nullable = false)
+    private int documentCount;
+
+    @Column(name = "expired_count", nullable = false)
+    private int expiredCount;
+
+    @Column(name = "expiring_count", nullable = false)
+    private int expiringCount;
+
+    // Earliest expiration that hasn't passed yet (null if none)
+    @Column(name = "next_expiration")
+    private LocalDate nextExpiration;
+
+    // Business date the status was computed for
+    @Column(name = "as_of", nullable = false)
+    private LocalDate asOf;
+
+    @Column(name = "computed_at", nullable = false)
+    private LocalDateTime computedAt;
+
+    public CustomerDocumentStatus(Long customerId) {
+        this.customerId = customerId;
+    }
+}
@@ -0,0 +1,39 @@
+package com.dogdaycare.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDate;
+
+/**
+ * Materialized per-day capacity counters (non-canceled bookings only).
+ * Maintained by BookingLimitService on create/cancel/emergency and rebuilt
+ * from the booking table by the nightly reconciliation job.
+ */
+@Entity
+@Table(name = "daily_capacity")
+@Getter
+@Setter
+@NoArgsConstructor
+public class DailyCapacity {
+
+    @Id
+    @Column(name = "date")
+    private LocalDate date;
+
+    @Column(name = "daycare", nullable = false)
+    private int daycare;
+
+    @Column(name = "boarding", nullable = false)
+    private int boarding;
+
+    // Emergency allocations recorded for the day (audit rows in emergency_allocation)
+    @Column(name = "emergency_used", nullable = false)
+    private int emergencyUsed;
+
+    public DailyCapacity(LocalDate date) {
+        this.date = date;
+    }
+}
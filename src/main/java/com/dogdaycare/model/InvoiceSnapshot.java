@@ -0,0 +1,61 @@
+package com.dogdaycare.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Precomputed weekly invoicing figures for one customer-week (non-canceled bookings only).
+ * Refreshed by WeeklyInvoiceService when a booking of that customer changes, so the
+ * invoicing tab reads these rows instead of re-pricing the whole week.
+ */
+@Entity
+@Getter
+@Setter
+@Table(
+        name = "invoice_snapshot",
+        uniqueConstraints = @UniqueConstraint(columnNames = {"customer_id", "week_start"}),
+        indexes = @Index(name = "idx_invoice_snapshot_week", columnList = "week_start")
+)
+public class InvoiceSnapshot {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "customer_id", nullable = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    private User customer;
+
+    @Column(name = "customer_email", nullable = false)
+    private String customerEmail;
+
+    @Column(name = "week_start", nullable = false)
+    private LocalDate weekStart; // Monday of the week
+
+    @Column(name = "current_amount", nullable = false, precision = 12, scale = 2)
+    private BigDecimal currentAmount = BigDecimal.ZERO; // live tier-aware total
+
+    @Column(name = "paid_to_date", nullable = false, precision = 12, scale = 2)
+    private BigDecimal paidToDate = BigDecimal.ZERO;    // same pricing, paid bookings only
+
+    @Column(name = "all_days_paid", nullable = false)
+    private boolean allDaysPaid;
+
+    @Column(name = "booking_count", nullable = false)
+    private int bookingCount;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    public BigDecimal getDeltaUnpaid() {
+        BigDecimal delta = currentAmount.subtract(paidToDate);
+        return delta.signum() < 0 ? BigDecimal.ZERO : delta;
+    }
+}
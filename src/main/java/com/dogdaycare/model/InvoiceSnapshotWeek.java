@@ -0,0 +1,29 @@
+package com.dogdaycare.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Marks a week whose invoice snapshots were fully built from the booking table.
+ * Weeks without a marker (e.g. bookings that predate snapshots) are built on first read;
+ * after that, booking change events keep them current.
+ */
+@Entity
+@Table(name = "invoice_snapshot_week")
+@Getter
+@Setter
+@NoArgsConstructor
+public class InvoiceSnapshotWeek {
+
+    @Id
+    @Column(name = "week_start")
+    private LocalDate weekStart;
+
+    @Column(name = "built_at", nullable = false)
+    private LocalDateTime builtAt;
+}
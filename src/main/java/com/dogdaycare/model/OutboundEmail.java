@@ -0,0 +1,91 @@
+package com.dogdaycare.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.io.File;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * One queued outbound email (the "outbox"). Rows are written on the request thread by
+ * EmailService and sent in the background by EmailOutboxDispatcher, which retries
+ * failed deliveries with backoff until {@code email.outbox.max-attempts} is reached.
+ */
+@Entity
+@Table(
+        name = "email_outbox",
+        indexes = @Index(name = "idx_email_outbox_due", columnList = "status, next_attempt_at")
+)
+@Getter
+@Setter
+@NoArgsConstructor
+public class OutboundEmail {
+
+    public enum Status { PENDING, SENDING, SENT, FAILED }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "recipient", nullable = false)
+    private String recipient;
+
+    @Column(name = "subject", nullable = false)
+    private String subject;
+
+    // Cleared once SENT or FAILED; secrets are never stored here (see EmailService#sendEmailWithSecret)
+    @Column(name = "body", columnDefinition = "TEXT")
+    private String body;
+
+    // Files already saved under file.upload-dir, one "path<TAB>name" per line
+    @Column(name = "attachment_paths", columnDefinition = "TEXT")
+    private String attachmentPaths;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 16)
+    private Status status = Status.PENDING;
+
+    @Column(name = "attempts", nullable = false)
+    private int attempts;
+
+    // When PENDING: earliest next try. When SENDING: end of the worker's lease.
+    @Column(name = "next_attempt_at", nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    @Column(name = "last_error", length = 1000)
+    private String lastError;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "sent_at")
+    private LocalDateTime sentAt;
+
+    /** A file on disk and the name it is attached under. */
+    public record Attachment(String path, String name) {}
+
+    public List<Attachment> getAttachments() {
+        if (attachmentPaths == null || attachmentPaths.isBlank()) return List.of();
+        return Arrays.stream(attachmentPaths.split("\n"))
+                .filter(line -> !line.isBlank())
+                .map(line -> {
+                    int tab = line.indexOf('\t');
+                    return tab < 0
+                            ? new Attachment(line, new File(line).getName())
+                            : new Attachment(line.substring(0, tab), line.substring(tab + 1));
+                })
+                .toList();
+    }
+
+    public void setAttachments(List<Attachment> attachments) {
+        this.attachmentPaths = (attachments == null || attachments.isEmpty()) ? null
+                : attachments.stream()
+                        .map(a -> a.path() + "\t" + a.name().replaceAll("[\t\n\r]", " "))
+                        .collect(Collectors.joining("\n"));
+    }
+}
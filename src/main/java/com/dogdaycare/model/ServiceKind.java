@@ -0,0 +1,56 @@
+package com.dogdaycare.model;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * What a booking's free-text service type means for pricing and capacity, resolved once when the
+ * service type is set and persisted next to it as {@code booking.service_kind} (see V12).
+ * Queries filter on this column with equality instead of {@code LIKE '%daycare%'}.
+ */
+public enum ServiceKind {
+    /** "Daycare (6 AM - 3 PM)" */
+    DAYCARE_HALF_DAY,
+    /** "Daycare (6 AM - 8 PM)" */
+    DAYCARE_FULL_DAY,
+    /** "Daycare After Hours (6 AM - 11 PM)" — flat rate; still counted toward the weekly daycare tier */
+    DAYCARE_AFTER_HOURS,
+    /** Any other daycare label (priced as full day) */
+    DAYCARE_OTHER,
+    BOARDING,
+    OTHER;
+
+    /** Every daycare kind, After Hours included (capacity counts them all as daycare). */
+    public static final Set<ServiceKind> DAYCARE = Collections.unmodifiableSet(
+            EnumSet.of(DAYCARE_HALF_DAY, DAYCARE_FULL_DAY, DAYCARE_AFTER_HOURS, DAYCARE_OTHER));
+
+    /**
+     * Classify a service type label. Same rules the string checks used to apply:
+     * "daycare" / "boarding" anywhere (case-insensitive), After Hours by name or its 6 AM - 11 PM window,
+     * half day by the 6 AM - 3 PM window, full day by an 8 PM end.
+     */
+    public static ServiceKind of(String serviceType) {
+        if (serviceType == null) return OTHER;
+        String s = serviceType.toLowerCase(Locale.ROOT);
+        if (s.contains("daycare")) {
+            if (s.contains("after hours") || serviceType.contains("6 AM - 11 PM")) return DAYCARE_AFTER_HOURS;
+            if (serviceType.contains("6 AM - 3 PM")) return DAYCARE_HALF_DAY;
+            if (serviceType.contains("8 PM")) return DAYCARE_FULL_DAY;
+            return DAYCARE_OTHER;
+        }
+        if (s.contains("boarding")) return BOARDING;
+        return OTHER;
+    }
+
+    public boolean isDaycare() { return DAYCARE.contains(this); }
+
+    public boolean isBoarding() { return this == BOARDING; }
+
+    public boolean isAfterHours() { return this == DAYCARE_AFTER_HOURS; }
+
+    public boolean isHalfDay() { return this == DAYCARE_HALF_DAY; }
+
+    public boolean isFullDay() { return this == DAYCARE_FULL_DAY; }
+}
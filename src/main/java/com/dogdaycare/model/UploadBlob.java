@@ -0,0 +1,34 @@
+package com.dogdaycare.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * One stored file body, addressed by its SHA-256 (see UploadStore for the on-disk layout).
+ * ref_count is the number of uploaded_file rows (customer or evaluation uploads) that
+ * point at it; the blob is removed from disk when the last of them is deleted.
+ */
+@Entity
+@Table(name = "upload_blob")
+@Getter
+@Setter
+@NoArgsConstructor
+public class UploadBlob {
+
+    @Id
+    @Column(name = "sha256", length = 64)
+    private String sha256;
+
+    @Column(name = "size_bytes", nullable = false)
+    private long sizeBytes;
+
+    @Column(name = "ref_count", nullable = false)
+    private int refCount;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+}
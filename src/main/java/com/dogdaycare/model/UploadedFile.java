@@ -8,7 +8,14 @@ import java.time.Instant;
 import java.time.LocalDate;
 
 @Entity
-@Table(name = "uploaded_file")
+@Table(
+        name = "uploaded_file",
+        indexes = {
+                @Index(name = "idx_uploaded_file_sha256", columnList = "sha256"),
+                @Index(name = "idx_uploaded_file_expiration", columnList = "expiration_date"),
+                @Index(name = "idx_uploaded_file_user_expiration", columnList = "user_id, expiration_date")
+        }
+)
 @Getter
 @Setter
 public class UploadedFile {
@@ -41,6 +48,10 @@ public class UploadedFile {
     @Column(name = "size_bytes")
     private Long sizeBytes;             // optional
 
+    // DB: sha256 (hex digest of the stored bytes; null for files uploaded before it was recorded)
+    @Column(name = "sha256", length = 64)
+    private String sha256;
+
     // DB: created_at (NOT NULL)
     @Column(name = "created_at", nullable = false)
     private Instant createdAt = Instant.now();
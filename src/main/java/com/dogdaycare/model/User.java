@@ -3,11 +3,14 @@ package com.dogdaycare.model;
 import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 @Entity
 @Getter
 @Setter
 @Table(name = "users")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "users") // only when app.l2-cache.enabled
 public class User {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -1,45 +1,167 @@
 package com.dogdaycare.repository;
 
+import com.dogdaycare.dto.AdminBookingRow;
 import com.dogdaycare.model.Booking;
+import com.dogdaycare.model.ServiceKind;
 import com.dogdaycare.model.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface BookingRepository extends JpaRepository<Booking, Long> {
     List<Booking> findByCustomer(User customer);
+
+    // Admin listings show the customer on every row: fetch it in the same query
+    @EntityGraph(attributePaths = "customer")
     List<Booking> findByDate(LocalDate date);
+
+    @EntityGraph(attributePaths = "customer")
     List<Booking> findByDateBetween(LocalDate start, LocalDate end);
 
+    @EntityGraph(attributePaths = "customer")
+    Optional<Booking> findWithCustomerById(Long id);
+
+    // Admin Bookings tab JSON: columns straight into row records, no managed entities or snapshots
+    @Query("select new com.dogdaycare.dto.AdminBookingRow(b.id, c.id, c.username, b.serviceType, b.date, b.time, " +
+            "b.status, b.wantsAdvancePay, b.advanceEligible, b.paid, b.quotedRateAtLock, b.dogCount) " +
+            "from Booking b left join b.customer c " +
+            "where b.date = :date " +
+            "order by b.id")
+    List<AdminBookingRow> findAdminRowsByDate(@Param("date") LocalDate date);
+
     // Weekly filters (useful for daycare bundle counts)
     List<Booking> findByCustomerAndDateBetween(User customer, LocalDate startInclusive, LocalDate endInclusive);
 
-    List<Booking> findByCustomerAndServiceTypeContainingIgnoreCaseAndDateBetween(
-            User customer, String serviceTypeLike, LocalDate startInclusive, LocalDate endInclusive);
+    // Service filters are equality on the indexed service_kind column (ServiceKind.DAYCARE for any daycare)
+    List<Booking> findByCustomerAndServiceKindInAndDateBetween(
+            User customer, Collection<ServiceKind> kinds, LocalDate startInclusive, LocalDate endInclusive);
+
+    // "Active" = not canceled. The predicate is written as the literal status <> 'CANCELED' so Postgres
+    // can match it against the partial indexes from V13 (a bound parameter can't be proven to imply it).
+
+    @Query("select b from Booking b " +
+            "where b.customer = :customer and b.serviceKind in :kinds and b.date between :start and :end " +
+            "and b.status <> com.dogdaycare.model.BookingStatus.CANCELED")
+    List<Booking> findActiveByCustomerAndServiceKindInAndDateBetween(@Param("customer") User customer,
+                                                                     @Param("kinds") Collection<ServiceKind> kinds,
+                                                                     @Param("start") LocalDate startInclusive,
+                                                                     @Param("end") LocalDate endInclusive);
+
+    @Query("select b from Booking b " +
+            "where b.customer = :customer and b.date between :start and :end " +
+            "and b.status <> com.dogdaycare.model.BookingStatus.CANCELED")
+    List<Booking> findActiveByCustomerAndDateBetween(@Param("customer") User customer,
+                                                     @Param("start") LocalDate startInclusive,
+                                                     @Param("end") LocalDate endInclusive);
+
+    // Admin invoice actions only have the customer's email
+    @Query("select b from Booking b " +
+            "where b.customer.username = :email and b.date between :start and :end " +
+            "and b.status <> com.dogdaycare.model.BookingStatus.CANCELED")
+    List<Booking> findActiveByCustomerEmailAndDateBetween(@Param("email") String customerEmail,
+                                                          @Param("start") LocalDate startInclusive,
+                                                          @Param("end") LocalDate endInclusive);
 
-    List<Booking> findByCustomerAndServiceTypeContainingIgnoreCaseAndDateBetweenAndStatusNotIgnoreCase(
-            User customer,
-            String serviceTypeLike,
-            LocalDate startInclusive,
-            LocalDate endInclusive,
-            String status);
+    // Customer booking page: current week onward (idx_booking_user_date)
+    List<Booking> findByCustomerAndDateGreaterThanEqual(User customer, LocalDate fromInclusive);
 
-    List<Booking> findByCustomerAndDateBetweenAndStatusNotIgnoreCase(
-            User customer,
-            LocalDate startDateInclusive,
-            LocalDate endDateInclusive,
-            String statusToExclude
-    );
+    // Week-paid checks (BundleService): a single week via EXISTS, several weeks via GROUP BY
+    @Query("select case when exists (select 1 from Booking b " +
+            "where b.customer = :customer and b.date between :start and :end " +
+            "and b.paid = true and b.status <> com.dogdaycare.model.BookingStatus.CANCELED) " +
+            "then true else false end")
+    boolean existsActivePaidByCustomerAndDateBetween(@Param("customer") User customer,
+                                                     @Param("start") LocalDate startInclusive,
+                                                     @Param("end") LocalDate endInclusive);
 
-    // A) Exact-day, any service (we’ll use this to block double-booking)
+    @Query("select b.date from Booking b " +
+            "where b.customer = :customer and b.date between :start and :end " +
+            "and b.paid = true and b.status <> com.dogdaycare.model.BookingStatus.CANCELED " +
+            "group by b.date")
+    List<LocalDate> findPaidDatesByCustomerAndDateBetween(@Param("customer") User customer,
+                                                          @Param("start") LocalDate startInclusive,
+                                                          @Param("end") LocalDate endInclusive);
+
+    // A) Exact-day, any service
     List<Booking> findByCustomerAndDate(User customer, LocalDate date);
 
-    List<Booking> findByCustomerAndServiceTypeContainingIgnoreCaseAndDateAndStatusNotIgnoreCase(
-            User customer,
-            String serviceTypeLike,
-            LocalDate date,
-            String statusToExclude
-    );
+    // Blocks double-booking (same rule as uniq_booking_active_per_day)
+    @Query("select case when exists (select 1 from Booking b " +
+            "where b.customer = :customer and b.date = :date " +
+            "and b.status <> com.dogdaycare.model.BookingStatus.CANCELED) " +
+            "then true else false end")
+    boolean existsActiveByCustomerAndDate(@Param("customer") User customer, @Param("date") LocalDate date);
+
+    // Non-canceled booking counts per (date, service kind) — used to rebuild daily_capacity
+    @Query("select b.date as date, b.serviceKind as serviceKind, count(b) as bookings from Booking b " +
+            "where b.date between :start and :end " +
+            "and b.status <> com.dogdaycare.model.BookingStatus.CANCELED " +
+            "group by b.date, b.serviceKind")
+    List<DayServiceCount> countActiveByDateAndServiceKind(@Param("start") LocalDate startInclusive,
+                                                          @Param("end") LocalDate endInclusive);
+
+    interface DayServiceCount {
+        LocalDate getDate();
+        ServiceKind getServiceKind();
+        long getBookings();
+    }
+
+    // Bookings of the given kinds per customer in a window — with ServiceKind.DAYCARE, drives the weekly tier chip
+    @Query("select b.customer.id as customerId, count(b) as bookings from Booking b " +
+            "where b.customer.id in :customerIds and b.date between :start and :end " +
+            "and b.serviceKind in :kinds " +
+            "and b.status <> com.dogdaycare.model.BookingStatus.CANCELED " +
+            "group by b.customer.id")
+    List<CustomerCount> countActiveByCustomerAndServiceKindIn(@Param("customerIds") Collection<Long> customerIds,
+                                                              @Param("kinds") Collection<ServiceKind> kinds,
+                                                              @Param("start") LocalDate startInclusive,
+                                                              @Param("end") LocalDate endInclusive);
+
+    interface CustomerCount {
+        Long getCustomerId();
+        long getBookings();
+    }
+
+    // Batched forms of the per-customer pricing lookups
+    @Query("select b from Booking b " +
+            "where b.customer.id in :customerIds and b.date between :start and :end " +
+            "and b.status <> com.dogdaycare.model.BookingStatus.CANCELED")
+    List<Booking> findActiveByCustomerIdInAndDateBetween(@Param("customerIds") Collection<Long> customerIds,
+                                                         @Param("start") LocalDate startInclusive,
+                                                         @Param("end") LocalDate endInclusive);
+
+    @Query("select b from Booking b " +
+            "where b.customer.id in :customerIds and b.date between :start and :end " +
+            "and b.serviceKind = com.dogdaycare.model.ServiceKind.BOARDING " +
+            "and b.status <> com.dogdaycare.model.BookingStatus.CANCELED")
+    List<Booking> findActiveBoardingByCustomerIdInAndDateBetween(@Param("customerIds") Collection<Long> customerIds,
+                                                                 @Param("start") LocalDate startInclusive,
+                                                                 @Param("end") LocalDate endInclusive);
+
+    // Weekly invoicing: the week's non-canceled bookings with their customer, grouped by customer.
+    // Must be consumed inside a transaction and closed.
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("select b from Booking b join fetch b.customer c " +
+            "where b.date between :start and :end and c.username is not null " +
+            "and b.status <> com.dogdaycare.model.BookingStatus.CANCELED " +
+            "order by c.id, b.date, b.id")
+    Stream<Booking> streamActiveWithCustomerByDateBetween(@Param("start") LocalDate startInclusive,
+                                                          @Param("end") LocalDate endInclusive);
 
+    @Query("select distinct b.customer.id from Booking b " +
+            "where b.date between :start and :end " +
+            "and b.serviceKind = com.dogdaycare.model.ServiceKind.BOARDING " +
+            "and b.status <> com.dogdaycare.model.BookingStatus.CANCELED")
+    List<Long> findCustomerIdsWithActiveBoarding(@Param("start") LocalDate startInclusive,
+                                                 @Param("end") LocalDate endInclusive);
 }
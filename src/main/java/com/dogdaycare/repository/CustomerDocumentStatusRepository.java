@@ -0,0 +1,18 @@
+package com.dogdaycare.repository;
+
+import com.dogdaycare.model.CustomerDocumentStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+public interface CustomerDocumentStatusRepository extends JpaRepository<CustomerDocumentStatus, Long> {
+
+    // Nightly refresh: rows whose counts didn't change are only re-dated, in one statement
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update CustomerDocumentStatus s set s.asOf = :today, s.computedAt = :now where s.asOf < :today")
+    int markCurrent(@Param("today") LocalDate today, @Param("now") LocalDateTime now);
+}
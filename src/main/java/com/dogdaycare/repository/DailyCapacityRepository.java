@@ -0,0 +1,68 @@
+package com.dogdaycare.repository;
+
+import com.dogdaycare.model.DailyCapacity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+public interface DailyCapacityRepository extends JpaRepository<DailyCapacity, LocalDate> {
+
+    List<DailyCapacity> findByDateBetweenOrderByDateAsc(LocalDate startInclusive, LocalDate endInclusive);
+
+    // Read-only counter values for snapshots. Projections rather than entities, so the bulk
+    // updates below (which don't clear the persistence context) can never leave a stale row managed.
+    @Query("select c.date as date, c.daycare as daycare, c.boarding as boarding, c.emergencyUsed as emergencyUsed " +
+            "from DailyCapacity c where c.date = :date")
+    Optional<DayCounts> findCountsByDate(@Param("date") LocalDate date);
+
+    @Query("select c.date as date, c.daycare as daycare, c.boarding as boarding, c.emergencyUsed as emergencyUsed " +
+            "from DailyCapacity c where c.date between :start and :end order by c.date")
+    List<DayCounts> findCountsByDateBetween(@Param("start") LocalDate startInclusive,
+                                            @Param("end") LocalDate endInclusive);
+
+    // Create the counter row for a day if it doesn't exist yet (safe under concurrent inserts)
+    @Modifying(flushAutomatically = true)
+    @Query(value = "INSERT INTO daily_capacity (date, daycare, boarding, emergency_used) " +
+            "VALUES (:date, 0, 0, 0) ON CONFLICT DO NOTHING", nativeQuery = true)
+    int insertIfAbsent(@Param("date") LocalDate date);
+
+    // Relative adjustments (never drop below zero)
+    @Modifying(flushAutomatically = true)
+    @Query("update DailyCapacity c set c.daycare = c.daycare + :delta " +
+            "where c.date = :date and c.daycare + :delta >= 0")
+    int adjustDaycare(@Param("date") LocalDate date, @Param("delta") int delta);
+
+    @Modifying(flushAutomatically = true)
+    @Query("update DailyCapacity c set c.boarding = c.boarding + :delta " +
+            "where c.date = :date and c.boarding + :delta >= 0")
+    int adjustBoarding(@Param("date") LocalDate date, @Param("delta") int delta);
+
+    @Modifying(flushAutomatically = true)
+    @Query("update DailyCapacity c set c.emergencyUsed = c.emergencyUsed + :delta " +
+            "where c.date = :date and c.emergencyUsed + :delta >= 0")
+    int adjustEmergencyUsed(@Param("date") LocalDate date, @Param("delta") int delta);
+
+    // Atomic conditional increments: succeed (return 1) only while below the service cap and the daily total cap.
+    // The row lock taken by the UPDATE serializes concurrent reservations for the same day only.
+    @Modifying(flushAutomatically = true)
+    @Query("update DailyCapacity c set c.daycare = c.daycare + 1 " +
+            "where c.date = :date and c.daycare < :cap and c.daycare + c.boarding < :totalCap")
+    int reserveDaycare(@Param("date") LocalDate date, @Param("cap") int cap, @Param("totalCap") int totalCap);
+
+    @Modifying(flushAutomatically = true)
+    @Query("update DailyCapacity c set c.boarding = c.boarding + 1 " +
+            "where c.date = :date and c.boarding < :cap and c.daycare + c.boarding < :totalCap")
+    int reserveBoarding(@Param("date") LocalDate date, @Param("cap") int cap, @Param("totalCap") int totalCap);
+
+    interface DayCounts {
+        LocalDate getDate();
+        int getDaycare();
+        int getBoarding();
+        int getEmergencyUsed();
+    }
+}
@@ -2,11 +2,25 @@ package com.dogdaycare.repository;
 
 import com.dogdaycare.model.EmergencyAllocation;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDate;
+import java.util.List;
 
 public interface EmergencyAllocationRepository extends JpaRepository<EmergencyAllocation, Long> {
     long countByDate(LocalDate date);
 
-    void deleteByBookingId(Long bookingId); // (optional) free a spot if an emergency booking is cancelled.
+    long deleteByBookingId(Long bookingId); // (optional) free a spot if an emergency booking is cancelled.
+
+    // Allocations per day — used to rebuild daily_capacity.emergency_used
+    @Query("select e.date as date, count(e) as allocations from EmergencyAllocation e " +
+            "where e.date between :start and :end group by e.date")
+    List<DayAllocationCount> countByDateBetween(@Param("start") LocalDate startInclusive,
+                                                @Param("end") LocalDate endInclusive);
+
+    interface DayAllocationCount {
+        LocalDate getDate();
+        long getAllocations();
+    }
 }
@@ -1,8 +1,14 @@
 package com.dogdaycare.repository;
 
 import com.dogdaycare.model.EvaluationRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface EvaluationRepository extends JpaRepository<EvaluationRequest, Long> {
@@ -10,4 +16,47 @@ public interface EvaluationRepository extends JpaRepository<EvaluationRequest, L
 
     // Use the most recent evaluation for a given email (for name/dog display)
     Optional<EvaluationRequest> findTopByEmailOrderByCreatedAtDesc(String email);
-}
\ No newline at end of file
+
+    // Bulk form of the above for admin lists: the latest evaluation per email in one query.
+    // Rows without a createdAt are returned too; callers pick the winner per email.
+    @Query("""
+           select e from EvaluationRequest e
+           where e.email in :emails
+             and (e.createdAt is null
+                  or e.createdAt = (select max(e2.createdAt) from EvaluationRequest e2 where e2.email = e.email))
+           """)
+    List<EvaluationRequest> findLatestByEmailIn(@Param("emails") Collection<String> emails);
+
+    // Admin dashboard page: pending evaluations plus ones created since :since, newest first.
+    // Keyset on id (idx_evaluation_request_pending / idx_evaluation_request_created): pass
+    // Long.MAX_VALUE for the first page, then the last id seen.
+    @Query("""
+           select e from EvaluationRequest e
+           where (e.approved = false or e.createdAt > :since)
+             and e.id < :beforeId
+           order by e.id desc
+           """)
+    List<EvaluationRequest> findDashboardPage(@Param("since") LocalDateTime since,
+                                              @Param("beforeId") Long beforeId,
+                                              Pageable page);
+
+    // Change marker for AdminSearchService's in-memory fallback (ids only grow)
+    @Query("select coalesce(max(e.id), 0) from EvaluationRequest e")
+    long findMaxId();
+
+    // Admin typeahead on Postgres: email / client name / dog name substring match, each column
+    // with its own pg_trgm GIN index (V11), best trigram similarity first. See AdminSearchService.
+    @Query(value = """
+           select e.* from evaluation_request e
+           where lower(e.email) like :pattern escape '\\'
+              or lower(e.client_name) like :pattern escape '\\'
+              or lower(e.dog_name) like :pattern escape '\\'
+           order by greatest(similarity(lower(e.email), :q),
+                             similarity(lower(e.client_name), :q),
+                             similarity(lower(e.dog_name), :q)) desc, e.id desc
+           limit :limit
+           """, nativeQuery = true)
+    List<EvaluationRequest> searchTrigram(@Param("pattern") String pattern,
+                                          @Param("q") String q,
+                                          @Param("limit") int limit);
+}
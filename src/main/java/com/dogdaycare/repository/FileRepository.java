@@ -2,22 +2,56 @@ package com.dogdaycare.repository;
 
 import com.dogdaycare.model.UploadedFile;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Optional;
 
 public interface FileRepository extends JpaRepository<UploadedFile, Long> {
 
     // Customer portal
     List<UploadedFile> findByUserIdOrderByCreatedAtDesc(Long userId);
 
-    // Admin filters
-    List<UploadedFile> findByExpirationDateBeforeOrderByExpirationDateAsc(LocalDate date);
-    List<UploadedFile> findByExpirationDateBetweenOrderByExpirationDateAsc(LocalDate start, LocalDate end);
+    // Admin filters: one page of customers' matching files (idx_uploaded_file_user_expiration)
+    List<UploadedFile> findByUserIdInAndExpirationDateBeforeOrderByUserIdAscExpirationDateAsc(
+            List<Long> userIds, LocalDate date);
+    List<UploadedFile> findByUserIdInAndExpirationDateBetweenOrderByUserIdAscExpirationDateAsc(
+            List<Long> userIds, LocalDate start, LocalDate end);
 
     // For grouping by customers quickly
     List<UploadedFile> findByUserIdInOrderByUserIdAscCreatedAtDesc(List<Long> userIds);
 
+    // Duplicate detection by content (idx_uploaded_file_sha256)
+    List<UploadedFile> findBySha256(String sha256);
+
     // Evaluation uploads (existing flow)
     List<UploadedFile> findByEvaluationRequestIdOrderByCreatedAtDesc(Long evaluationRequestId);
+
+    // Per-customer expiration summary (DocumentComplianceService); dated documents only in the sums
+    String EXPIRATION_COUNTS = "select f.user.id as customerId, count(f) as documents, " +
+            "sum(case when f.expirationDate < :today then 1 else 0 end) as expired, " +
+            "sum(case when f.expirationDate >= :today and f.expirationDate <= :soon then 1 else 0 end) as expiring, " +
+            "sum(case when f.expirationDate is not null then 1 else 0 end) as dated, " +
+            "min(case when f.expirationDate >= :today then f.expirationDate else null end) as nextExpiration " +
+            "from UploadedFile f where f.user is not null ";
+
+    @Query(EXPIRATION_COUNTS + "group by f.user.id")
+    List<ExpirationCounts> countExpirationsByCustomer(@Param("today") LocalDate today,
+                                                      @Param("soon") LocalDate soon);
+
+    @Query(EXPIRATION_COUNTS + "and f.user.id = :customerId group by f.user.id")
+    Optional<ExpirationCounts> countExpirationsForCustomer(@Param("customerId") Long customerId,
+                                                           @Param("today") LocalDate today,
+                                                           @Param("soon") LocalDate soon);
+
+    interface ExpirationCounts {
+        Long getCustomerId();
+        long getDocuments();
+        long getExpired();
+        long getExpiring();
+        long getDated();
+        LocalDate getNextExpiration();
+    }
 }
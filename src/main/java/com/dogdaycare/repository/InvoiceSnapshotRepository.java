@@ -0,0 +1,51 @@
+package com.dogdaycare.repository;
+
+import com.dogdaycare.dto.InvoiceSnapshotRow;
+import com.dogdaycare.model.InvoiceSnapshot;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+public interface InvoiceSnapshotRepository extends JpaRepository<InvoiceSnapshot, Long> {
+
+    // Weekly invoicing tab (idx_invoice_snapshot_week)
+    List<InvoiceSnapshot> findByWeekStart(LocalDate weekStart);
+
+    // Weekly invoicing JSON: non-empty snapshots with the week's invoice, projected (no managed entities).
+    // Ordered so the first row per email is the oldest snapshot / invoice.
+    @Query("select new com.dogdaycare.dto.InvoiceSnapshotRow(s.customerEmail, s.currentAmount, s.paidToDate, " +
+            "s.allDaysPaid, i.id, i.paid) " +
+            "from InvoiceSnapshot s left join Invoice i " +
+            "on i.customerEmail = s.customerEmail and i.weekStart = s.weekStart " +
+            "where s.weekStart = :weekStart and s.bookingCount > 0 " +
+            "order by s.id, i.id")
+    List<InvoiceSnapshotRow> findRowsByWeekStart(@Param("weekStart") LocalDate weekStart);
+
+    Optional<InvoiceSnapshot> findByCustomerIdAndWeekStart(Long customerId, LocalDate weekStart);
+
+    // Taken before a refresh reads the bookings, so concurrent refreshes of a customer-week serialize
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select s from InvoiceSnapshot s where s.customer.id = :customerId and s.weekStart = :weekStart")
+    Optional<InvoiceSnapshot> lockByCustomerIdAndWeekStart(@Param("customerId") Long customerId,
+                                                          @Param("weekStart") LocalDate weekStart);
+
+    List<InvoiceSnapshot> findByCustomerIdAndWeekStartBetween(Long customerId, LocalDate startInclusive, LocalDate endInclusive);
+
+    // Create the row for a customer-week if missing (safe when two bookings change concurrently)
+    @Modifying(flushAutomatically = true)
+    @Query(value = "INSERT INTO invoice_snapshot (customer_id, customer_email, week_start, current_amount, " +
+            "paid_to_date, all_days_paid, booking_count, updated_at) " +
+            "VALUES (:customerId, :email, :weekStart, 0, 0, false, 0, :now) ON CONFLICT DO NOTHING", nativeQuery = true)
+    int insertIfAbsent(@Param("customerId") Long customerId,
+                       @Param("email") String email,
+                       @Param("weekStart") LocalDate weekStart,
+                       @Param("now") LocalDateTime now);
+}
@@ -0,0 +1,18 @@
+package com.dogdaycare.repository;
+
+import com.dogdaycare.model.InvoiceSnapshotWeek;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+public interface InvoiceSnapshotWeekRepository extends JpaRepository<InvoiceSnapshotWeek, LocalDate> {
+
+    @Modifying(flushAutomatically = true)
+    @Query(value = "INSERT INTO invoice_snapshot_week (week_start, built_at) " +
+            "VALUES (:weekStart, :now) ON CONFLICT DO NOTHING", nativeQuery = true)
+    int insertIfAbsent(@Param("weekStart") LocalDate weekStart, @Param("now") LocalDateTime now);
+}
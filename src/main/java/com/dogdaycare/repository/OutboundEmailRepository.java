@@ -0,0 +1,40 @@
+package com.dogdaycare.repository;
+
+import com.dogdaycare.model.OutboundEmail;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface OutboundEmailRepository extends JpaRepository<OutboundEmail, Long> {
+
+    // Due rows (idx_email_outbox_due): pending retries and SENDING rows whose lease ran out
+    @Query("select e.id from OutboundEmail e " +
+            "where e.status in :statuses and e.nextAttemptAt <= :now order by e.nextAttemptAt")
+    List<Long> findDueIds(@Param("statuses") Collection<OutboundEmail.Status> statuses,
+                          @Param("now") LocalDateTime now,
+                          Pageable page);
+
+    // Takes the row for one worker until leaseUntil; 0 means another worker got it first
+    @Transactional
+    @Modifying(clearAutomatically = true, flushAutomatically = true)
+    @Query("update OutboundEmail e set e.status = :claimed, e.nextAttemptAt = :leaseUntil " +
+            "where e.id = :id and e.status in :statuses and e.nextAttemptAt <= :now")
+    int claim(@Param("id") Long id,
+              @Param("statuses") Collection<OutboundEmail.Status> statuses,
+              @Param("claimed") OutboundEmail.Status claimed,
+              @Param("now") LocalDateTime now,
+              @Param("leaseUntil") LocalDateTime leaseUntil);
+
+    @Transactional
+    @Modifying
+    @Query("delete from OutboundEmail e where e.status = :status and e.sentAt < :cutoff")
+    int deleteByStatusAndSentAtBefore(@Param("status") OutboundEmail.Status status,
+                                      @Param("cutoff") LocalDateTime cutoff);
+}
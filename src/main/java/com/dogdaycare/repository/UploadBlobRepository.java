@@ -0,0 +1,31 @@
+package com.dogdaycare.repository;
+
+import com.dogdaycare.model.UploadBlob;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+
+public interface UploadBlobRepository extends JpaRepository<UploadBlob, String> {
+
+    // Create the blob row if missing (safe when the same content is uploaded concurrently)
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "INSERT INTO upload_blob (sha256, size_bytes, ref_count, created_at) " +
+            "VALUES (:sha256, :sizeBytes, 0, :now) ON CONFLICT DO NOTHING", nativeQuery = true)
+    int insertIfAbsent(@Param("sha256") String sha256,
+                       @Param("sizeBytes") long sizeBytes,
+                       @Param("now") LocalDateTime now);
+
+    // Relative adjustment (never below zero). The row lock it takes serializes acquire/release
+    // of the same blob until commit; 0 means the row is gone (or already at zero).
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update UploadBlob b set b.refCount = b.refCount + :delta " +
+            "where b.sha256 = :sha256 and b.refCount + :delta >= 0")
+    int adjustRefCount(@Param("sha256") String sha256, @Param("delta") int delta);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("delete from UploadBlob b where b.sha256 = :sha256 and b.refCount = 0")
+    int deleteIfUnreferenced(@Param("sha256") String sha256);
+}
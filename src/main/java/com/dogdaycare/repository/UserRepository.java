@@ -1,9 +1,83 @@
 package com.dogdaycare.repository;
 
+import com.dogdaycare.model.CustomerDocumentStatus;
 import com.dogdaycare.model.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface UserRepository extends JpaRepository<User, Long> {
+    // Login and principal lookups; served from the query cache when app.l2-cache.enabled
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "users-by-username")
+    })
     Optional<User> findByUsername(String username);
-}
\ No newline at end of file
+
+    // Admin lists, keyset on id: pass 0 for the first page, then the last id seen
+    List<User> findByIdGreaterThanOrderByIdAsc(Long afterId, Pageable page);
+
+    // Admin Uploads tab, keyset on id: only customers with at least one upload
+    // (the EXISTS probe uses idx_uploaded_file_user_expiration)
+    @Query("""
+           select u from User u
+           where u.id > :afterId
+             and exists (select 1 from UploadedFile f where f.user = u)
+           order by u.id
+           """)
+    List<User> findWithUploadsByIdGreaterThan(@Param("afterId") Long afterId, Pageable page);
+
+    // Same, filtered by username prefix (idx_users_username_lower); prefix is lower-cased with
+    // LIKE wildcards escaped, see AdminController#usernamePrefix
+    @Query("""
+           select u from User u
+           where lower(u.username) like :prefix escape '\\'
+             and u.id > :afterId
+             and exists (select 1 from UploadedFile f where f.user = u)
+           order by u.id
+           """)
+    List<User> searchWithUploadsByUsernamePrefix(@Param("prefix") String prefix,
+                                                 @Param("afterId") Long afterId,
+                                                 Pageable page);
+
+    // Admin Uploads tab "expired"/"expiring" filters: customers by precomputed compliance
+    // (idx_customer_document_status_status_customer), keyset on id. prefix is "%" without a search.
+    @Query("""
+           select u from User u, CustomerDocumentStatus s
+           where s.customerId = u.id
+             and s.status in :statuses
+             and s.expiringCount >= :minExpiring
+             and s.customerId > :afterId
+             and lower(u.username) like :prefix escape '\\'
+           order by s.customerId
+           """)
+    List<User> findByDocumentStatus(@Param("statuses") Collection<CustomerDocumentStatus.Compliance> statuses,
+                                    @Param("minExpiring") int minExpiring,
+                                    @Param("prefix") String prefix,
+                                    @Param("afterId") Long afterId,
+                                    Pageable page);
+
+    // Change marker for AdminSearchService's in-memory fallback (ids only grow)
+    @Query("select coalesce(max(u.id), 0) from User u")
+    long findMaxId();
+
+    // Admin typeahead on Postgres: substring match served by the pg_trgm GIN index
+    // (idx_users_username_trgm), best trigram similarity first. See AdminSearchService.
+    @Query(value = """
+           select u.* from users u
+           where lower(u.username) like :pattern escape '\\'
+           order by similarity(lower(u.username), :q) desc, u.id
+           limit :limit
+           """, nativeQuery = true)
+    List<User> searchByUsernameTrigram(@Param("pattern") String pattern,
+                                       @Param("q") String q,
+                                       @Param("limit") int limit);
+}
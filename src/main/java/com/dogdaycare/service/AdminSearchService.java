@@ -0,0 +1,222 @@
+package com.dogdaycare.service;
+
+import com.dogdaycare.model.EvaluationRequest;
+import com.dogdaycare.model.User;
+import com.dogdaycare.repository.EvaluationRepository;
+import com.dogdaycare.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.*;
+
+/**
+ * Admin typeahead over users (username) and evaluations (email, client name, dog name).
+ *
+ * On Postgres the match runs in the database as {@code lower(col) LIKE '%q%'} against the
+ * pg_trgm GIN indexes from V11, ranked by trigram similarity. Other databases (the H2 test
+ * profile) have no pg_trgm, so the same rows are served from an in-memory trigram index
+ * that is rebuilt when rows are added or removed or the snapshot is older than
+ * {@code admin.search.fallback-ttl}.
+ */
+@Service
+public class AdminSearchService {
+
+    private static final Logger log = LoggerFactory.getLogger(AdminSearchService.class);
+
+    /** Shortest query answered; one character matches nearly everything. */
+    public static final int MIN_QUERY_LENGTH = 2;
+    private static final int MAX_QUERY_LENGTH = 100;
+
+    /** One typeahead suggestion; {@code type} is "user" or "evaluation". */
+    public record Hit(String type, Long id, String email, String label) {}
+
+    private final UserRepository userRepository;
+    private final EvaluationRepository evaluationRepository;
+    private final DataSource dataSource;
+    private final int maxResults;
+    private final long fallbackTtlNanos;
+
+    private volatile Boolean trigramSupported; // resolved on first search
+    private volatile Snapshot snapshot;        // fallback index only
+
+    public AdminSearchService(UserRepository userRepository,
+                              EvaluationRepository evaluationRepository,
+                              DataSource dataSource,
+                              @Value("${admin.search.max-results:20}") int maxResults,
+                              @Value("${admin.search.fallback-ttl:PT30S}") Duration fallbackTtl) {
+        this.userRepository = userRepository;
+        this.evaluationRepository = evaluationRepository;
+        this.dataSource = dataSource;
+        this.maxResults = Math.max(1, maxResults);
+        this.fallbackTtlNanos = fallbackTtl.toNanos();
+    }
+
+    /** Users first, then evaluations, at most {@code limit} of each (capped by admin.search.max-results). */
+    public List<Hit> search(String query, int limit) {
+        String q = normalize(query);
+        if (q == null) return List.of();
+        int n = Math.min(Math.max(1, limit), maxResults);
+
+        if (trigramSupported()) {
+            String pattern = "%" + escapeLike(q) + "%";
+            List<Hit> hits = new ArrayList<>();
+            userRepository.searchByUsernameTrigram(pattern, q, n).forEach(u -> hits.add(userHit(u)));
+            evaluationRepository.searchTrigram(pattern, q, n).forEach(e -> hits.add(evaluationHit(e)));
+            return hits;
+        }
+        return currentSnapshot().search(q, n);
+    }
+
+    /** Escapes LIKE wildcards so {@code q} matches literally (queries use ESCAPE '\'). */
+    public static String escapeLike(String q) {
+        return q.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
+    private static String normalize(String query) {
+        if (query == null) return null;
+        String q = query.trim().toLowerCase(Locale.ROOT);
+        if (q.length() < MIN_QUERY_LENGTH) return null;
+        return q.length() > MAX_QUERY_LENGTH ? q.substring(0, MAX_QUERY_LENGTH) : q;
+    }
+
+    private boolean trigramSupported() {
+        Boolean supported = trigramSupported;
+        if (supported == null) {
+            try (Connection c = dataSource.getConnection()) {
+                supported = "PostgreSQL".equalsIgnoreCase(c.getMetaData().getDatabaseProductName());
+            } catch (SQLException e) {
+                log.warn("Could not determine database type, using in-memory admin search: {}", e.getMessage());
+                supported = false;
+            }
+            trigramSupported = supported;
+        }
+        return supported;
+    }
+
+    private static Hit userHit(User u) {
+        return new Hit("user", u.getId(), u.getUsername(), u.getUsername());
+    }
+
+    private static Hit evaluationHit(EvaluationRequest e) {
+        return new Hit("evaluation", e.getId(), e.getEmail(), e.getClientName() + " (" + e.getDogName() + ")");
+    }
+
+    // ---------------- in-memory fallback ----------------
+
+    private Snapshot currentSnapshot() {
+        // Count + max id changes with every insert or delete; edits are picked up by the TTL
+        Version version = new Version(userRepository.count(), userRepository.findMaxId(),
+                evaluationRepository.count(), evaluationRepository.findMaxId());
+        Snapshot s = snapshot;
+        if (isFresh(s, version)) return s;
+        synchronized (this) {
+            s = snapshot;
+            if (!isFresh(s, version)) {
+                s = Snapshot.build(version, userRepository.findAll(), evaluationRepository.findAll());
+                snapshot = s;
+            }
+            return s;
+        }
+    }
+
+    private boolean isFresh(Snapshot s, Version version) {
+        return s != null && s.version.equals(version) && System.nanoTime() - s.builtAtNanos < fallbackTtlNanos;
+    }
+
+    private record Version(long users, long maxUserId, long evaluations, long maxEvaluationId) {}
+
+    private record Doc(Hit hit, List<String> fields) {
+
+        // Position of the best match across fields, or -1
+        int matchAt(String q) {
+            int best = -1;
+            for (String f : fields) {
+                int i = f.indexOf(q);
+                if (i >= 0 && (best < 0 || i < best)) best = i;
+            }
+            return best;
+        }
+    }
+
+    /** Immutable trigram postings over users and evaluations, the same text the Postgres indexes cover. */
+    private static final class Snapshot {
+        final Version version;
+        final long builtAtNanos = System.nanoTime();
+        final List<Doc> userDocs = new ArrayList<>();
+        final List<Doc> evaluationDocs = new ArrayList<>();
+        final Map<String, List<Doc>> postings = new HashMap<>();
+
+        private Snapshot(Version version) {
+            this.version = version;
+        }
+
+        static Snapshot build(Version version, List<User> users, List<EvaluationRequest> evaluations) {
+            Snapshot s = new Snapshot(version);
+            for (User u : users) {
+                s.add(s.userDocs, new Doc(userHit(u), lowered(u.getUsername())));
+            }
+            for (EvaluationRequest e : evaluations) {
+                s.add(s.evaluationDocs, new Doc(evaluationHit(e), lowered(e.getEmail(), e.getClientName(), e.getDogName())));
+            }
+            return s;
+        }
+
+        private void add(List<Doc> docs, Doc doc) {
+            docs.add(doc);
+            Set<String> grams = new HashSet<>();
+            for (String f : doc.fields()) grams.addAll(trigrams(f));
+            for (String g : grams) postings.computeIfAbsent(g, k -> new ArrayList<>()).add(doc);
+        }
+
+        List<Hit> search(String q, int limit) {
+            // Candidates from the rarest trigram of q (every match contains all of them);
+            // queries shorter than a trigram scan everything
+            Collection<Doc> candidates = null;
+            for (String g : trigrams(q)) {
+                List<Doc> p = postings.getOrDefault(g, List.of());
+                if (candidates == null || p.size() < candidates.size()) candidates = p;
+            }
+            Set<Doc> pool = (candidates != null) ? Collections.newSetFromMap(new IdentityHashMap<>()) : null;
+            if (pool != null) pool.addAll(candidates);
+
+            List<Hit> hits = new ArrayList<>();
+            hits.addAll(best(userDocs, pool, q, limit));
+            hits.addAll(best(evaluationDocs, pool, q, limit));
+            return hits;
+        }
+
+        // Earliest match first (prefix matches lead), then by id
+        private static List<Hit> best(List<Doc> docs, Set<Doc> pool, String q, int limit) {
+            record Match(Doc doc, int at) {}
+            List<Match> matches = new ArrayList<>();
+            for (Doc d : docs) {
+                if (pool != null && !pool.contains(d)) continue;
+                int at = d.matchAt(q);
+                if (at >= 0) matches.add(new Match(d, at));
+            }
+            matches.sort(Comparator.comparingInt(Match::at)
+                    .thenComparing(m -> m.doc().hit().id(), Comparator.nullsLast(Comparator.naturalOrder())));
+            return matches.stream().limit(limit).map(m -> m.doc().hit()).toList();
+        }
+
+        private static List<String> lowered(String... values) {
+            List<String> out = new ArrayList<>(values.length);
+            for (String v : values) {
+                if (v != null && !v.isBlank()) out.add(v.toLowerCase(Locale.ROOT));
+            }
+            return out;
+        }
+
+        private static Set<String> trigrams(String s) {
+            Set<String> out = new HashSet<>();
+            for (int i = 0; i + 3 <= s.length(); i++) out.add(s.substring(i, i + 3));
+            return out;
+        }
+    }
+}
@@ -2,19 +2,40 @@ package com.dogdaycare.service;
 
 import com.dogdaycare.dto.EmergencyCounts;
 import com.dogdaycare.model.Booking;
+import com.dogdaycare.model.BookingStatus;
+import com.dogdaycare.model.DailyCapacity;
+import com.dogdaycare.model.EmergencyAllocation;
+import com.dogdaycare.model.ServiceKind;
 import com.dogdaycare.repository.BookingRepository;
+import com.dogdaycare.repository.DailyCapacityRepository;
+import com.dogdaycare.repository.DailyCapacityRepository.DayCounts;
+import com.dogdaycare.repository.EmergencyAllocationRepository;
 import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
-import java.util.List;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
 
 @Service
 @RequiredArgsConstructor
 public class BookingLimitService {
 
+    private static final Logger log = LoggerFactory.getLogger(BookingLimitService.class);
+
+    /** Longest window snapshotRange will serve (calendar views use 14 days). */
+    public static final int MAX_RANGE_DAYS = 62;
+
     private final BookingRepository bookingRepository;
+    private final DailyCapacityRepository dailyCapacityRepository;
+    private final EmergencyAllocationRepository emergencyAllocationRepository;
 
     // Configurable caps (application.properties)
     @Value("${booking.cap.total:70}")
@@ -29,24 +50,40 @@ public class BookingLimitService {
     @Value("${booking.cap.emergency:10}")
     private int emergencyCap;
 
-    /** Snapshot counts + caps for a given date. */
+    /** Snapshot counts + caps for a given date (single-row read of the daily_capacity counters). */
     public EmergencyCounts snapshot(LocalDate date) {
-        List<Booking> bookings = bookingRepository.findByDate(date);
+        return toCounts(date, dailyCapacityRepository.findCountsByDate(date).orElse(null));
+    }
+
+    /**
+     * Snapshots for every date in [start, end] from one range read of the counters
+     * (calendar views: one round trip instead of one query per day). Ordered by date;
+     * days without a counter row are reported as empty.
+     */
+    public Map<LocalDate, EmergencyCounts> snapshotRange(LocalDate start, LocalDate end) {
+        if (end.isBefore(start) || start.plusDays(MAX_RANGE_DAYS).isBefore(end)) {
+            throw new IllegalArgumentException("Capacity range must be 1–" + (MAX_RANGE_DAYS + 1) + " days.");
+        }
+        Map<LocalDate, DayCounts> rows = new HashMap<>();
+        for (DayCounts row : dailyCapacityRepository.findCountsByDateBetween(start, end)) {
+            rows.put(row.getDate(), row);
+        }
 
-        int daycare = (int) bookings.stream()
-                .filter(b -> !isCanceled(b) && isDaycare(b.getServiceType()))
-                .count();
+        Map<LocalDate, EmergencyCounts> out = new LinkedHashMap<>();
+        for (LocalDate d = start; !d.isAfter(end); d = d.plusDays(1)) {
+            out.put(d, toCounts(d, rows.get(d)));
+        }
+        return out;
+    }
 
-        int boarding = (int) bookings.stream()
-                .filter(b -> !isCanceled(b) && isBoarding(b.getServiceType()))
-                .count();
+    private EmergencyCounts toCounts(LocalDate date, DayCounts row) {
+        int daycare = (row != null) ? row.getDaycare() : 0;
+        int boarding = (row != null) ? row.getBoarding() : 0;
+        // Emergency allocations actually made for the day; cancelBooking releases them in the same transaction.
+        int emergencyUsed = (row != null) ? row.getEmergencyUsed() : 0;
 
         int total = daycare + boarding;
 
-        // Derive emergency usage from total vs normal caps so cancellations instantly free capacity.
-        int normalCap = daycareCap + boardingCap;
-        int emergencyUsed = Math.max(0, Math.min(emergencyCap, total - normalCap));
-
         return new EmergencyCounts(
                 date,
                 total,
@@ -62,14 +99,17 @@ public class BookingLimitService {
 
     /** Can a regular customer book this service on this date (without using emergency)? */
     public boolean canCustomerBook(LocalDate date, String serviceType) {
-        EmergencyCounts c = snapshot(date);
+        return hasRegularSpot(snapshot(date), ServiceKind.of(serviceType));
+    }
 
+    /** Same rule as canCustomerBook, applied to an already-loaded snapshot. */
+    public static boolean hasRegularSpot(EmergencyCounts c, ServiceKind kind) {
         // Daily hard cap first
         if (c.getTotal() >= c.totalCap()) return false;
 
-        if (isDaycare(serviceType)) {
+        if (kind.isDaycare()) {
             return c.getDaycare() < c.daycareCap();
-        } else if (isBoarding(serviceType)) {
+        } else if (kind.isBoarding()) {
             return c.getBoarding() < c.boardingCap();
         }
         // Unknown service: be conservative
@@ -83,9 +123,10 @@ public class BookingLimitService {
         boolean totalOk = c.getTotal() < c.totalCap();
         boolean emergencyAvailable = c.emergencyRemaining() > 0;
 
-        if (isDaycare(serviceType)) {
+        ServiceKind kind = ServiceKind.of(serviceType);
+        if (kind.isDaycare()) {
             return (c.getDaycare() >= c.daycareCap()) && totalOk && emergencyAvailable;
-        } else if (isBoarding(serviceType)) {
+        } else if (kind.isBoarding()) {
             return (c.getBoarding() >= c.boardingCap()) && totalOk && emergencyAvailable;
         }
         return false;
@@ -97,17 +138,152 @@ public class BookingLimitService {
         return c.getTotal() < c.totalCap() && c.emergencyRemaining() > 0;
     }
 
-    // ---------- helpers ----------
+    // ---------- reservations (race-free capacity checks) ----------
 
-    private boolean isCanceled(Booking b) {
-        return "CANCELED".equalsIgnoreCase(b.getStatus());
+    /**
+     * Atomically claim one regular (non-emergency) spot for this service on this date.
+     * Implemented as a conditional increment on the day's counter row, so concurrent callers
+     * can never push the count past the cap. Must run inside the transaction that saves the booking.
+     * @return true if a spot was claimed
+     */
+    @Transactional
+    public boolean tryReserve(LocalDate date, ServiceKind kind) {
+        if (date == null) return false;
+        if (kind.isDaycare()) {
+            dailyCapacityRepository.insertIfAbsent(date);
+            return dailyCapacityRepository.reserveDaycare(date, daycareCap, totalCap) == 1;
+        } else if (kind.isBoarding()) {
+            dailyCapacityRepository.insertIfAbsent(date);
+            return dailyCapacityRepository.reserveBoarding(date, boardingCap, totalCap) == 1;
+        }
+        // Unknown service: be conservative
+        return false;
+    }
+
+    /**
+     * Customer booking path: reserve capacity and persist the booking in one transaction.
+     * If the save fails the reservation rolls back with it.
+     * @return the saved booking, or empty if the day is full for that service
+     */
+    @Transactional
+    public Optional<Booking> reserveAndCreate(Booking booking) {
+        if (!tryReserve(booking.getDate(), booking.getServiceKind())) {
+            return Optional.empty();
+        }
+        return Optional.of(bookingRepository.save(booking));
+    }
+
+    // ---------- counter maintenance (create / cancel / emergency) ----------
+
+    /** Persist a new booking and count it against the day's capacity (no cap check; admin/emergency path). */
+    @Transactional
+    public Booking createBooking(Booking booking) {
+        Booking saved = bookingRepository.save(booking);
+        adjust(saved.getDate(), saved.getServiceKind(), +1);
+        return saved;
+    }
+
+    /** Persist an admin emergency booking, its audit allocation row, and all counters together. */
+    @Transactional
+    public Booking createEmergencyBooking(Booking booking) {
+        Booking saved = createBooking(booking);
+
+        EmergencyAllocation ea = new EmergencyAllocation();
+        ea.setDate(saved.getDate());
+        ea.setBookingId(saved.getId());
+        ea.setCreatedAt(LocalDateTime.now());
+        emergencyAllocationRepository.save(ea);
+
+        dailyCapacityRepository.adjustEmergencyUsed(saved.getDate(), +1);
+        return saved;
+    }
+
+    /** Cancel a booking, freeing its capacity (and emergency spot, if it used one). No-op if already canceled. */
+    @Transactional
+    public Booking cancelBooking(Booking booking) {
+        if (isCanceled(booking)) return booking;
+
+        booking.setStatus(BookingStatus.CANCELED);
+        Booking saved = bookingRepository.save(booking);
+        adjust(saved.getDate(), saved.getServiceKind(), -1);
+
+        if (saved.getId() != null && emergencyAllocationRepository.deleteByBookingId(saved.getId()) > 0) {
+            dailyCapacityRepository.adjustEmergencyUsed(saved.getDate(), -1);
+        }
+        return saved;
+    }
+
+    private void adjust(LocalDate date, ServiceKind kind, int delta) {
+        if (date == null) return;
+        if (kind.isDaycare()) {
+            dailyCapacityRepository.insertIfAbsent(date);
+            dailyCapacityRepository.adjustDaycare(date, delta);
+        } else if (kind.isBoarding()) {
+            dailyCapacityRepository.insertIfAbsent(date);
+            dailyCapacityRepository.adjustBoarding(date, delta);
+        }
+    }
+
+    // ---------- reconciliation ----------
+
+    /**
+     * Rebuild counters for [start, end] from the booking and emergency_allocation tables.
+     * Any day whose stored counters disagree is logged and overwritten.
+     * @return number of days that had drifted
+     */
+    @Transactional
+    public int reconcile(LocalDate start, LocalDate end) {
+        Map<LocalDate, DailyCapacity> actual = new HashMap<>();
+
+        for (var row : bookingRepository.countActiveByDateAndServiceKind(start, end)) {
+            DailyCapacity c = actual.computeIfAbsent(row.getDate(), DailyCapacity::new);
+            if (row.getServiceKind().isDaycare()) {
+                c.setDaycare(c.getDaycare() + (int) row.getBookings());
+            } else if (row.getServiceKind().isBoarding()) {
+                c.setBoarding(c.getBoarding() + (int) row.getBookings());
+            }
+        }
+        for (var row : emergencyAllocationRepository.countByDateBetween(start, end)) {
+            actual.computeIfAbsent(row.getDate(), DailyCapacity::new)
+                    .setEmergencyUsed((int) row.getAllocations());
+        }
+
+        int drifted = 0;
+
+        // Days we already track: correct in place (days with no bookings left go back to zero)
+        for (DailyCapacity stored : dailyCapacityRepository.findByDateBetweenOrderByDateAsc(start, end)) {
+            DailyCapacity expected = actual.remove(stored.getDate());
+            if (expected == null) expected = new DailyCapacity(stored.getDate());
+            if (differs(stored, expected)) {
+                log.warn("daily_capacity drift on {}: stored daycare={} boarding={} emergency={}, actual daycare={} boarding={} emergency={}",
+                        stored.getDate(), stored.getDaycare(), stored.getBoarding(), stored.getEmergencyUsed(),
+                        expected.getDaycare(), expected.getBoarding(), expected.getEmergencyUsed());
+                stored.setDaycare(expected.getDaycare());
+                stored.setBoarding(expected.getBoarding());
+                stored.setEmergencyUsed(expected.getEmergencyUsed());
+                drifted++;
+            }
+        }
+
+        // Days with bookings but no counter row at all
+        for (DailyCapacity missing : actual.values()) {
+            log.warn("daily_capacity missing for {}: rebuilding (daycare={} boarding={} emergency={})",
+                    missing.getDate(), missing.getDaycare(), missing.getBoarding(), missing.getEmergencyUsed());
+            dailyCapacityRepository.save(missing);
+            drifted++;
+        }
+        return drifted;
     }
 
-    public static boolean isDaycare(String st) {
-        return st != null && st.toLowerCase().contains("daycare");
+    private static boolean differs(DailyCapacity a, DailyCapacity b) {
+        return a.getDaycare() != b.getDaycare()
+                || a.getBoarding() != b.getBoarding()
+                || a.getEmergencyUsed() != b.getEmergencyUsed();
     }
 
-    public static boolean isBoarding(String st) {
-        return st != null && st.toLowerCase().contains("boarding");
+    // ---------- helpers ----------
+
+    private boolean isCanceled(Booking b) {
+        return b.getStatus() == BookingStatus.CANCELED;
     }
 }
@@ -1,6 +1,7 @@
 package com.dogdaycare.service;
 
 import com.dogdaycare.model.Booking;
+import com.dogdaycare.model.ServiceKind;
 import com.dogdaycare.model.User;
 import com.dogdaycare.repository.BookingRepository;
 import jakarta.transaction.Transactional;
@@ -9,8 +10,12 @@ import org.springframework.stereotype.Service;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.OffsetDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
 
 @Service
 public class BundleService {
@@ -27,10 +32,27 @@ public class BundleService {
         if (customer == null || anyDateInWeek == null) return false;
         LocalDate ws = pricingService.weekStartMonday(anyDateInWeek);
         LocalDate we = pricingService.weekEndSunday(anyDateInWeek);
+        return bookingRepository.existsActivePaidByCustomerAndDateBetween(customer, ws, we);
+    }
+
+    /**
+     * Which of the given weeks (any date in each) have at least one paid, non-canceled booking.
+     * One grouped query over the span of the weeks; returns their Mondays.
+     */
+    public Set<LocalDate> paidWeeks(User customer, Collection<LocalDate> weekStarts) {
+        if (customer == null || weekStarts == null) return Set.of();
+        TreeSet<LocalDate> mondays = weekStarts.stream()
+                .filter(Objects::nonNull)
+                .map(pricingService::weekStartMonday)
+                .collect(Collectors.toCollection(TreeSet::new));
+        if (mondays.isEmpty()) return Set.of();
+
         return bookingRepository
-                .findByCustomerAndDateBetweenAndStatusNotIgnoreCase(customer, ws, we, "CANCELED")
+                .findPaidDatesByCustomerAndDateBetween(customer, mondays.first(), pricingService.weekEndSunday(mondays.last()))
                 .stream()
-                .anyMatch(Booking::isPaid);
+                .map(pricingService::weekStartMonday)
+                .filter(mondays::contains)
+                .collect(Collectors.toSet());
     }
 
     /**
@@ -48,8 +70,7 @@ public class BundleService {
 
         // Daycare bookings in week (not canceled)
         List<Booking> daycare = bookingRepository
-                .findByCustomerAndServiceTypeContainingIgnoreCaseAndDateBetweenAndStatusNotIgnoreCase(
-                        customer, "daycare", ws, we, "CANCELED");
+                .findActiveByCustomerAndServiceKindInAndDateBetween(customer, ServiceKind.DAYCARE, ws, we);
 
         // Eligible at payment time = wantsAdvancePay && advanceEligible
         List<Booking> eligible = daycare.stream()
@@ -14,7 +14,7 @@ public class CancelPolicyService {
 
     public boolean canCustomerCancel(Booking booking, Clock clock) {
         // Daycare is always OK
-        if (!BookingLimitService.isBoarding(booking.getServiceType())) return true;
+        if (!booking.getServiceKind().isBoarding()) return true;
 
         LocalDate date = booking.getDate();
         if (date == null) return true; // be permissive if missing data
@@ -29,7 +29,7 @@ public class CancelPolicyService {
     }
 
     public String policyMessage(Booking booking) {
-        if (BookingLimitService.isBoarding(booking.getServiceType())) {
+        if (booking.getServiceKind().isBoarding()) {
             return "Boarding cancellations must be made at least 72 hours in advance.";
         }
         return "You can cancel this booking.";
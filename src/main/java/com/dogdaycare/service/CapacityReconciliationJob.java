@@ -0,0 +1,48 @@
+package com.dogdaycare.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.LocalDate;
+
+/**
+ * Nightly job that rebuilds daily_capacity counters from the booking table
+ * over a rolling window, so any drift (manual SQL, failed writes) self-heals.
+ */
+@Component
+public class CapacityReconciliationJob {
+
+    private static final Logger log = LoggerFactory.getLogger(CapacityReconciliationJob.class);
+
+    private final BookingLimitService bookingLimitService;
+    private final Clock clock;
+
+    @Value("${booking.capacity.reconcile.days-back:7}")
+    private int daysBack;
+
+    @Value("${booking.capacity.reconcile.days-ahead:120}")
+    private int daysAhead;
+
+    public CapacityReconciliationJob(BookingLimitService bookingLimitService, Clock clock) {
+        this.bookingLimitService = bookingLimitService;
+        this.clock = clock;
+    }
+
+    @Scheduled(cron = "${booking.capacity.reconcile.cron:0 15 3 * * *}", zone = "${app.business.zone:America/Los_Angeles}")
+    public void reconcile() {
+        LocalDate today = LocalDate.now(clock);
+        LocalDate start = today.minusDays(daysBack);
+        LocalDate end = today.plusDays(daysAhead);
+
+        int drifted = bookingLimitService.reconcile(start, end);
+        if (drifted > 0) {
+            log.warn("Capacity reconciliation corrected {} day(s) between {} and {}", drifted, start, end);
+        } else {
+            log.info("Capacity reconciliation: counters match bookings between {} and {}", start, end);
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.dogdaycare.service;
+
+import org.springframework.security.core.GrantedAuthority;
+
+import java.util.Collection;
+
+/**
+ * Session principal built by {@link CustomUserDetailsService} at login. Besides the Spring
+ * fields it keeps the account's id and role, so request handling can resolve the customer
+ * through {@link UserCache} by id instead of querying by username.
+ */
+public class CustomUserDetails extends org.springframework.security.core.userdetails.User {
+
+    private final Long userId;
+    private final String role;
+
+    public CustomUserDetails(Long userId, String username, String password, String role, boolean enabled,
+                             Collection<? extends GrantedAuthority> authorities) {
+        super(username, password, enabled, true, true, true, authorities);
+        this.userId = userId;
+        this.role = role;
+    }
+
+    public Long getUserId() { return userId; }
+    public String getRole() { return role; }
+
+    // equals/hashCode (username) are inherited; the session registry relies on them
+}
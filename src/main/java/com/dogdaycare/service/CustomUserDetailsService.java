@@ -15,9 +15,11 @@ import java.util.Collections;
 public class CustomUserDetailsService implements UserDetailsService {
 
     private final UserRepository userRepository;
+    private final UserCache userCache;
 
-    public CustomUserDetailsService(UserRepository userRepository) {
+    public CustomUserDetailsService(UserRepository userRepository, UserCache userCache) {
         this.userRepository = userRepository;
+        this.userCache = userCache;
     }
 
     @Override
@@ -25,11 +27,14 @@ public class CustomUserDetailsService implements UserDetailsService {
         User user = userRepository.findByUsername(username)
                 .orElseThrow(() -> new UsernameNotFoundException("User not found"));
         GrantedAuthority authority = new SimpleGrantedAuthority("ROLE_" + user.getRole());
-        return new org.springframework.security.core.userdetails.User(
+        // Login already read the row; keep it so the first requests don't read it again
+        userCache.put(user);
+        return new CustomUserDetails(
+                user.getId(),
                 user.getUsername(),
                 user.getPassword(),
+                user.getRole(),
                 user.isEnabled(),
-                true, true, true,
                 Collections.singleton(authority)
         );
     }
@@ -0,0 +1,102 @@
+package com.dogdaycare.service;
+
+import com.dogdaycare.dto.CustomerBookingView;
+import com.dogdaycare.model.Booking;
+import com.dogdaycare.model.User;
+import com.dogdaycare.repository.BookingRepository;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.*;
+
+/**
+ * Read model for the customer booking page: two queries (visible bookings via the
+ * (user_id, date) index, and BundleService#paidWeeks for the displayed weeks), then a single pass
+ * that buckets by service and builds the calendar labels and provisional quotes.
+ */
+@Service
+public class CustomerBookingViewService {
+
+    static final String DAYCARE_SHORT = "Daycare (6 AM - 3 PM)";
+    static final String DAYCARE_LONG = "Daycare (6 AM - 8 PM)";
+    static final String DAYCARE_AFTER_HOURS = "Daycare After Hours (6 AM - 11 PM)";
+
+    private static final Comparator<Booking> BY_DATE_THEN_TIME =
+            Comparator.comparing(Booking::getDate, Comparator.nullsLast(Comparator.naturalOrder()))
+                    .thenComparing(Booking::getTime, Comparator.nullsLast(Comparator.naturalOrder()));
+
+    private final BookingRepository bookingRepository;
+    private final PricingService pricingService;
+    private final BundleService bundleService;
+
+    public CustomerBookingViewService(BookingRepository bookingRepository,
+                                      PricingService pricingService,
+                                      BundleService bundleService) {
+        this.bookingRepository = bookingRepository;
+        this.pricingService = pricingService;
+        this.bundleService = bundleService;
+    }
+
+    /**
+     * @param visibleFrom first visible date (Monday of the current week)
+     * @param weeks       any dates in the weeks whose paid flag the page shows
+     */
+    public CustomerBookingView load(User customer, LocalDate visibleFrom, Collection<LocalDate> weeks) {
+        List<Booking> visible = new ArrayList<>(
+                bookingRepository.findByCustomerAndDateGreaterThanEqual(customer, visibleFrom));
+        visible.sort(BY_DATE_THEN_TIME);
+
+        List<Booking> daycare = new ArrayList<>();
+        List<Booking> boarding = new ArrayList<>();
+        List<Booking> daycareShort = new ArrayList<>();
+        List<Booking> daycareLong = new ArrayList<>();
+        List<Booking> daycareAfterHours = new ArrayList<>();
+        Map<LocalDate, Set<String>> servicesByDate = new LinkedHashMap<>();
+        Map<LocalDate, List<Booking>> eligibleByWeek = new HashMap<>();
+
+        for (Booking b : visible) {
+            String st = safe(b.getServiceType());
+            boolean active = b.getStatus().isActive();
+
+            if (b.getServiceKind().isDaycare()) {
+                daycare.add(b);
+                if (DAYCARE_SHORT.equalsIgnoreCase(st)) daycareShort.add(b);
+                else if (DAYCARE_LONG.equalsIgnoreCase(st)) daycareLong.add(b);
+                else if (DAYCARE_AFTER_HOURS.equalsIgnoreCase(st)) daycareAfterHours.add(b);
+
+                // Provisional quotes include paid bookings so customers still see prices after payment
+                if (active && b.isWantsAdvancePay() && b.isAdvanceEligible()) {
+                    eligibleByWeek.computeIfAbsent(b.getDate().with(DayOfWeek.MONDAY), k -> new ArrayList<>()).add(b);
+                }
+            }
+            if (b.getServiceKind().isBoarding()) boarding.add(b);
+
+            if (active && b.getDate() != null) {
+                Set<String> services = servicesByDate.computeIfAbsent(b.getDate(), k -> new LinkedHashSet<>());
+                if (!st.isBlank()) services.add(st);
+            }
+        }
+
+        Map<LocalDate, String> bookedByDate = new LinkedHashMap<>();
+        servicesByDate.forEach((d, services) -> bookedByDate.put(d,
+                services.isEmpty() ? "Booked" : services.size() == 1 ? services.iterator().next() : "Multiple"));
+
+        Map<Long, BigDecimal> provisionalQuotes = new HashMap<>();
+        for (List<Booking> eligible : eligibleByWeek.values()) {
+            boolean atLeast4 = eligible.size() >= 4;
+            for (Booking b : eligible) {
+                int n = (b.getDogCount() != null ? b.getDogCount() : 1);
+                provisionalQuotes.put(b.getId(),
+                        pricingService.quoteDaycareAtTier(b, atLeast4).multiply(BigDecimal.valueOf(n)));
+            }
+        }
+
+        return new CustomerBookingView(
+                visible, daycare, boarding, daycareShort, daycareLong, daycareAfterHours,
+                bookedByDate, provisionalQuotes, bundleService.paidWeeks(customer, weeks));
+    }
+
+    private static String safe(String s) { return s == null ? "" : s.trim(); }
+}
@@ -0,0 +1,117 @@
+package com.dogdaycare.service;
+
+import com.dogdaycare.model.EvaluationRequest;
+import com.dogdaycare.repository.EvaluationRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * email → (client name, dog name) from the customer's latest evaluation.
+ *
+ * Admin JSON endpoints label every booking/invoice row with these, so lookups are
+ * batched: cache hits are served from memory and all misses for a request are
+ * resolved with one {@link EvaluationRepository#findLatestByEmailIn} query.
+ * Emails without an evaluation are cached too (as an empty profile) so they don't
+ * re-query on every row. Entries expire after a TTL and the cache is bounded (LRU);
+ * evaluation submit/approve call {@link #invalidate(String)}.
+ */
+@Component
+public class CustomerProfileCache {
+
+    /** Display fields for a customer; either may be null when no evaluation exists. */
+    public record Profile(String clientName, String dogName) {
+        public static final Profile NONE = new Profile(null, null);
+
+        public String clientNameOr(String fallback) { return clientName != null ? clientName : fallback; }
+        public String dogNameOr(String fallback) { return dogName != null ? dogName : fallback; }
+    }
+
+    private record Entry(Profile profile, long loadedAtNanos) {}
+
+    private final EvaluationRepository evaluationRepository;
+    private final int maxSize;
+    private final long ttlNanos;
+    private final LinkedHashMap<String, Entry> entries;
+
+    public CustomerProfileCache(EvaluationRepository evaluationRepository,
+                                @Value("${customer.profile-cache.max-size:2000}") int maxSize,
+                                @Value("${customer.profile-cache.ttl:PT10M}") Duration ttl) {
+        this.evaluationRepository = evaluationRepository;
+        this.maxSize = Math.max(1, maxSize);
+        this.ttlNanos = ttl.toNanos();
+        // access-order map => eldest entry is the least recently used
+        this.entries = new LinkedHashMap<>(64, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > CustomerProfileCache.this.maxSize;
+            }
+        };
+    }
+
+    /** Profile for one email (at most one query on a miss). */
+    public Profile get(String email) {
+        if (email == null) return Profile.NONE;
+        return getAll(List.of(email)).getOrDefault(email, Profile.NONE);
+    }
+
+    /** Profiles for every given email (nulls ignored); misses are loaded in a single query. */
+    public Map<String, Profile> getAll(Collection<String> emails) {
+        Map<String, Profile> out = new HashMap<>();
+        Set<String> misses = new HashSet<>();
+        long now = System.nanoTime();
+
+        synchronized (entries) {
+            for (String email : emails) {
+                if (email == null || out.containsKey(email)) continue;
+                Entry e = entries.get(email);
+                if (e != null && now - e.loadedAtNanos() < ttlNanos) {
+                    out.put(email, e.profile());
+                } else {
+                    misses.add(email);
+                }
+            }
+        }
+        if (misses.isEmpty()) return out;
+
+        Map<String, Profile> loaded = new HashMap<>();
+        for (String email : misses) loaded.put(email, Profile.NONE);
+        // Latest evaluation wins; ties (or missing timestamps) fall back to the higher id
+        Map<String, EvaluationRequest> latest = new HashMap<>();
+        for (EvaluationRequest ev : evaluationRepository.findLatestByEmailIn(misses)) {
+            latest.merge(ev.getEmail(), ev, (a, b) -> isNewer(b, a) ? b : a);
+        }
+        latest.forEach((email, ev) -> loaded.put(email, new Profile(ev.getClientName(), ev.getDogName())));
+
+        long loadedAt = System.nanoTime();
+        synchronized (entries) {
+            loaded.forEach((email, p) -> entries.put(email, new Entry(p, loadedAt)));
+        }
+        out.putAll(loaded);
+        return out;
+    }
+
+    public void invalidate(String email) {
+        if (email == null) return;
+        synchronized (entries) {
+            entries.remove(email);
+        }
+    }
+
+    public void invalidateAll() {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    private static boolean isNewer(EvaluationRequest a, EvaluationRequest b) {
+        LocalDateTime ta = a.getCreatedAt(), tb = b.getCreatedAt();
+        if (ta != null && tb != null && !ta.equals(tb)) return ta.isAfter(tb);
+        if (ta != null && tb == null) return true;
+        if (ta == null && tb != null) return false;
+        return a.getId() != null && b.getId() != null && a.getId() > b.getId();
+    }
+}
@@ -0,0 +1,28 @@
+package com.dogdaycare.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Nightly job that recomputes every customer's document compliance summary, so documents
+ * that crossed into "expiring" or "expired" overnight show up without anyone re-uploading.
+ */
+@Component
+public class DocumentComplianceJob {
+
+    private static final Logger log = LoggerFactory.getLogger(DocumentComplianceJob.class);
+
+    private final DocumentComplianceService complianceService;
+
+    public DocumentComplianceJob(DocumentComplianceService complianceService) {
+        this.complianceService = complianceService;
+    }
+
+    @Scheduled(cron = "${uploads.compliance.cron:0 30 3 * * *}", zone = "${app.business.zone:America/Los_Angeles}")
+    public void refresh() {
+        int changed = complianceService.refreshAll();
+        log.info("Document compliance refreshed: {} customer(s) changed status", changed);
+    }
+}
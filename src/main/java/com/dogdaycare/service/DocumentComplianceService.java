@@ -0,0 +1,142 @@
+package com.dogdaycare.service;
+
+import com.dogdaycare.model.CustomerDocumentStatus;
+import com.dogdaycare.model.CustomerDocumentStatus.Compliance;
+import com.dogdaycare.repository.CustomerDocumentStatusRepository;
+import com.dogdaycare.repository.FileRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Maintains {@link CustomerDocumentStatus}: per customer, how many uploads are expired or
+ * expire within {@code uploads.compliance.expiring-days}, and the resulting status.
+ * Computed with one grouped query over uploaded_file; readers get one row per customer.
+ */
+@Service
+public class DocumentComplianceService {
+
+    private final FileRepository fileRepository;
+    private final CustomerDocumentStatusRepository statusRepository;
+    private final Clock clock;
+
+    @Value("${uploads.compliance.expiring-days:30}")
+    private int expiringDays;
+
+    public DocumentComplianceService(FileRepository fileRepository,
+                                     CustomerDocumentStatusRepository statusRepository,
+                                     Clock clock) {
+        this.fileRepository = fileRepository;
+        this.statusRepository = statusRepository;
+        this.clock = clock;
+    }
+
+    /** Status for one customer; recomputed first if the stored row is from an earlier day. */
+    @Transactional
+    public Compliance statusFor(Long customerId) {
+        if (customerId == null) return Compliance.NONE;
+        CustomerDocumentStatus row = statusRepository.findById(customerId).orElse(null);
+        if (row != null && !row.getAsOf().isBefore(LocalDate.now(clock))) return row.getStatus();
+        return refresh(customerId).getStatus();
+    }
+
+    /** Stored rows for these customers, keyed by customer id (customers without a row are absent). */
+    @Transactional(readOnly = true)
+    public Map<Long, CustomerDocumentStatus> summaries(Collection<Long> customerIds) {
+        if (customerIds == null || customerIds.isEmpty()) return Map.of();
+        return statusRepository.findAllById(customerIds).stream()
+                .collect(Collectors.toMap(CustomerDocumentStatus::getCustomerId, Function.identity()));
+    }
+
+    /** Recomputes one customer (after an upload is added or removed). */
+    @Transactional
+    public CustomerDocumentStatus refresh(Long customerId) {
+        LocalDate today = LocalDate.now(clock);
+        FileRepository.ExpirationCounts counts = fileRepository
+                .countExpirationsForCustomer(customerId, today, today.plusDays(expiringDays))
+                .orElse(null);
+
+        CustomerDocumentStatus row = statusRepository.findById(customerId)
+                .orElseGet(() -> new CustomerDocumentStatus(customerId));
+        apply(row, counts);
+        stamp(row, today);
+        return statusRepository.save(row);
+    }
+
+    /**
+     * Recomputes every customer with uploads (or a stored row) as of today. Only new rows and
+     * rows whose counts or status moved are written; the rest are re-dated with one bulk update.
+     *
+     * @return number of customers whose status changed
+     */
+    @Transactional
+    public int refreshAll() {
+        LocalDate today = LocalDate.now(clock);
+        Map<Long, FileRepository.ExpirationCounts> counts = fileRepository
+                .countExpirationsByCustomer(today, today.plusDays(expiringDays)).stream()
+                .collect(Collectors.toMap(FileRepository.ExpirationCounts::getCustomerId, Function.identity()));
+        Map<Long, CustomerDocumentStatus> rows = statusRepository.findAll().stream()
+                .collect(Collectors.toMap(CustomerDocumentStatus::getCustomerId, Function.identity()));
+
+        Set<Long> customerIds = new HashSet<>(counts.keySet());
+        customerIds.addAll(rows.keySet());
+
+        int changed = 0;
+        List<CustomerDocumentStatus> toSave = new ArrayList<>();
+        for (Long id : customerIds) {
+            CustomerDocumentStatus row = rows.get(id);
+            boolean isNew = (row == null);
+            if (isNew) row = new CustomerDocumentStatus(id);
+            Compliance before = row.getStatus();
+            if (apply(row, counts.get(id)) || isNew) {
+                stamp(row, today);
+                toSave.add(row);
+            }
+            if (before != row.getStatus() || isNew) changed++;
+        }
+        statusRepository.saveAll(toSave);
+        statusRepository.markCurrent(today, LocalDateTime.now(clock));
+        return changed;
+    }
+
+    /** Writes the counts and resulting status into the row; false (row untouched) if they already match. */
+    private boolean apply(CustomerDocumentStatus row, FileRepository.ExpirationCounts c) {
+        int documents = (c == null) ? 0 : (int) c.getDocuments();
+        int expired = (c == null) ? 0 : (int) c.getExpired();
+        int expiring = (c == null) ? 0 : (int) c.getExpiring();
+        long dated = (c == null) ? 0 : c.getDated();
+        LocalDate nextExpiration = (c == null) ? null : c.getNextExpiration();
+
+        Compliance status;
+        if (dated == 0) status = Compliance.NONE;
+        else if (expired > 0) status = Compliance.EXPIRED;
+        else if (expiring > 0) status = Compliance.EXPIRING;
+        else status = Compliance.VALID;
+
+        if (status == row.getStatus()
+                && documents == row.getDocumentCount()
+                && expired == row.getExpiredCount()
+                && expiring == row.getExpiringCount()
+                && Objects.equals(nextExpiration, row.getNextExpiration())) {
+            return false;
+        }
+        row.setStatus(status);
+        row.setDocumentCount(documents);
+        row.setExpiredCount(expired);
+        row.setExpiringCount(expiring);
+        row.setNextExpiration(nextExpiration);
+        return true;
+    }
+
+    private void stamp(CustomerDocumentStatus row, LocalDate today) {
+        row.setAsOf(today);
+        row.setComputedAt(LocalDateTime.now(clock));
+    }
+}
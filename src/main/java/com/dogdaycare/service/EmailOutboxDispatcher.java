@@ -0,0 +1,254 @@
+package com.dogdaycare.service;
+
+import com.dogdaycare.model.OutboundEmail;
+import com.dogdaycare.repository.OutboundEmailRepository;
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.File;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sends queued {@link OutboundEmail}s over SMTP off the request thread.
+ *
+ * New rows are handed to a small bounded worker pool right after they commit; a poll
+ * picks up everything else that is due (retries, rows dropped while the pool was full,
+ * leases left behind by a crashed instance). A worker first claims the row with a
+ * conditional update, so each email is sent by one worker at a time even across instances.
+ * Failures back off exponentially (initial-backoff × 2^(attempts-1), capped at max-backoff)
+ * until max-attempts, after which the row is parked as FAILED.
+ *
+ * Secrets for {@link EmailService#sendEmailWithSecret} rows live only in this instance's memory
+ * and are dropped, together with the stored body, once the row is SENT or FAILED. A row whose
+ * secret is not held here (another instance, or a restart) fails its attempt like any send error.
+ */
+@Component
+public class EmailOutboxDispatcher {
+
+    private static final Logger log = LoggerFactory.getLogger(EmailOutboxDispatcher.class);
+
+    // Rows a worker may claim: due retries, and SENDING rows whose lease expired
+    private static final Set<OutboundEmail.Status> CLAIMABLE =
+            EnumSet.of(OutboundEmail.Status.PENDING, OutboundEmail.Status.SENDING);
+
+    private static final int MARK_SENT_TRIES = 3;
+
+    private final OutboundEmailRepository outboxRepository;
+    private final JavaMailSender mailSender;
+    private final Clock clock;
+    private final ThreadPoolExecutor workers;
+    private final Map<Long, String> secrets = new ConcurrentHashMap<>();
+
+    @Value("${spring.mail.username}")
+    private String mailSenderUsername;
+
+    @Value("${email.outbox.max-attempts:8}")
+    private int maxAttempts;
+
+    @Value("${email.outbox.initial-backoff:PT30S}")
+    private Duration initialBackoff;
+
+    @Value("${email.outbox.max-backoff:PT1H}")
+    private Duration maxBackoff;
+
+    @Value("${email.outbox.lease:PT5M}")
+    private Duration lease;
+
+    @Value("${email.outbox.batch-size:50}")
+    private int batchSize;
+
+    @Value("${email.outbox.sent-retention:P7D}")
+    private Duration sentRetention;
+
+    public EmailOutboxDispatcher(OutboundEmailRepository outboxRepository,
+                                 JavaMailSender mailSender,
+                                 Clock clock,
+                                 @Value("${email.outbox.workers:2}") int workerCount,
+                                 @Value("${email.outbox.queue-capacity:100}") int queueCapacity) {
+        this.outboxRepository = outboxRepository;
+        this.mailSender = mailSender;
+        this.clock = clock;
+
+        AtomicInteger threadNo = new AtomicInteger();
+        int n = Math.max(1, workerCount);
+        // Full queue => the task is dropped; the row stays due and the next poll picks it up
+        this.workers = new ThreadPoolExecutor(n, n, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, queueCapacity)),
+                r -> {
+                    Thread t = new Thread(r, "email-outbox-" + threadNo.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                },
+                new ThreadPoolExecutor.DiscardPolicy());
+    }
+
+    /** Keeps the secret for a queued row in memory until the row is SENT or FAILED. */
+    public void holdSecret(Long id, String secret) {
+        secrets.put(id, secret);
+    }
+
+    public void forgetSecret(Long id) {
+        secrets.remove(id);
+    }
+
+    /** Queues one committed row for a worker (no-op if the pool is saturated or shut down). */
+    public void dispatchLater(Long id) {
+        try {
+            workers.execute(() -> deliver(id));
+        } catch (RejectedExecutionException e) {
+            log.debug("Email {} left for the next outbox poll", id);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${email.outbox.poll-delay:PT15S}",
+               initialDelayString = "${email.outbox.poll-delay:PT15S}")
+    public void poll() {
+        LocalDateTime now = LocalDateTime.now(clock);
+        List<Long> due = outboxRepository.findDueIds(CLAIMABLE, now, PageRequest.of(0, Math.max(1, batchSize)));
+        due.forEach(this::dispatchLater);
+
+        int purged = outboxRepository.deleteByStatusAndSentAtBefore(
+                OutboundEmail.Status.SENT, now.minus(sentRetention));
+        if (purged > 0) {
+            log.debug("Purged {} sent email(s) from the outbox", purged);
+        }
+    }
+
+    /**
+     * Claims and sends one row on the calling thread.
+     *
+     * @return true if the email was sent; false if it was not due, claimed elsewhere, or failed
+     */
+    public boolean deliver(Long id) {
+        LocalDateTime now = LocalDateTime.now(clock);
+        if (outboxRepository.claim(id, CLAIMABLE, OutboundEmail.Status.SENDING, now, now.plus(lease)) == 0) return false;
+
+        OutboundEmail email = outboxRepository.findById(id).orElse(null);
+        if (email == null) return false;
+
+        try {
+            send(email);
+        } catch (MessagingException | RuntimeException e) {
+            // Anything else (message building, attachments) must count as an attempt too,
+            // or the row would sit in SENDING and be re-claimed after every lease forever
+            recordFailure(email, e);
+            return false;
+        }
+
+        secrets.remove(email.getId());
+        email.setStatus(OutboundEmail.Status.SENT);
+        email.setSentAt(LocalDateTime.now(clock));
+        email.setLastError(null);
+        email.setBody(null);
+        markSent(email);
+        return true;
+    }
+
+    // The message is out: retry only the bookkeeping, never the send. If every try fails the row
+    // stays SENDING (its lease may re-send it once, which beats re-sending on every retry).
+    private void markSent(OutboundEmail email) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                outboxRepository.save(email);
+                return;
+            } catch (RuntimeException e) {
+                if (attempt >= MARK_SENT_TRIES) {
+                    log.error("Email {} to {} was sent but could not be marked SENT", email.getId(), email.getRecipient(), e);
+                    return;
+                }
+                log.warn("Marking email {} as SENT failed (try {}), retrying: {}", email.getId(), attempt, e.getMessage());
+            }
+        }
+    }
+
+    private void recordFailure(OutboundEmail email, Exception e) {
+        int attempts = email.getAttempts() + 1;
+        email.setAttempts(attempts);
+        email.setLastError(truncate(e.getClass().getSimpleName() + ": " + e.getMessage(), 1000));
+
+        if (attempts >= maxAttempts) {
+            email.setStatus(OutboundEmail.Status.FAILED);
+            email.setBody(null);
+            secrets.remove(email.getId());
+            log.error("Giving up on email {} to {} after {} attempt(s)", email.getId(), email.getRecipient(), attempts, e);
+        } else {
+            email.setStatus(OutboundEmail.Status.PENDING);
+            email.setNextAttemptAt(LocalDateTime.now(clock).plus(backoff(attempts)));
+            log.warn("Email {} to {} failed (attempt {}), retrying at {}: {}",
+                    email.getId(), email.getRecipient(), attempts, email.getNextAttemptAt(), e.getMessage());
+        }
+        outboxRepository.save(email);
+    }
+
+    Duration backoff(int attempts) {
+        Duration d = initialBackoff;
+        for (int i = 1; i < attempts && d.compareTo(maxBackoff) < 0; i++) {
+            d = d.multipliedBy(2);
+        }
+        return d.compareTo(maxBackoff) > 0 ? maxBackoff : d;
+    }
+
+    private void send(OutboundEmail email) throws MessagingException {
+        List<OutboundEmail.Attachment> attachments = email.getAttachments();
+
+        MimeMessage message = mailSender.createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(message, !attachments.isEmpty());
+        helper.setFrom(mailSenderUsername);
+        helper.setTo(email.getRecipient());
+        helper.setSubject(email.getSubject());
+        helper.setText(bodyOf(email));
+
+        for (OutboundEmail.Attachment attachment : attachments) {
+            File file = new File(attachment.path());
+            if (!file.isFile()) {
+                // Uploads can be cleaned up between retries; send the text rather than fail forever
+                log.warn("Attachment {} for email {} no longer exists; sending without it", attachment.path(), email.getId());
+                continue;
+            }
+            helper.addAttachment(attachment.name(), new FileSystemResource(file));
+        }
+
+        mailSender.send(message);
+    }
+
+    private String bodyOf(OutboundEmail email) {
+        String body = email.getBody();
+        if (body == null || !body.contains(EmailService.SECRET)) return body;
+        String secret = secrets.get(email.getId());
+        if (secret == null) {
+            throw new IllegalStateException("secret for this email is not held by this instance");
+        }
+        return body.replace(EmailService.SECRET, secret);
+    }
+
+    private static String truncate(String s, int max) {
+        return (s == null || s.length() <= max) ? s : s.substring(0, max);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        workers.shutdown();
+    }
+}
@@ -1,61 +1,99 @@
 package com.dogdaycare.service;
 
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.core.io.FileSystemResource;
-import org.springframework.mail.javamail.JavaMailSender;
-import org.springframework.mail.javamail.MimeMessageHelper;
+import com.dogdaycare.model.OutboundEmail;
+import com.dogdaycare.model.UploadedFile;
+import com.dogdaycare.repository.OutboundEmailRepository;
 import org.springframework.stereotype.Service;
-import jakarta.mail.MessagingException;
-import jakarta.mail.internet.MimeMessage;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
 import java.io.File;
+import java.time.Clock;
+import java.time.LocalDateTime;
 import java.util.List;
 
+/**
+ * Queues outbound email in the email_outbox table; EmailOutboxDispatcher sends it over
+ * SMTP in the background (with retries), so callers never wait on the mail server.
+ *
+ * Credentials never reach the table: {@link #sendEmailWithSecret} stores the text with a
+ * {@link #SECRET} placeholder and hands the secret to the dispatcher in memory only.
+ */
 @Service
 public class EmailService {
 
-    private final JavaMailSender mailSender;
+    /** Placeholder for the secret in {@link #sendEmailWithSecret} texts. */
+    public static final String SECRET = "{secret}";
 
-    @Value("${spring.mail.username}")
-    private String mailSenderUsername;  // Ensures emails have a proper "from" address
+    private final OutboundEmailRepository outboxRepository;
+    private final EmailOutboxDispatcher dispatcher;
+    private final Clock clock;
 
-    public EmailService(JavaMailSender mailSender) {
-        this.mailSender = mailSender;
+    public EmailService(OutboundEmailRepository outboxRepository,
+                        EmailOutboxDispatcher dispatcher,
+                        Clock clock) {
+        this.outboxRepository = outboxRepository;
+        this.dispatcher = dispatcher;
+        this.clock = clock;
     }
 
-    // For customer confirmation emails (reliable MimeMessage version)
+    // For customer confirmation emails
     public void sendEmail(String to, String subject, String text) {
-        try {
-            MimeMessage message = mailSender.createMimeMessage();
-            MimeMessageHelper helper = new MimeMessageHelper(message, false);
-            helper.setFrom(mailSenderUsername);
-            helper.setTo(to);
-            helper.setSubject(subject);
-            helper.setText(text);
-            mailSender.send(message);
-        } catch (MessagingException e) {
-            throw new RuntimeException("Failed to send customer email", e);
-        }
+        enqueue(to, subject, text, List.of(), null);
+    }
+
+    // For texts carrying a credential: the stored body keeps SECRET, the dispatcher fills it in at send time
+    public void sendEmailWithSecret(String to, String subject, String text, String secret) {
+        enqueue(to, subject, text, List.of(), secret);
     }
 
-    // For business emails with attachments
+    // For business emails with attachments (files must stay on disk until sent)
     public void sendEmailWithAttachments(String to, String subject, String text, List<File> attachments) {
-        try {
-            MimeMessage message = mailSender.createMimeMessage();
-            MimeMessageHelper helper = new MimeMessageHelper(message, true);
-            helper.setFrom(mailSenderUsername);
-            helper.setTo(to);
-            helper.setSubject(subject);
-            helper.setText(text);
-
-            if (attachments != null) {
-                for (File file : attachments) {
-                    helper.addAttachment(file.getName(), new FileSystemResource(file));
+        List<OutboundEmail.Attachment> list = (attachments == null) ? List.of()
+                : attachments.stream()
+                        .map(f -> new OutboundEmail.Attachment(f.getAbsolutePath(), f.getName()))
+                        .toList();
+        enqueue(to, subject, text, list, null);
+    }
+
+    // Stored uploads, attached under their original file names
+    public void sendEmailWithUploads(String to, String subject, String text, List<UploadedFile> uploads) {
+        List<OutboundEmail.Attachment> list = (uploads == null) ? List.of()
+                : uploads.stream()
+                        .map(u -> new OutboundEmail.Attachment(u.getFilePath(), u.getFileName()))
+                        .toList();
+        enqueue(to, subject, text, list, null);
+    }
+
+    private void enqueue(String to, String subject, String text, List<OutboundEmail.Attachment> attachments,
+                         String secret) {
+        LocalDateTime now = LocalDateTime.now(clock);
+
+        OutboundEmail email = new OutboundEmail();
+        email.setRecipient(to);
+        email.setSubject(subject);
+        email.setBody(text);
+        email.setAttachments(attachments);
+        email.setCreatedAt(now);
+        email.setNextAttemptAt(now);
+        Long id = outboxRepository.save(email).getId();
+        if (secret != null) dispatcher.holdSecret(id, secret);
+
+        // Hand it to a worker once the row is visible to other connections
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    dispatcher.dispatchLater(id);
                 }
-            }
 
-            mailSender.send(message);
-        } catch (MessagingException e) {
-            throw new RuntimeException("Failed to send email with attachments", e);
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) dispatcher.forgetSecret(id);
+                }
+            });
+        } else {
+            dispatcher.dispatchLater(id);
         }
     }
-}
\ No newline at end of file
+}
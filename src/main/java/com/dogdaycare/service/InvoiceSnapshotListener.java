@@ -0,0 +1,76 @@
+package com.dogdaycare.service;
+
+import com.dogdaycare.model.BookingChangedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Refreshes invoice snapshots once the booking changes that affect them have committed.
+ *
+ * Events are collected per transaction (a {@code saveAll} of a whole week publishes one per
+ * booking) and handed to {@link WeeklyInvoiceService#refreshChanged} in a transaction of its
+ * own after commit, so the refresh reads committed bookings and a failure there can't roll
+ * back the booking. If it does fail, the affected weeks are rebuilt on their next read.
+ */
+@Component
+public class InvoiceSnapshotListener {
+
+    private static final Logger log = LoggerFactory.getLogger(InvoiceSnapshotListener.class);
+
+    private final WeeklyInvoiceService weeklyInvoiceService;
+
+    public InvoiceSnapshotListener(WeeklyInvoiceService weeklyInvoiceService) {
+        this.weeklyInvoiceService = weeklyInvoiceService;
+    }
+
+    @EventListener
+    public void onBookingChanged(BookingChangedEvent event) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            refresh(List.of(event));
+            return;
+        }
+
+        @SuppressWarnings("unchecked")
+        Set<BookingChangedEvent> pending = (Set<BookingChangedEvent>) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            Set<BookingChangedEvent> events = new LinkedHashSet<>();
+            TransactionSynchronizationManager.bindResource(this, events);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    refresh(events);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(InvoiceSnapshotListener.this);
+                }
+            });
+            pending = events;
+        }
+        pending.add(event);
+    }
+
+    private void refresh(Collection<BookingChangedEvent> events) {
+        try {
+            weeklyInvoiceService.refreshChanged(events);
+        } catch (RuntimeException e) {
+            log.warn("Invoice snapshot refresh failed for {} booking change(s); rebuilding their weeks on next read",
+                    events.size(), e);
+            try {
+                weeklyInvoiceService.markForRebuild(events);
+            } catch (RuntimeException again) {
+                log.warn("Could not mark invoice weeks for rebuild", again);
+            }
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package com.dogdaycare.service;
 
 import com.dogdaycare.model.Booking;
+import com.dogdaycare.model.ServiceKind;
 import com.dogdaycare.model.User;
 import com.dogdaycare.repository.BookingRepository;
 import org.springframework.stereotype.Service;
@@ -8,8 +9,16 @@ import org.springframework.stereotype.Service;
 import java.math.BigDecimal;
 import java.time.DayOfWeek;
 import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.LongSupplier;
 import java.math.RoundingMode;
+import java.util.stream.Collectors;
 
 @Service
 public class PricingService {
@@ -20,69 +29,8 @@ public class PricingService {
         this.bookingRepository = bookingRepository;
     }
 
-    // --- Base immediate rates ---
-    private static final BigDecimal DC_HALF_IMM = bd(50);
-    private static final BigDecimal DC_FULL_IMM = bd(60);
-    private static final BigDecimal DC_EXT_IMM  = bd(80);
-
-    // --- Daycare discounts (weekly prepay) ---
-    // 1–3 days prepay
-    private static final BigDecimal DC_HALF_PREPAY_1_3 = bd(45);
-    private static final BigDecimal DC_FULL_PREPAY_1_3 = bd(50);
-    private static final BigDecimal DC_EXT_PREPAY_1_3  = bd(70);
-    // ≥4 days prepay
-    private static final BigDecimal DC_HALF_PREPAY_4P = bd(40);
-    private static final BigDecimal DC_FULL_PREPAY_4P = bd(45);
-    private static final BigDecimal DC_EXT_PREPAY_4P  = bd(60);
-
-    // --- Boarding immediate + tiered (per-night) ---
-    private static final BigDecimal BRD_PERNIGHT_IMM = bd(90);
-    private static final BigDecimal BRD_PERNIGHT_T4  = bd(80); // ≥4 prior-month nights
-    private static final BigDecimal BRD_PERNIGHT_T10 = bd(75); // ≥10 prior-month nights
-    private static final BigDecimal BRD_PERNIGHT_T16 = bd(65); // ≥16 prior-month nights
-
-    // --- NEW: Daycare After Hours flat rate ---
-    private static final BigDecimal DC_AFTER_HOURS = bd(90);
-
-    private static BigDecimal bd(double v) { return BigDecimal.valueOf(v); }
-
-    private boolean isDaycare(Booking b) {
-        String s = b.getServiceType();
-        return s != null && s.toLowerCase().contains("daycare");
-    }
-
     private boolean isBoarding(Booking b) {
-        String s = b.getServiceType();
-        return s != null && s.toLowerCase().contains("boarding");
-    }
-
-    // NEW: detect "Daycare After Hours (6 AM - 11 PM)"
-    private boolean isAfterHours(Booking b) {
-        String s = b.getServiceType();
-        if (s == null) return false;
-        String sl = s.toLowerCase();
-        return sl.contains("after hours") || s.contains("6 AM - 11 PM");
-    }
-
-    private boolean isHalfDay(Booking b) {
-        String s = b.getServiceType();
-        return s != null && s.contains("6 AM - 3 PM");
-    }
-
-    private boolean isExtended(Booking b) {
-        String s = b.getServiceType();
-        return s != null && s.contains("8 PM"); // treating 6AM–8PM as long/full block
-    }
-
-    private boolean isFullDay(Booking b) {
-        return isDaycare(b) && isExtended(b); // map 6–8 to the “full-day” band
-    }
-
-    private LocalDate weekStart(LocalDate any) {
-        return any.with(DayOfWeek.MONDAY);
-    }
-    private LocalDate weekEnd(LocalDate ws) {
-        return ws.plusDays(6);
+        return WeeklyPricingEngine.isBoarding(b);
     }
 
     private LocalDate priorMonthStart(LocalDate any) {
@@ -109,95 +57,84 @@ public class PricingService {
     }
 
     /**
-     * Compute price for a single booking at evaluation time.
-     * For daycare discount: booking must be 24h+ out, daycare, and customer opted-in (wantsAdvancePay).
+     * Load everything needed to price a customer's Mon–Sun week in two queries:
+     * the week's non-canceled bookings (through the following Monday) and, if boarding
+     * is involved, prior-month boarding nights for every month the week touches.
      */
-    public BigDecimal priceFor(Booking b) {
-        if (b == null || b.getCustomer() == null) return BigDecimal.ZERO;
-
-        // If we already locked a quote, prefer it (idempotent behavior)
-        if (b.getQuotedRateAtLock() != null) return b.getQuotedRateAtLock();
-
-        // NEW: Daycare After Hours is always flat $90 (no discount)
-        if (isAfterHours(b)) {
-            return DC_AFTER_HOURS.setScale(2, RoundingMode.HALF_UP);
-        }
-
-        if (isDaycare(b)) {
-            return priceDaycare(b);
-        } else if (isBoarding(b)) {
-            return priceBoarding(b);
-        }
-        return BigDecimal.ZERO;
+    public WeeklyPricingEngine engineFor(User u, LocalDate anyDateInWeek) {
+        return engineFor(u, anyDateInWeek, false);
     }
 
-    private BigDecimal priceDaycare(Booking b) {
-        // If not in advance or not opted in, immediate rates
-        boolean qualifies = b.isAdvanceEligible() && b.isWantsAdvancePay();
-
-        if (!qualifies) {
-            if (isHalfDay(b)) return DC_HALF_IMM;
-            if (isFullDay(b)) return DC_FULL_IMM;
-            // If you add “Extended” distinct SKU later: return DC_EXT_IMM
-            return DC_FULL_IMM; // default to full for safety
+    /**
+     * @param needBoardingHistory load prior-month boarding nights even if the week has no boarding
+     *                            (pricing a boarding night that isn't booked yet)
+     */
+    public WeeklyPricingEngine engineFor(User u, LocalDate anyDateInWeek, boolean needBoardingHistory) {
+        LocalDate ws = weekStartMonday(anyDateInWeek);
+        LocalDate we = weekEndSunday(anyDateInWeek);
+
+        List<Booking> active = bookingRepository
+                .findActiveByCustomerAndDateBetween(u, ws, we.plusDays(1));
+
+        Map<YearMonth, Long> nightsByMonth = Map.of();
+        if (needBoardingHistory || active.stream().anyMatch(this::isBoarding)) {
+            // A week can straddle two months → prior months of both Monday and Sunday
+            nightsByMonth = bookingRepository
+                    .findActiveByCustomerAndServiceKindInAndDateBetween(
+                            u, Set.of(ServiceKind.BOARDING), priorMonthStart(ws), priorMonthEnd(we))
+                    .stream()
+                    .collect(Collectors.groupingBy(b -> YearMonth.from(b.getDate()), Collectors.counting()));
         }
+        return new WeeklyPricingEngine(ws, active, nightsByMonth);
+    }
 
-        // Count customer’s prepay daycare bookings that fall in the same Mon–Sun week
-        User u = b.getCustomer();
-        LocalDate ws = weekStartMonday(b.getDate());
-        LocalDate we = weekEndSunday(b.getDate());
-
-        List<Booking> weekDaycare = bookingRepository
-                .findByCustomerAndServiceTypeContainingIgnoreCaseAndDateBetweenAndStatusNotIgnoreCase(
-                        u, "daycare", ws, we, "CANCELED");
-
-        long prepayCount = weekDaycare.stream()
-                .filter(x -> x.isWantsAdvancePay() && x.isAdvanceEligible())
-                .count();
+    /**
+     * One engine per customer (keyed by user id) for the week containing the date, loaded with
+     * two queries total regardless of how many customers are asked for. Always includes
+     * prior-month boarding history.
+     */
+    public Map<Long, WeeklyPricingEngine> enginesFor(Collection<Long> customerIds, LocalDate anyDateInWeek) {
+        if (customerIds.isEmpty()) return Map.of();
+        LocalDate ws = weekStartMonday(anyDateInWeek);
+        LocalDate we = weekEndSunday(anyDateInWeek);
 
-        boolean atLeast4 = prepayCount >= 4;
+        Map<Long, List<Booking>> activeByCustomer = bookingRepository
+                .findActiveByCustomerIdInAndDateBetween(customerIds, ws, we.plusDays(1))
+                .stream()
+                .collect(Collectors.groupingBy(b -> b.getCustomer().getId()));
 
-        if (atLeast4) {
-            if (isHalfDay(b)) return DC_HALF_PREPAY_4P;
-            if (isFullDay(b)) return DC_FULL_PREPAY_4P;
-            return DC_EXT_PREPAY_4P; // if you add extended explicitly later
-        } else {
-            if (isHalfDay(b)) return DC_HALF_PREPAY_1_3;
-            if (isFullDay(b)) return DC_FULL_PREPAY_1_3;
-            return DC_EXT_PREPAY_1_3;
+        Map<Long, Map<YearMonth, Long>> nightsByCustomer = bookingRepository
+                .findActiveBoardingByCustomerIdInAndDateBetween(customerIds, priorMonthStart(ws), priorMonthEnd(we))
+                .stream()
+                .collect(Collectors.groupingBy(b -> b.getCustomer().getId(),
+                        Collectors.groupingBy(b -> YearMonth.from(b.getDate()), Collectors.counting())));
+
+        Map<Long, WeeklyPricingEngine> out = new HashMap<>();
+        for (Long id : customerIds) {
+            out.put(id, new WeeklyPricingEngine(ws,
+                    activeByCustomer.getOrDefault(id, List.of()),
+                    nightsByCustomer.getOrDefault(id, Map.of())));
         }
+        return out;
     }
 
-    private BigDecimal priceBoarding(Booking b) {
-        // Prior-month boarding nights determine current per-night price
-        User u = b.getCustomer();
-        LocalDate pms = priorMonthStart(b.getDate());
-        LocalDate pme = priorMonthEnd(b.getDate());
-
-        List<Booking> prevMonthBoarding = bookingRepository
-                .findByCustomerAndServiceTypeContainingIgnoreCaseAndDateBetweenAndStatusNotIgnoreCase(
-                        u, "boarding", pms, pme, "CANCELED");
-
-        long nights = prevMonthBoarding.size();
-
-        BigDecimal nightly;
-        if (nights >= 16) nightly = BRD_PERNIGHT_T16;
-        else if (nights >= 10) nightly = BRD_PERNIGHT_T10;
-        else if (nights >= 4) nightly = BRD_PERNIGHT_T4;
-        else nightly = BRD_PERNIGHT_IMM;
-
-        // Last-of-block if there is NO boarding the next day
-        boolean isLastOfBlock = !hasBoardingOnNextDay(u, b.getDate());
-
-        // If pickup day (date+1) has daycare, do NOT add the half-day
-        boolean pickupDayHasDaycare = hasDaycareOnDate(u, b.getDate().plusDays(1));
+    /** Per-dog price for every non-canceled booking in the customer's week (booking id → price). */
+    public Map<Long, BigDecimal> priceWeek(User u, LocalDate anyDateInWeek) {
+        return engineFor(u, anyDateInWeek).priceWeek();
+    }
 
-        BigDecimal price = nightly; // default
-        if (isLastOfBlock && !pickupDayHasDaycare) {
-            price = nightly.multiply(BigDecimal.valueOf(1.5));
-        }
+    /**
+     * Compute price for a single booking at evaluation time.
+     * For daycare discount: booking must be 24h+ out, daycare, and customer opted-in (wantsAdvancePay).
+     * Delegates to WeeklyPricingEngine; callers pricing many bookings of one week should
+     * use engineFor/priceWeek once instead.
+     */
+    public BigDecimal priceFor(Booking b) {
+        Optional<BigDecimal> fixed = WeeklyPricingEngine.contextFreePrice(b);
+        if (fixed.isPresent()) return fixed.get();
 
-        return price.setScale(2, RoundingMode.HALF_UP);
+        // Boarding always needs prior-month history (the booking may be an unsaved probe)
+        return engineFor(b.getCustomer(), b.getDate(), isBoarding(b)).priceFor(b);
     }
 
     /**
@@ -205,31 +142,7 @@ public class PricingService {
      * @param atLeast4 true => use ≥4 prepay tier, false => use 1–3 prepay tier
      */
     public BigDecimal quoteDaycareAtTier(Booking b, boolean atLeast4) {
-        // mirror your priceDaycare() bands: half vs full (6–3 vs 6–8)
-        if (atLeast4) {
-            if (isHalfDay(b)) return DC_HALF_PREPAY_4P;
-            if (isFullDay(b)) return DC_FULL_PREPAY_4P;
-            return DC_EXT_PREPAY_4P;
-        } else {
-            if (isHalfDay(b)) return DC_HALF_PREPAY_1_3;
-            if (isFullDay(b)) return DC_FULL_PREPAY_1_3;
-            return DC_EXT_PREPAY_1_3;
-        }
-    }
-
-    private boolean hasBoardingOnNextDay(User u, LocalDate date) {
-        return !bookingRepository
-                .findByCustomerAndServiceTypeContainingIgnoreCaseAndDateAndStatusNotIgnoreCase(
-                        u, "boarding", date.plusDays(1), "CANCELED")
-                .isEmpty();
-    }
-
-    private boolean hasDaycareOnDate(User u, LocalDate date) {
-        return bookingRepository
-                .findByCustomerAndServiceTypeContainingIgnoreCaseAndDateAndStatusNotIgnoreCase(
-                        u, "daycare", date, "CANCELED")
-                .stream()
-                .anyMatch(bk -> !isAfterHours(bk)); // ← true if there’s a regular daycare (not After Hours)
+        return WeeklyPricingEngine.quoteDaycareAtTier(b, atLeast4);
     }
 
     public BigDecimal previewDaycarePrice(User u,
@@ -237,12 +150,22 @@ public class PricingService {
                                           String serviceType,
                                           boolean advanceEligible,
                                           boolean wantsAdvancePay) {
+        // Count existing eligible daycare in the same week (only loaded when it matters)
+        return previewDaycarePrice(serviceType, advanceEligible, wantsAdvancePay,
+                () -> engineFor(u, date, false).prepayDaycareCount());
+    }
+
+    /**
+     * Daycare preview given the week's existing opted-in, advance-eligible daycare count
+     * (e.g. from a cached WeeklyPricingEngine). The supplier is only called for prepay quotes.
+     */
+    public BigDecimal previewDaycarePrice(String serviceType,
+                                          boolean advanceEligible,
+                                          boolean wantsAdvancePay,
+                                          LongSupplier existingEligibleInWeek) {
         // NEW: After Hours is always flat $90 (no discounts)
-        if (serviceType != null) {
-            String sl = serviceType.toLowerCase();
-            if (sl.contains("after hours") || serviceType.contains("6 AM - 11 PM")) {
-                return DC_AFTER_HOURS.setScale(2, RoundingMode.HALF_UP);
-            }
+        if (ServiceKind.of(serviceType).isAfterHours()) {
+            return WeeklyPricingEngine.DC_AFTER_HOURS.setScale(2, RoundingMode.HALF_UP);
         }
 
         // If not qualifying for prepay, use immediate bands
@@ -252,21 +175,12 @@ public class PricingService {
 
         if (!qualifies) {
             // mirror your immediate daycare mapping
-            if (isHalfDay(temp)) return DC_HALF_IMM;
-            if (isFullDay(temp)) return DC_FULL_IMM;
-            return DC_EXT_IMM;
+            if (WeeklyPricingEngine.isHalfDay(temp)) return WeeklyPricingEngine.DC_HALF_IMM;
+            if (WeeklyPricingEngine.isFullDay(temp)) return WeeklyPricingEngine.DC_FULL_IMM;
+            return WeeklyPricingEngine.DC_EXT_IMM;
         }
 
-        // Count existing eligible daycare in the same week
-        LocalDate ws = weekStartMonday(date);
-        LocalDate we = weekEndSunday(date);
-        List<Booking> weekDaycare = bookingRepository
-                .findByCustomerAndServiceTypeContainingIgnoreCaseAndDateBetweenAndStatusNotIgnoreCase(
-                        u, "daycare", ws, we, "CANCELED");
-
-        long existingEligible = weekDaycare.stream()
-                .filter(x -> x.isWantsAdvancePay() && x.isAdvanceEligible())
-                .count();
+        long existingEligible = existingEligibleInWeek.getAsLong();
 
         boolean atLeast4 = (existingEligible + 1) >= 4; // include THIS booking
         return quoteDaycareAtTier(temp, atLeast4);
@@ -0,0 +1,137 @@
+package com.dogdaycare.service;
+
+import com.dogdaycare.model.BookingChangedEvent;
+import com.dogdaycare.model.User;
+import com.dogdaycare.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * Per customer-week pricing context for /booking/quote, which is hit on every form change.
+ *
+ * An entry holds the week's {@link WeeklyPricingEngine} (prepay count, boarding dates,
+ * prior-month boarding nights) and the week-paid flag, keyed by username + Monday, so a
+ * warm preview needs no queries at all. Any {@link BookingChangedEvent} for the customer
+ * drops all of their weeks (prior-month boarding makes a change in one month affect the
+ * next). Bounded LRU with a TTL as a backstop, like {@link CustomerProfileCache}.
+ *
+ * Loads run outside the lock, so each invalidation bumps a per-customer generation and a
+ * load only caches its result if the generation it started from is still current; a load
+ * that read the bookings before a change committed can't re-cache the old week.
+ */
+@Component
+public class QuotePricingCache {
+
+    /** Pricing inputs for one customer-week. */
+    public record WeekContext(Long customerId, WeeklyPricingEngine engine, boolean weekPaid) {}
+
+    private record Key(String username, LocalDate weekStart) {}
+
+    private record Entry(WeekContext context, long loadedAtNanos) {}
+
+    private final UserRepository userRepository;
+    private final PricingService pricingService;
+    private final BundleService bundleService;
+    private final int maxSize;
+    private final long ttlNanos;
+    private final LinkedHashMap<Key, Entry> entries;
+    // Guarded by entries; one counter per customer ever invalidated, plus one for invalidateAll
+    private final Map<Long, Long> generations = new HashMap<>();
+    private long allGeneration;
+
+    public QuotePricingCache(UserRepository userRepository,
+                             PricingService pricingService,
+                             BundleService bundleService,
+                             @Value("${booking.quote-cache.max-size:5000}") int maxSize,
+                             @Value("${booking.quote-cache.ttl:PT5M}") Duration ttl) {
+        this.userRepository = userRepository;
+        this.pricingService = pricingService;
+        this.bundleService = bundleService;
+        this.maxSize = Math.max(1, maxSize);
+        this.ttlNanos = ttl.toNanos();
+        // access-order map => eldest entry is the least recently used
+        this.entries = new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+                return size() > QuotePricingCache.this.maxSize;
+            }
+        };
+    }
+
+    /**
+     * Context for the week containing {@code anyDateInWeek}; loads it (user, week bookings,
+     * prior-month boarding, week-paid) on a miss.
+     *
+     * @throws NoSuchElementException if the username doesn't exist
+     */
+    public WeekContext get(String username, LocalDate anyDateInWeek) {
+        Key key = new Key(username, anyDateInWeek.with(DayOfWeek.MONDAY));
+        long now = System.nanoTime();
+
+        synchronized (entries) {
+            Entry e = entries.get(key);
+            if (e != null && now - e.loadedAtNanos() < ttlNanos) return e.context();
+        }
+
+        User customer = userRepository.findByUsername(username).orElseThrow();
+        long generation = generation(customer.getId());
+        WeekContext context = new WeekContext(
+                customer.getId(),
+                pricingService.engineFor(customer, key.weekStart(), true),
+                bundleService.hasWeekPaid(customer, key.weekStart()));
+
+        synchronized (entries) {
+            // Invalidated while loading: serve this result once, but don't cache it
+            if (generation(customer.getId()) == generation) {
+                entries.put(key, new Entry(context, System.nanoTime()));
+            }
+        }
+        return context;
+    }
+
+    private long generation(Long customerId) {
+        synchronized (entries) {
+            return allGeneration + generations.getOrDefault(customerId, 0L);
+        }
+    }
+
+    public void invalidateCustomer(Long customerId) {
+        if (customerId == null) return;
+        synchronized (entries) {
+            generations.merge(customerId, 1L, Long::sum);
+            entries.values().removeIf(e -> customerId.equals(e.context().customerId()));
+        }
+    }
+
+    public void invalidateAll() {
+        synchronized (entries) {
+            allGeneration++;
+            entries.clear();
+        }
+    }
+
+    @EventListener
+    public void onBookingChanged(BookingChangedEvent event) {
+        invalidateCustomer(event.customerId());
+        // A quote served before the change commits could re-cache the old state; drop it again after commit
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    invalidateCustomer(event.customerId());
+                }
+            });
+        }
+    }
+}
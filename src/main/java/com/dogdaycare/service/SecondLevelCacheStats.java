@@ -0,0 +1,42 @@
+package com.dogdaycare.service;
+
+import com.dogdaycare.config.SecondLevelCacheConfig;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Per-region counters of the Hibernate second-level / query cache (see {@link SecondLevelCacheConfig}).
+ * Empty when the cache is off, since statistics are only gathered with it.
+ */
+@Component
+public class SecondLevelCacheStats {
+
+    /** Counters since startup; {@code entries} is -1 when the provider doesn't report it. */
+    public record Region(String name, long hits, long misses, long puts, long entries) {}
+
+    private final Statistics statistics;
+
+    public SecondLevelCacheStats(EntityManagerFactory entityManagerFactory) {
+        this.statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    public List<Region> regions() {
+        if (!statistics.isStatisticsEnabled()) return List.of();
+        return SecondLevelCacheConfig.REGIONS.stream()
+                .map(statistics::getCacheRegionStatistics)
+                .filter(Objects::nonNull)
+                .map(SecondLevelCacheStats::toRegion)
+                .toList();
+    }
+
+    private static Region toRegion(CacheRegionStatistics r) {
+        return new Region(r.getRegionName(), r.getHitCount(), r.getMissCount(), r.getPutCount(),
+                r.getElementCountInMemory());
+    }
+}
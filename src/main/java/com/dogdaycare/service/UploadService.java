@@ -1,72 +1,85 @@
 package com.dogdaycare.service;
 
+import com.dogdaycare.model.EvaluationRequest;
 import com.dogdaycare.model.UploadedFile;
 import com.dogdaycare.model.User;
 import com.dogdaycare.repository.FileRepository;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import org.springframework.util.StringUtils;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
-import java.nio.file.*;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.time.LocalDate;
 import java.util.List;
-import java.util.UUID;
 
 @Service
 public class UploadService {
 
     private final FileRepository fileRepository;
-
-    private final Path uploadDir;
+    private final UploadStore uploadStore;
+    private final DocumentComplianceService complianceService;
 
     public UploadService(FileRepository fileRepository,
-                         @Value("${file.upload-dir}") String uploadDirProp) throws IOException {
+                         UploadStore uploadStore,
+                         DocumentComplianceService complianceService) {
         this.fileRepository = fileRepository;
-        this.uploadDir = Paths.get(uploadDirProp);
-        Files.createDirectories(this.uploadDir); // ensure exists
+        this.uploadStore = uploadStore;
+        this.complianceService = complianceService;
+    }
+
+    public long getMaxFileBytes() {
+        return uploadStore.getMaxBytes();
     }
 
     public List<UploadedFile> listForUser(User user) {
         return fileRepository.findByUserIdOrderByCreatedAtDesc(user.getId());
     }
 
+    @Transactional
     public UploadedFile storeForUser(User user,
                                      MultipartFile file,
                                      String displayName,
                                      LocalDate expirationDate) throws IOException {
-        if (file == null || file.isEmpty()) {
-            throw new IllegalArgumentException("No file provided.");
-        }
-        final String originalFilename = StringUtils.cleanPath(file.getOriginalFilename());
-        final String ext = extractExtension(originalFilename);
-        final String storedBase = UUID.randomUUID().toString() + (ext.isEmpty() ? "" : "." + ext);
-        final Path target = uploadDir.resolve(storedBase);
-
-        // Save to disk
-        Files.copy(file.getInputStream(), target, StandardCopyOption.REPLACE_EXISTING);
-
-        // Persist metadata
-        UploadedFile uf = new UploadedFile();
+        UploadedFile uf = record(uploadStore.store(file));
         uf.setUser(user);
-        uf.setFileName(originalFilename);
         uf.setDisplayName((displayName != null && !displayName.isBlank()) ? displayName : null);
         uf.setExpirationDate(expirationDate);
-        uf.setFileType(file.getContentType());
-        uf.setSizeBytes(file.getSize());
-        uf.setFilePath(target.toAbsolutePath().toString());
+        UploadedFile saved = fileRepository.save(uf);
+        complianceService.refresh(user.getId());
+        return saved;
+    }
 
+    // Files attached to an evaluation request (also emailed to the business)
+    @Transactional
+    public UploadedFile storeForEvaluation(EvaluationRequest evaluation, MultipartFile file) throws IOException {
+        UploadedFile uf = record(uploadStore.store(file));
+        uf.setEvaluationRequest(evaluation);
         return fileRepository.save(uf);
     }
 
+    // Removes the row and its reference to the stored file (the file goes with the last reference)
+    @Transactional
+    public void delete(UploadedFile uf) throws IOException {
+        fileRepository.delete(uf);
+        uploadStore.release(uf);
+        if (uf.getUser() != null) {
+            complianceService.refresh(uf.getUser().getId());
+        }
+    }
+
     public Path resolveDownloadPath(UploadedFile uf) {
         return Paths.get(uf.getFilePath());
     }
 
-    private String extractExtension(String filename) {
-        if (filename == null) return "";
-        int dot = filename.lastIndexOf('.');
-        return (dot >= 0 && dot < filename.length() - 1) ? filename.substring(dot + 1) : "";
+    private static UploadedFile record(UploadStore.StoredUpload stored) {
+        UploadedFile uf = new UploadedFile();
+        uf.setFileName(stored.originalFilename());
+        uf.setFileType(stored.contentType());
+        uf.setSizeBytes(stored.sizeBytes());
+        uf.setSha256(stored.sha256());
+        uf.setFilePath(stored.path().toString());
+        return uf;
     }
 }
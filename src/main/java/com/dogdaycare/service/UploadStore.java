@@ -0,0 +1,250 @@
+package com.dogdaycare.service;
+
+import com.dogdaycare.model.UploadBlob;
+import com.dogdaycare.model.UploadedFile;
+import com.dogdaycare.repository.UploadBlobRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.StringUtils;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.*;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.UUID;
+
+/**
+ * Content-addressed storage for uploaded files under {@code file.upload-dir}.
+ *
+ * An upload is streamed through a fixed 64 KB buffer into a temp file while its SHA-256
+ * is computed and the size limit checked, so nothing larger than the buffer is held in
+ * heap. The body is then stored once per distinct content at
+ * {@code blobs/<sha[0..2]>/<sha[2..4]>/<sha>}; re-uploads of the same bytes only bump
+ * the blob's reference count ({@link UploadBlob}) and drop the temp file. Releasing the
+ * last reference removes the blob from disk after commit.
+ *
+ * Acquire and release both go through a conditional update of the blob row, whose row
+ * lock serializes them per blob until commit; the file itself is placed or moved aside
+ * while that lock is held, so a concurrent re-upload never ends up pointing at a blob
+ * that is being deleted.
+ */
+@Component
+public class UploadStore {
+
+    private static final Logger log = LoggerFactory.getLogger(UploadStore.class);
+
+    private static final int BUFFER_BYTES = 64 * 1024;
+
+    /** A stored upload, with the facts recorded on UploadedFile. */
+    public record StoredUpload(Path path, String originalFilename, String contentType, long sizeBytes, String sha256) {}
+
+    private final Path uploadDir;
+    private final Path blobDir;
+    private final long maxBytes;
+    private final UploadBlobRepository blobRepository;
+    private final Clock clock;
+
+    public UploadStore(@Value("${file.upload-dir}") String uploadDirProp,
+                       @Value("${upload.max-file-size:20MB}") DataSize maxFileSize,
+                       UploadBlobRepository blobRepository,
+                       Clock clock) throws IOException {
+        this.uploadDir = Paths.get(uploadDirProp).toAbsolutePath();
+        this.blobDir = uploadDir.resolve("blobs");
+        this.maxBytes = maxFileSize.toBytes();
+        this.blobRepository = blobRepository;
+        this.clock = clock;
+        Files.createDirectories(this.blobDir); // ensure exists
+    }
+
+    public long getMaxBytes() { return maxBytes; }
+
+    /** Sharded on-disk location of the blob with this content hash. */
+    public Path blobPath(String sha256) {
+        return blobDir.resolve(sha256.substring(0, 2)).resolve(sha256.substring(2, 4)).resolve(sha256);
+    }
+
+    /**
+     * Stores one multipart file (or adds a reference to identical stored content).
+     *
+     * @throws IllegalArgumentException if the file is missing/empty or larger than the limit
+     */
+    @Transactional
+    public StoredUpload store(MultipartFile file) throws IOException {
+        if (file == null || file.isEmpty()) {
+            throw new IllegalArgumentException("No file provided.");
+        }
+        if (file.getSize() > maxBytes) {
+            throw tooLarge();
+        }
+        String originalFilename = StringUtils.cleanPath(file.getOriginalFilename() == null ? "" : file.getOriginalFilename());
+        try (InputStream in = file.getInputStream()) {
+            return store(in, originalFilename, file.getContentType());
+        }
+    }
+
+    @Transactional
+    public StoredUpload store(InputStream in, String originalFilename, String contentType) throws IOException {
+        Path tmp = Files.createTempFile(uploadDir, "upload-", ".part");
+        try {
+            MessageDigest sha256 = sha256();
+            long size = 0;
+
+            try (ReadableByteChannel src = Channels.newChannel(in);
+                 FileChannel dst = FileChannel.open(tmp, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                ByteBuffer buf = ByteBuffer.allocate(BUFFER_BYTES);
+                while (src.read(buf) != -1) {
+                    buf.flip();
+                    size += buf.remaining();
+                    // Checked while streaming: the declared multipart size isn't always trustworthy
+                    if (size > maxBytes) throw tooLarge();
+
+                    sha256.update(buf.duplicate());
+                    while (buf.hasRemaining()) dst.write(buf);
+                    buf.clear();
+                }
+                dst.force(false);
+            }
+
+            String hash = HexFormat.of().formatHex(sha256.digest());
+            Path blob = acquire(hash, size, tmp);
+            return new StoredUpload(blob, originalFilename, contentType, size, hash);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    /**
+     * Drops one reference to the file behind {@code uf}; the blob is deleted from disk after
+     * commit once nothing references it. Files stored before content addressing (not shaped
+     * like a blob path) belong to their row alone and are deleted directly.
+     */
+    @Transactional
+    public void release(UploadedFile uf) throws IOException {
+        String hash = uf.getSha256();
+        Path stored = Paths.get(uf.getFilePath());
+
+        if (!isBlobPath(stored, hash)) {
+            Files.deleteIfExists(stored.toAbsolutePath());
+            return;
+        }
+        // Classified by shape, not by the absolute path, which changes if the upload dir moves
+        Path path = blobPath(hash);
+        if (blobRepository.adjustRefCount(hash, -1) == 0) {
+            log.warn("Upload blob {} had no references left to release", hash);
+        }
+        if (blobRepository.deleteIfUnreferenced(hash) == 1) {
+            moveAsideUntilCommit(path);
+        }
+    }
+
+    // blobs/<sha[0..2]>/<sha[2..4]>/<sha>, under whatever upload dir the row was written with
+    private static boolean isBlobPath(Path path, String hash) {
+        if (hash == null || hash.length() < 4 || path.getNameCount() < 4) return false;
+        int n = path.getNameCount();
+        return path.getName(n - 1).toString().equals(hash)
+                && path.getName(n - 2).toString().equals(hash.substring(2, 4))
+                && path.getName(n - 3).toString().equals(hash.substring(0, 2))
+                && path.getName(n - 4).toString().equals("blobs");
+    }
+
+    // Adds a reference to the blob (creating it from tmp if its file isn't on disk)
+    private Path acquire(String hash, long size, Path tmp) throws IOException {
+        // The row can vanish between insert and increment if its last reference is released
+        // concurrently; retry until the increment lands on a live row.
+        for (int attempt = 0; ; attempt++) {
+            blobRepository.insertIfAbsent(hash, size, LocalDateTime.now(clock));
+            if (blobRepository.adjustRefCount(hash, +1) == 1) break;
+            if (attempt >= 3) throw new IllegalStateException("Could not reference upload blob " + hash);
+        }
+
+        // Row lock held: the file is either present and kept, or missing and ours to place
+        Path blob = blobPath(hash);
+        if (!Files.exists(blob)) {
+            Files.createDirectories(blob.getParent());
+            moveIntoPlace(tmp, blob);
+            afterRollback(() -> Files.deleteIfExists(blob));
+        }
+        return blob;
+    }
+
+    // Renames the blob out of the way now; deletes it on commit or restores it on rollback
+    private void moveAsideUntilCommit(Path blob) throws IOException {
+        if (!Files.exists(blob)) return;
+        Path aside = blob.resolveSibling(blob.getFileName() + ".deleted-" + UUID.randomUUID());
+        Files.move(blob, aside, StandardCopyOption.ATOMIC_MOVE);
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            Files.deleteIfExists(aside);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                try {
+                    if (status == STATUS_COMMITTED) {
+                        Files.deleteIfExists(aside);
+                    } else {
+                        Files.move(aside, blob, StandardCopyOption.ATOMIC_MOVE);
+                    }
+                } catch (IOException e) {
+                    log.warn("Could not finish removing upload blob {}", blob, e);
+                }
+            }
+        });
+    }
+
+    private interface IoAction { void run() throws IOException; }
+
+    private static void afterRollback(IoAction action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) return;
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_ROLLED_BACK) return;
+                try {
+                    action.run();
+                } catch (IOException e) {
+                    log.warn("Could not clean up after a rolled-back upload", e);
+                }
+            }
+        });
+    }
+
+    private static void moveIntoPlace(Path tmp, Path target) throws IOException {
+        try {
+            Files.move(tmp, target, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private IllegalArgumentException tooLarge() {
+        String limit = (maxBytes >= DataSize.ofMegabytes(1).toBytes())
+                ? DataSize.ofBytes(maxBytes).toMegabytes() + " MB"
+                : maxBytes + " bytes";
+        return new IllegalArgumentException("File exceeds the " + limit + " limit.");
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
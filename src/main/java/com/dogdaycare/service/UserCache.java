@@ -0,0 +1,106 @@
+package com.dogdaycare.service;
+
+import com.dogdaycare.model.User;
+import com.dogdaycare.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * id → User for resolving the signed-in account on every request without a query.
+ *
+ * Entries are primed at login ({@link CustomUserDetailsService}) and looked up with the id
+ * carried by {@link CustomUserDetails}. Callers get their own detached copy, never the cached
+ * instance, so nothing a request does to it leaks into other requests. Entries expire after
+ * a TTL and the cache is bounded (LRU); account changes call {@link #invalidate(Long)}.
+ */
+@Component
+public class UserCache {
+
+    private record Entry(User user, long loadedAtNanos) {}
+
+    private final UserRepository userRepository;
+    private final int maxSize;
+    private final long ttlNanos;
+    private final LinkedHashMap<Long, Entry> entries;
+
+    public UserCache(UserRepository userRepository,
+                     @Value("${user.cache.max-size:1000}") int maxSize,
+                     @Value("${user.cache.ttl:PT10M}") Duration ttl) {
+        this.userRepository = userRepository;
+        this.maxSize = Math.max(1, maxSize);
+        this.ttlNanos = ttl.toNanos();
+        // access-order map => eldest entry is the least recently used
+        this.entries = new LinkedHashMap<>(64, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Entry> eldest) {
+                return size() > UserCache.this.maxSize;
+            }
+        };
+    }
+
+    /**
+     * The signed-in account. Principals from our login carry the id; any other principal
+     * (e.g. a remember-me or test user) is looked up by username once and cached by id.
+     *
+     * @throws NoSuchElementException if the account no longer exists
+     */
+    public User current(Authentication authentication) {
+        if (authentication != null && authentication.getPrincipal() instanceof CustomUserDetails details) {
+            return get(details.getUserId());
+        }
+        String username = (authentication != null) ? authentication.getName() : null;
+        User user = userRepository.findByUsername(username).orElseThrow();
+        put(user);
+        return copyOf(user);
+    }
+
+    /** @throws NoSuchElementException if no user has this id */
+    public User get(Long id) {
+        long now = System.nanoTime();
+        synchronized (entries) {
+            Entry e = entries.get(id);
+            if (e != null && now - e.loadedAtNanos() < ttlNanos) return copyOf(e.user());
+        }
+        User user = userRepository.findById(id).orElseThrow();
+        put(user);
+        return copyOf(user);
+    }
+
+    public void put(User user) {
+        if (user == null || user.getId() == null) return;
+        User snapshot = copyOf(user);
+        synchronized (entries) {
+            entries.put(snapshot.getId(), new Entry(snapshot, System.nanoTime()));
+        }
+    }
+
+    public void invalidate(Long id) {
+        if (id == null) return;
+        synchronized (entries) {
+            entries.remove(id);
+        }
+    }
+
+    public void invalidateAll() {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    // Detached copy with the same id; usable as an association target and in repository queries
+    private static User copyOf(User u) {
+        User c = new User();
+        c.setId(u.getId());
+        c.setUsername(u.getUsername());
+        c.setPassword(u.getPassword());
+        c.setRole(u.getRole());
+        c.setEnabled(u.isEnabled());
+        return c;
+    }
+}
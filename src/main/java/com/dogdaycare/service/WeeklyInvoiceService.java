@@ -0,0 +1,282 @@
+package com.dogdaycare.service;
+
+import com.dogdaycare.dto.InvoiceRowDto;
+import com.dogdaycare.dto.InvoiceSnapshotRow;
+import com.dogdaycare.model.Booking;
+import com.dogdaycare.model.BookingChangedEvent;
+import com.dogdaycare.model.InvoiceSnapshot;
+import com.dogdaycare.model.ServiceKind;
+import com.dogdaycare.model.User;
+import com.dogdaycare.repository.BookingRepository;
+import com.dogdaycare.repository.InvoiceSnapshotRepository;
+import com.dogdaycare.repository.InvoiceSnapshotWeekRepository;
+import com.dogdaycare.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Clock;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Admin weekly invoicing rows (one per customer with non-canceled bookings).
+ *
+ * Rows are read from {@link InvoiceSnapshot}, which holds each customer-week's current
+ * amount, paid-to-date and paid state. Snapshots are refreshed per customer-week after each
+ * transaction that changes bookings ({@link InvoiceSnapshotListener}); a week with no snapshot marker yet is built once from the
+ * booking table (streamed, one pass per customer) on first read.
+ */
+@Service
+public class WeeklyInvoiceService {
+
+    private final BookingRepository bookingRepository;
+    private final InvoiceSnapshotRepository snapshotRepository;
+    private final InvoiceSnapshotWeekRepository snapshotWeekRepository;
+    private final UserRepository userRepository;
+    private final PricingService pricingService;
+    private final CustomerProfileCache profileCache;
+    private final Clock clock;
+
+    // Our own proxy, so weeklyRows can open separate write and read-only transactions
+    @Autowired @Lazy
+    private WeeklyInvoiceService self;
+
+    public WeeklyInvoiceService(BookingRepository bookingRepository,
+                                InvoiceSnapshotRepository snapshotRepository,
+                                InvoiceSnapshotWeekRepository snapshotWeekRepository,
+                                UserRepository userRepository,
+                                PricingService pricingService,
+                                CustomerProfileCache profileCache,
+                                Clock clock) {
+        this.bookingRepository = bookingRepository;
+        this.snapshotRepository = snapshotRepository;
+        this.snapshotWeekRepository = snapshotWeekRepository;
+        this.userRepository = userRepository;
+        this.pricingService = pricingService;
+        this.profileCache = profileCache;
+        this.clock = clock;
+    }
+
+    /**
+     * Rows for the Mon–Sun week starting at {@code ws}, sorted by customer name. A week that
+     * was never built is built first in its own write transaction; the read itself is read-only.
+     */
+    public List<InvoiceRowDto> weeklyRows(LocalDate ws) {
+        if (!snapshotWeekRepository.existsById(ws)) {
+            self().rebuildWeek(ws);
+        }
+        return self().snapshotRows(ws);
+    }
+
+    @Transactional(readOnly = true)
+    public List<InvoiceRowDto> snapshotRows(LocalDate ws) {
+        // Snapshot and invoice columns in one projected query; nothing lands in the persistence context
+        List<InvoiceSnapshotRow> snapshots = snapshotRepository.findRowsByWeekStart(ws);
+        Map<String, CustomerProfileCache.Profile> profiles = profileCache.getAll(
+                snapshots.stream().map(InvoiceSnapshotRow::customerEmail).toList());
+
+        // Several user rows could share an email only in broken data; keep the first, like groupingBy did
+        Map<String, InvoiceRowDto> rows = new LinkedHashMap<>();
+        for (InvoiceSnapshotRow s : snapshots) {
+            String email = s.customerEmail();
+            var profile = profiles.getOrDefault(email, CustomerProfileCache.Profile.NONE);
+            boolean invoicePaid = Boolean.TRUE.equals(s.invoicePaid());
+
+            rows.putIfAbsent(email, new InvoiceRowDto(
+                    s.invoiceId(),
+                    profile.clientNameOr(email),
+                    email,
+                    profile.dogNameOr("N/A"),
+                    s.currentAmount().setScale(2, RoundingMode.HALF_UP),  // total
+                    invoicePaid && s.allDaysPaid(),                       // rowPaid
+                    s.paidToDate().setScale(2, RoundingMode.HALF_UP),     // previouslyPaidAmount
+                    s.deltaUnpaid().setScale(2, RoundingMode.HALF_UP),    // newSincePaid
+                    invoicePaid
+            ));
+        }
+
+        List<InvoiceRowDto> out = new ArrayList<>(rows.values());
+        out.sort(Comparator.comparing(InvoiceRowDto::getCustomerName, String.CASE_INSENSITIVE_ORDER));
+        return out;
+    }
+
+    // Not Spring-managed (benchmarks): no proxy, and no transactions to separate
+    private WeeklyInvoiceService self() {
+        return self != null ? self : this;
+    }
+
+    /**
+     * Refreshes the customer-weeks affected by committed booking changes, each once (see
+     * {@link InvoiceSnapshotListener}). Besides the booking's own week this covers the
+     * customer's existing snapshots whose price depends on it: the previous week for a
+     * Monday booking (Sunday boarding's pickup/next-night checks) and next month's weeks
+     * for boarding (prior-month boarding tier).
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void refreshChanged(Collection<BookingChangedEvent> events) {
+        // Sorted so concurrent refreshes take the snapshot row locks in the same order
+        affectedWeeks(events).forEach(w -> refresh(w.customerId(), w.weekStart()));
+    }
+
+    /** Drops the build markers of the weeks a failed refresh would have touched, so they are rebuilt on read. */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void markForRebuild(Collection<BookingChangedEvent> events) {
+        snapshotWeekRepository.deleteAllById(affectedWeeks(events).stream()
+                .map(CustomerWeek::weekStart)
+                .collect(Collectors.toCollection(TreeSet::new)));
+    }
+
+    private SortedSet<CustomerWeek> affectedWeeks(Collection<BookingChangedEvent> events) {
+        SortedSet<CustomerWeek> weeks = new TreeSet<>();
+        for (BookingChangedEvent event : events) {
+            LocalDate ws = event.date().with(DayOfWeek.MONDAY);
+            weeks.add(new CustomerWeek(event.customerId(), ws));
+
+            if (event.date().getDayOfWeek() == DayOfWeek.MONDAY) {
+                snapshotRepository.findByCustomerIdAndWeekStart(event.customerId(), ws.minusWeeks(1))
+                        .ifPresent(s -> weeks.add(new CustomerWeek(event.customerId(), s.getWeekStart())));
+            }
+            if (event.serviceKind().isBoarding()) {
+                YearMonth next = YearMonth.from(event.date()).plusMonths(1);
+                snapshotRepository.findByCustomerIdAndWeekStartBetween(event.customerId(),
+                                next.atDay(1).with(DayOfWeek.MONDAY), next.atEndOfMonth())
+                        .forEach(s -> weeks.add(new CustomerWeek(event.customerId(), s.getWeekStart())));
+            }
+        }
+        return weeks;
+    }
+
+    /**
+     * Recomputes one customer-week from the booking table. The snapshot row is locked before
+     * the bookings are read, so of two concurrent refreshes the later one sees both changes.
+     */
+    @Transactional
+    public void refresh(Long customerId, LocalDate ws) {
+        User customer = userRepository.findById(customerId).orElse(null);
+        if (customer == null || customer.getUsername() == null) return;
+
+        snapshotRepository.insertIfAbsent(customer.getId(), customer.getUsername(), ws, LocalDateTime.now(clock));
+        InvoiceSnapshot snapshot = snapshotRepository.lockByCustomerIdAndWeekStart(customerId, ws).orElseThrow();
+
+        List<Booking> bookings = bookingRepository.findActiveByCustomerAndDateBetween(customer, ws, ws.plusDays(6));
+        WeeklyPricingEngine boardingEngine = bookings.stream().anyMatch(b -> b.getServiceKind().isBoarding())
+                ? pricingService.engineFor(customer, ws)
+                : null;
+
+        store(customer, ws, totalsFor(bookings, boardingEngine), snapshot);
+    }
+
+    /** Builds every snapshot of a week from the booking table and marks the week as built. */
+    @Transactional
+    public void rebuildWeek(LocalDate ws) {
+        LocalDate we = ws.plusDays(6);
+
+        Map<Long, InvoiceSnapshot> existing = snapshotRepository.findByWeekStart(ws).stream()
+                .collect(Collectors.toMap(s -> s.getCustomer().getId(), Function.identity()));
+        Map<Long, WeeklyPricingEngine> boardingEngines =
+                pricingService.enginesFor(bookingRepository.findCustomerIdsWithActiveBoarding(ws, we), ws);
+
+        // Bookings arrive grouped by customer; only the current customer's bookings are held
+        try (Stream<Booking> stream = bookingRepository.streamActiveWithCustomerByDateBetween(ws, we)) {
+            User customer = null;
+            List<Booking> pending = new ArrayList<>();
+            for (Iterator<Booking> it = stream.iterator(); it.hasNext(); ) {
+                Booking b = it.next();
+                if (customer != null && !customer.getId().equals(b.getCustomer().getId())) {
+                    store(customer, ws, totalsFor(pending, boardingEngines.get(customer.getId())),
+                            existing.remove(customer.getId()));
+                    pending.clear();
+                }
+                customer = b.getCustomer();
+                pending.add(b);
+            }
+            if (customer != null) {
+                store(customer, ws, totalsFor(pending, boardingEngines.get(customer.getId())),
+                        existing.remove(customer.getId()));
+            }
+        }
+
+        // Customers that no longer have bookings this week
+        existing.values().forEach(s -> store(s.getCustomer(), ws, new CustomerTotals(), s));
+
+        snapshotWeekRepository.insertIfAbsent(ws, LocalDateTime.now(clock));
+    }
+
+    private void store(User customer, LocalDate ws, CustomerTotals t, InvoiceSnapshot snapshot) {
+        if (snapshot == null) {
+            snapshotRepository.insertIfAbsent(customer.getId(), customer.getUsername(), ws, LocalDateTime.now(clock));
+            snapshot = snapshotRepository.findByCustomerIdAndWeekStart(customer.getId(), ws).orElseThrow();
+        }
+        snapshot.setCustomerEmail(customer.getUsername());
+        snapshot.setCurrentAmount(t.current.setScale(2, RoundingMode.HALF_UP));
+        snapshot.setPaidToDate(t.paid.setScale(2, RoundingMode.HALF_UP));
+        snapshot.setAllDaysPaid(t.count > 0 && t.allDaysPaid);
+        snapshot.setBookingCount(t.count);
+        snapshot.setUpdatedAt(LocalDateTime.now(clock));
+    }
+
+    // One pass over a customer's week: current total, paid-to-date and whether every day is paid
+    private CustomerTotals totalsFor(List<Booking> bookings, WeeklyPricingEngine boardingEngine) {
+        // Week tier: daycare bookings (any band, incl. After Hours) in the week
+        boolean atLeast4 = bookings.stream()
+                .filter(b -> b.getServiceKind().isDaycare())
+                .count() >= 4;
+
+        CustomerTotals t = new CustomerTotals();
+        for (Booking b : bookings) {
+            BigDecimal amount = amountFor(b, atLeast4, boardingEngine);
+            t.count++;
+            t.current = t.current.add(amount);
+            if (b.isPaid()) {
+                t.paid = t.paid.add(amount);
+            } else {
+                t.allDaysPaid = false;
+            }
+        }
+        return t;
+    }
+
+    // Live (tier-aware) amount for one booking × dog count
+    private BigDecimal amountFor(Booking b, boolean atLeast4, WeeklyPricingEngine boardingEngine) {
+        int n = (b.getDogCount() != null ? b.getDogCount() : 1);
+        ServiceKind kind = b.getServiceKind();
+
+        BigDecimal perDog;
+        if (kind.isAfterHours()) {
+            perDog = new BigDecimal("90.00");
+        } else if (kind.isBoarding()) {
+            perDog = (boardingEngine != null) ? boardingEngine.priceFor(b) : pricingService.priceFor(b);
+        } else if (kind.isDaycare()) {
+            perDog = pricingService.quoteDaycareAtTier(b, atLeast4);
+        } else {
+            perDog = pricingService.priceFor(b);
+        }
+        return perDog.multiply(BigDecimal.valueOf(n));
+    }
+
+    private record CustomerWeek(Long customerId, LocalDate weekStart) implements Comparable<CustomerWeek> {
+        @Override
+        public int compareTo(CustomerWeek o) {
+            int c = customerId.compareTo(o.customerId);
+            return c != 0 ? c : weekStart.compareTo(o.weekStart);
+        }
+    }
+
+    private static final class CustomerTotals {
+        int count;
+        BigDecimal current = BigDecimal.ZERO;
+        BigDecimal paid = BigDecimal.ZERO;
+        boolean allDaysPaid = true;
+    }
+}
@@ -0,0 +1,224 @@
+package com.dogdaycare.service;
+
+import com.dogdaycare.model.Booking;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.*;
+
+/**
+ * Prices a customer's Mon–Sun week in memory.
+ *
+ * Built from data loaded once (see PricingService#engineFor):
+ *  - the customer's non-canceled bookings from Monday through the following Monday
+ *    (the extra day covers Sunday boarding's pickup/next-night checks), and
+ *  - prior-month boarding nights, keyed by the month being priced.
+ * Every rule that used to issue its own repository query (weekly prepay count,
+ * next-day boarding, pickup-day daycare) is answered from that snapshot.
+ */
+public final class WeeklyPricingEngine {
+
+    // --- Base immediate rates ---
+    static final BigDecimal DC_HALF_IMM = bd(50);
+    static final BigDecimal DC_FULL_IMM = bd(60);
+    static final BigDecimal DC_EXT_IMM  = bd(80);
+
+    // --- Daycare discounts (weekly prepay) ---
+    // 1–3 days prepay
+    static final BigDecimal DC_HALF_PREPAY_1_3 = bd(45);
+    static final BigDecimal DC_FULL_PREPAY_1_3 = bd(50);
+    static final BigDecimal DC_EXT_PREPAY_1_3  = bd(70);
+    // ≥4 days prepay
+    static final BigDecimal DC_HALF_PREPAY_4P = bd(40);
+    static final BigDecimal DC_FULL_PREPAY_4P = bd(45);
+    static final BigDecimal DC_EXT_PREPAY_4P  = bd(60);
+
+    // --- Boarding immediate + tiered (per-night) ---
+    static final BigDecimal BRD_PERNIGHT_IMM = bd(90);
+    static final BigDecimal BRD_PERNIGHT_T4  = bd(80); // ≥4 prior-month nights
+    static final BigDecimal BRD_PERNIGHT_T10 = bd(75); // ≥10 prior-month nights
+    static final BigDecimal BRD_PERNIGHT_T16 = bd(65); // ≥16 prior-month nights
+
+    // --- Daycare After Hours flat rate ---
+    static final BigDecimal DC_AFTER_HOURS = bd(90);
+
+    private static BigDecimal bd(double v) { return BigDecimal.valueOf(v); }
+
+    private final LocalDate weekStart;
+    private final LocalDate weekEnd;
+    private final List<Booking> weekBookings;           // Mon..Sun only
+    private final Map<YearMonth, Long> boardingNightsByMonth;
+
+    // Derived once from the snapshot
+    private final long prepayDaycareCount;
+    private final Set<LocalDate> boardingDates = new HashSet<>();
+    private final Set<LocalDate> regularDaycareDates = new HashSet<>();
+
+    /**
+     * @param anyDateInWeek         any date in the Mon–Sun week being priced
+     * @param activeBookings        the customer's non-canceled bookings, Monday..next Monday inclusive
+     * @param priorMonthBoardingNights non-canceled boarding nights per calendar month
+     *                              (must contain the month before every boarding date priced)
+     */
+    public WeeklyPricingEngine(LocalDate anyDateInWeek,
+                               List<Booking> activeBookings,
+                               Map<YearMonth, Long> priorMonthBoardingNights) {
+        this.weekStart = anyDateInWeek.with(DayOfWeek.MONDAY);
+        this.weekEnd = weekStart.plusDays(6);
+        this.boardingNightsByMonth = priorMonthBoardingNights != null ? priorMonthBoardingNights : Map.of();
+
+        List<Booking> inWeek = new ArrayList<>();
+        long prepay = 0;
+        for (Booking b : activeBookings) {
+            LocalDate d = b.getDate();
+            if (d == null) continue;
+
+            if (isBoarding(b)) boardingDates.add(d);
+            if (isDaycare(b) && !isAfterHours(b)) regularDaycareDates.add(d);
+
+            if (d.isBefore(weekStart) || d.isAfter(weekEnd)) continue;
+            inWeek.add(b);
+            if (isDaycare(b) && b.isWantsAdvancePay() && b.isAdvanceEligible()) prepay++;
+        }
+        this.weekBookings = Collections.unmodifiableList(inWeek);
+        this.prepayDaycareCount = prepay;
+    }
+
+    public LocalDate getWeekStart() { return weekStart; }
+    public LocalDate getWeekEnd() { return weekEnd; }
+
+    /** Customer's non-canceled Mon–Sun bookings this engine was built from. */
+    public List<Booking> getWeekBookings() { return weekBookings; }
+
+    /** Opted-in, advance-eligible daycare bookings in the week (drives the prepay tier). */
+    public long prepayDaycareCount() { return prepayDaycareCount; }
+
+    /** Per-dog price for every booking in the week, keyed by booking id, in one pass. */
+    public Map<Long, BigDecimal> priceWeek() {
+        Map<Long, BigDecimal> out = new LinkedHashMap<>();
+        for (Booking b : weekBookings) {
+            out.put(b.getId(), priceFor(b));
+        }
+        return out;
+    }
+
+    /** Per-dog price for one booking dated within this engine's week. */
+    public BigDecimal priceFor(Booking b) {
+        Optional<BigDecimal> fixed = contextFreePrice(b);
+        if (fixed.isPresent()) return fixed.get();
+
+        LocalDate d = b.getDate();
+        if (d == null || d.isBefore(weekStart) || d.isAfter(weekEnd)) {
+            throw new IllegalArgumentException("Booking date " + d + " is outside week " + weekStart);
+        }
+
+        if (isDaycare(b)) {
+            return quoteDaycareAtTier(b, prepayDaycareCount >= 4);
+        }
+        return priceBoarding(d);
+    }
+
+    /** Per-night price of a (possibly not yet booked) unlocked boarding night within this week. */
+    public BigDecimal quoteBoarding(LocalDate date) {
+        if (date == null || date.isBefore(weekStart) || date.isAfter(weekEnd)) {
+            throw new IllegalArgumentException("Boarding date " + date + " is outside week " + weekStart);
+        }
+        return priceBoarding(date);
+    }
+
+    /**
+     * Prices that don't depend on the rest of the week: locked quotes, After Hours,
+     * non-prepay daycare and unknown services. Empty means "needs the week snapshot".
+     */
+    static Optional<BigDecimal> contextFreePrice(Booking b) {
+        if (b == null || b.getCustomer() == null) return Optional.of(BigDecimal.ZERO);
+
+        // If we already locked a quote, prefer it (idempotent behavior)
+        if (b.getQuotedRateAtLock() != null) return Optional.of(b.getQuotedRateAtLock());
+
+        // Daycare After Hours is always flat $90 (no discount)
+        if (isAfterHours(b)) return Optional.of(DC_AFTER_HOURS.setScale(2, RoundingMode.HALF_UP));
+
+        if (isDaycare(b)) {
+            // If not in advance or not opted in, immediate rates
+            boolean qualifies = b.isAdvanceEligible() && b.isWantsAdvancePay();
+            if (qualifies) return Optional.empty();
+            if (isHalfDay(b)) return Optional.of(DC_HALF_IMM);
+            if (isFullDay(b)) return Optional.of(DC_FULL_IMM);
+            return Optional.of(DC_FULL_IMM); // default to full for safety
+        }
+        if (isBoarding(b)) return Optional.empty();
+        return Optional.of(BigDecimal.ZERO);
+    }
+
+    private BigDecimal priceBoarding(LocalDate date) {
+        // Prior-month boarding nights determine current per-night price
+        long nights = boardingNightsByMonth.getOrDefault(YearMonth.from(date).minusMonths(1), 0L);
+
+        BigDecimal nightly;
+        if (nights >= 16) nightly = BRD_PERNIGHT_T16;
+        else if (nights >= 10) nightly = BRD_PERNIGHT_T10;
+        else if (nights >= 4) nightly = BRD_PERNIGHT_T4;
+        else nightly = BRD_PERNIGHT_IMM;
+
+        LocalDate next = date.plusDays(1);
+
+        // Last-of-block if there is NO boarding the next day
+        boolean isLastOfBlock = !boardingDates.contains(next);
+
+        // If pickup day (date+1) has a regular daycare (not After Hours), do NOT add the half-day
+        boolean pickupDayHasDaycare = regularDaycareDates.contains(next);
+
+        BigDecimal price = nightly; // default
+        if (isLastOfBlock && !pickupDayHasDaycare) {
+            price = nightly.multiply(BigDecimal.valueOf(1.5));
+        }
+
+        return price.setScale(2, RoundingMode.HALF_UP);
+    }
+
+    /**
+     * Return the daycare price for this booking at a specific tier.
+     * @param atLeast4 true => use ≥4 prepay tier, false => use 1–3 prepay tier
+     */
+    static BigDecimal quoteDaycareAtTier(Booking b, boolean atLeast4) {
+        // half vs full bands (6–3 vs 6–8)
+        if (atLeast4) {
+            if (isHalfDay(b)) return DC_HALF_PREPAY_4P;
+            if (isFullDay(b)) return DC_FULL_PREPAY_4P;
+            return DC_EXT_PREPAY_4P;
+        } else {
+            if (isHalfDay(b)) return DC_HALF_PREPAY_1_3;
+            if (isFullDay(b)) return DC_FULL_PREPAY_1_3;
+            return DC_EXT_PREPAY_1_3;
+        }
+    }
+
+    // ---------- service classification ----------
+
+    // Resolved once per booking (Booking.serviceKind), so none of these touch the label string
+
+    static boolean isDaycare(Booking b) {
+        return b.getServiceKind().isDaycare();
+    }
+
+    static boolean isBoarding(Booking b) {
+        return b.getServiceKind().isBoarding();
+    }
+
+    // "Daycare After Hours (6 AM - 11 PM)"
+    static boolean isAfterHours(Booking b) {
+        return b.getServiceKind().isAfterHours();
+    }
+
+    static boolean isHalfDay(Booking b) {
+        return b.getServiceKind().isHalfDay();
+    }
+
+    static boolean isFullDay(Booking b) {
+        return b.getServiceKind().isFullDay(); // 6 AM - 8 PM is the “full-day” band
+    }
+}
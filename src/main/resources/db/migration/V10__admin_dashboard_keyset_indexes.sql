@@ -0,0 +1,9 @@
+-- Admin dashboard lists page by id (keyset) instead of loading whole tables.
+
+-- Evaluations tab: pending rows plus ones created in the last few days, newest first
+CREATE INDEX IF NOT EXISTS idx_evaluation_request_pending ON public.evaluation_request (id) WHERE approved = false;
+CREATE INDEX IF NOT EXISTS idx_evaluation_request_created ON public.evaluation_request (created_at);
+
+-- Uploads tab search: lower(username) LIKE 'prefix%'. text_pattern_ops makes the prefix match
+-- indexable regardless of the database collation.
+CREATE INDEX IF NOT EXISTS idx_users_username_lower ON public.users (lower(username) text_pattern_ops);
@@ -0,0 +1,14 @@
+-- Admin typeahead (/admin/search): substring search over usernames and evaluation
+-- email / client name / dog name. pg_trgm GIN indexes serve lower(col) LIKE '%q%'.
+-- Creating the extension needs a role allowed to do so (owner or superuser on managed Postgres).
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX IF NOT EXISTS idx_users_username_trgm
+    ON public.users USING gin (lower(username) gin_trgm_ops);
+
+CREATE INDEX IF NOT EXISTS idx_evaluation_request_email_trgm
+    ON public.evaluation_request USING gin (lower(email) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_evaluation_request_client_name_trgm
+    ON public.evaluation_request USING gin (lower(client_name) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_evaluation_request_dog_name_trgm
+    ON public.evaluation_request USING gin (lower(dog_name) gin_trgm_ops);
@@ -0,0 +1,25 @@
+-- Service classification resolved once per booking (ServiceKind) instead of
+-- lower(service_type) LIKE '%daycare%' in every query and loop. Same rules as ServiceKind.of.
+ALTER TABLE public.booking ADD COLUMN IF NOT EXISTS service_kind VARCHAR(24);
+
+UPDATE public.booking SET service_kind = CASE
+    WHEN lower(service_type) LIKE '%daycare%' AND (lower(service_type) LIKE '%after hours%'
+                                                   OR service_type LIKE '%6 AM - 11 PM%') THEN 'DAYCARE_AFTER_HOURS'
+    WHEN lower(service_type) LIKE '%daycare%' AND service_type LIKE '%6 AM - 3 PM%'      THEN 'DAYCARE_HALF_DAY'
+    WHEN lower(service_type) LIKE '%daycare%' AND service_type LIKE '%8 PM%'             THEN 'DAYCARE_FULL_DAY'
+    WHEN lower(service_type) LIKE '%daycare%'                                            THEN 'DAYCARE_OTHER'
+    WHEN lower(service_type) LIKE '%boarding%'                                           THEN 'BOARDING'
+    ELSE 'OTHER'
+END
+WHERE service_kind IS NULL;
+
+ALTER TABLE public.booking ALTER COLUMN service_kind SET DEFAULT 'OTHER';
+ALTER TABLE public.booking ALTER COLUMN service_kind SET NOT NULL;
+ALTER TABLE public.booking ADD CONSTRAINT chk_booking_service_kind CHECK (service_kind IN
+    ('DAYCARE_HALF_DAY', 'DAYCARE_FULL_DAY', 'DAYCARE_AFTER_HOURS', 'DAYCARE_OTHER', 'BOARDING', 'OTHER'));
+
+-- Per-customer kind filters (weekly daycare bundle, prior-month boarding nights): equality + date range
+CREATE INDEX IF NOT EXISTS idx_booking_user_kind_date ON public.booking (user_id, service_kind, date);
+
+-- Date-range aggregates by kind (capacity reconcile, boarding customers for invoicing)
+CREATE INDEX IF NOT EXISTS idx_booking_date_kind ON public.booking (date, service_kind);
@@ -0,0 +1,24 @@
+-- Booking status becomes a BookingStatus enum name. Normalize what the app used to accept
+-- case-insensitively: NULL and unknown values were treated as active, so they become APPROVED.
+UPDATE public.booking SET status = upper(trim(status)) WHERE status IS NOT NULL;
+UPDATE public.booking SET status = 'APPROVED'
+WHERE status IS NULL OR status NOT IN ('PENDING', 'APPROVED', 'CANCELED');
+
+ALTER TABLE public.booking ALTER COLUMN status SET DEFAULT 'APPROVED';
+ALTER TABLE public.booking ALTER COLUMN status SET NOT NULL;
+ALTER TABLE public.booking ADD CONSTRAINT chk_booking_status CHECK (status IN ('PENDING', 'APPROVED', 'CANCELED'));
+
+-- Active-only partial indexes. Queries spell the predicate as status <> 'CANCELED' so the planner
+-- can match it; the old COALESCE(UPPER(status), '') form could only serve expressions written the same way.
+DROP INDEX IF EXISTS public.uniq_booking_active_per_day;
+CREATE UNIQUE INDEX IF NOT EXISTS uniq_booking_active_per_day
+    ON public.booking (user_id, date)
+    WHERE status <> 'CANCELED';
+
+DROP INDEX IF EXISTS public.idx_booking_date_kind;
+CREATE INDEX IF NOT EXISTS idx_booking_active_date_kind
+    ON public.booking (date, service_kind)
+    WHERE status <> 'CANCELED';
+
+-- Superseded: every status-filtered scan is an active scan, served by the partial indexes above
+DROP INDEX IF EXISTS public.idx_booking_user_date_status;
@@ -0,0 +1,3 @@
+-- Per-customer compliance refresh (DocumentComplianceService#refresh) sums one customer's
+-- uploads by expiration_date; V9 only indexed expiration_date on its own.
+CREATE INDEX IF NOT EXISTS idx_uploaded_file_user_expiration ON public.uploaded_file (user_id, expiration_date);
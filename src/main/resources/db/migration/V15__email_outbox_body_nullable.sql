@@ -0,0 +1,3 @@
+-- Bodies are cleared once a row is SENT or FAILED, so delivered text (and anything
+-- sensitive in it) does not linger in the outbox.
+ALTER TABLE public.email_outbox ALTER COLUMN body DROP NOT NULL;
@@ -0,0 +1,5 @@
+-- Admin Uploads tab "expired"/"expiring" filters page customers by status, keyset on
+-- customer_id; the composite index serves both and covers V9's status-only index.
+CREATE INDEX IF NOT EXISTS idx_customer_document_status_status_customer
+    ON public.customer_document_status (status, customer_id);
+DROP INDEX IF EXISTS idx_customer_document_status_status;
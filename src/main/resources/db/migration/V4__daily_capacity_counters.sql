@@ -0,0 +1,28 @@
+-- Materialized per-day capacity counters (replaces full-day booking scans for capacity checks).
+-- Counts are of non-canceled bookings; emergency_used mirrors emergency_allocation rows.
+
+CREATE TABLE IF NOT EXISTS public.daily_capacity (
+    date           DATE    PRIMARY KEY,
+    daycare        INTEGER NOT NULL DEFAULT 0,
+    boarding       INTEGER NOT NULL DEFAULT 0,
+    emergency_used INTEGER NOT NULL DEFAULT 0
+);
+
+-- Backfill from existing bookings (same classification as BookingLimitService)
+INSERT INTO public.daily_capacity (date, daycare, boarding, emergency_used)
+SELECT b.date,
+       COUNT(*) FILTER (WHERE LOWER(b.service_type) LIKE '%daycare%'),
+       COUNT(*) FILTER (WHERE LOWER(b.service_type) NOT LIKE '%daycare%'
+                          AND LOWER(b.service_type) LIKE '%boarding%'),
+       0
+FROM public.booking b
+WHERE b.date IS NOT NULL
+  AND COALESCE(UPPER(b.status), '') <> 'CANCELED'
+GROUP BY b.date
+ON CONFLICT (date) DO NOTHING;
+
+INSERT INTO public.daily_capacity (date, daycare, boarding, emergency_used)
+SELECT ea.date, 0, 0, COUNT(*)
+FROM public.emergency_allocation ea
+GROUP BY ea.date
+ON CONFLICT (date) DO UPDATE SET emergency_used = EXCLUDED.emergency_used;
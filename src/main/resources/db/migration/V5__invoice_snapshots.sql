@@ -0,0 +1,23 @@
+-- Precomputed weekly invoicing figures per customer-week, refreshed on booking changes.
+-- Weeks are built lazily from the booking table on first read (see invoice_snapshot_week),
+-- so existing bookings need no SQL backfill.
+
+CREATE TABLE IF NOT EXISTS public.invoice_snapshot (
+    id             BIGSERIAL      PRIMARY KEY,
+    customer_id    BIGINT         NOT NULL REFERENCES public.users (id) ON DELETE CASCADE,
+    customer_email VARCHAR(255)   NOT NULL,
+    week_start     DATE           NOT NULL,
+    current_amount NUMERIC(12, 2) NOT NULL DEFAULT 0,
+    paid_to_date   NUMERIC(12, 2) NOT NULL DEFAULT 0,
+    all_days_paid  BOOLEAN        NOT NULL DEFAULT FALSE,
+    booking_count  INTEGER        NOT NULL DEFAULT 0,
+    updated_at     TIMESTAMP      NOT NULL,
+    CONSTRAINT uk_invoice_snapshot_customer_week UNIQUE (customer_id, week_start)
+);
+
+CREATE INDEX IF NOT EXISTS idx_invoice_snapshot_week ON public.invoice_snapshot (week_start);
+
+CREATE TABLE IF NOT EXISTS public.invoice_snapshot_week (
+    week_start DATE      PRIMARY KEY,
+    built_at   TIMESTAMP NOT NULL
+);
@@ -0,0 +1,19 @@
+-- Outbound email queue: rows are written on the request thread and sent in the background
+-- by EmailOutboxDispatcher (retry with backoff; FAILED after email.outbox.max-attempts).
+
+CREATE TABLE IF NOT EXISTS public.email_outbox (
+    id               BIGSERIAL     PRIMARY KEY,
+    recipient        VARCHAR(255)  NOT NULL,
+    subject          VARCHAR(255)  NOT NULL,
+    body             TEXT          NOT NULL,
+    attachment_paths TEXT,
+    status           VARCHAR(16)   NOT NULL DEFAULT 'PENDING',
+    attempts         INTEGER       NOT NULL DEFAULT 0,
+    next_attempt_at  TIMESTAMP     NOT NULL,
+    last_error       VARCHAR(1000),
+    created_at       TIMESTAMP     NOT NULL,
+    sent_at          TIMESTAMP,
+    CONSTRAINT chk_email_outbox_status CHECK (status IN ('PENDING', 'SENDING', 'SENT', 'FAILED'))
+);
+
+CREATE INDEX IF NOT EXISTS idx_email_outbox_due ON public.email_outbox (status, next_attempt_at);
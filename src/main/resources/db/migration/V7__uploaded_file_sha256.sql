@@ -0,0 +1,6 @@
+-- Content hash recorded by the streaming upload store (duplicate detection).
+-- Existing rows keep NULL; they were stored before hashing.
+
+ALTER TABLE public.uploaded_file ADD COLUMN IF NOT EXISTS sha256 VARCHAR(64);
+
+CREATE INDEX IF NOT EXISTS idx_uploaded_file_sha256 ON public.uploaded_file (sha256);
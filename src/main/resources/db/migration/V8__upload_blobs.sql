@@ -0,0 +1,10 @@
+-- Content-addressed upload storage: one row per distinct file body, reference-counted by
+-- uploaded_file rows whose file_path points into the blobs/ directory. Files stored before
+-- this (one copy per row) keep their own paths and are deleted with their row as before.
+
+CREATE TABLE IF NOT EXISTS public.upload_blob (
+    sha256     VARCHAR(64) PRIMARY KEY,
+    size_bytes BIGINT      NOT NULL,
+    ref_count  INTEGER     NOT NULL DEFAULT 0 CHECK (ref_count >= 0),
+    created_at TIMESTAMP   NOT NULL
+);
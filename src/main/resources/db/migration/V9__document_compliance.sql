@@ -0,0 +1,19 @@
+-- Admin Uploads tab "expired" / "expiring" filters range-scan expiration_date.
+CREATE INDEX IF NOT EXISTS idx_uploaded_file_expiration ON public.uploaded_file (expiration_date);
+
+-- Per-customer document compliance, precomputed by DocumentComplianceJob (nightly) and on
+-- upload changes, so status checks read one row instead of scanning uploaded_file.
+-- No backfill: the job's first run (or the customer's next upload) fills it in.
+CREATE TABLE IF NOT EXISTS public.customer_document_status (
+    customer_id     BIGINT      PRIMARY KEY REFERENCES public.users (id) ON DELETE CASCADE,
+    status          VARCHAR(16) NOT NULL DEFAULT 'NONE',
+    document_count  INTEGER     NOT NULL DEFAULT 0,
+    expired_count   INTEGER     NOT NULL DEFAULT 0,
+    expiring_count  INTEGER     NOT NULL DEFAULT 0,
+    next_expiration DATE,
+    as_of           DATE        NOT NULL,
+    computed_at     TIMESTAMP   NOT NULL,
+    CONSTRAINT chk_customer_document_status CHECK (status IN ('NONE', 'VALID', 'EXPIRING', 'EXPIRED'))
+);
+
+CREATE INDEX IF NOT EXISTS idx_customer_document_status_status ON public.customer_document_status (status);
@@ -9,22 +9,56 @@ function formatCurrency(n) {
 }
 function toISODate(d) { return new Date(d.getTime() - d.getTimezoneOffset()*60000).toISOString().slice(0,10); }
 
+// Capacity snapshots by ISO date, filled two weeks at a time (one request per window).
+// Entries go stale after CAPACITY_TTL_MS (customers book concurrently) and are dropped when
+// the page comes back from the bfcache. Admin booking actions are full-page POSTs, so they
+// start from an empty cache anyway.
+const CAPACITY_TTL_MS = 60 * 1000;
+const capacityCache = new Map(); // iso -> { counts, fetchedAt }
+
+function invalidateCapacityCache() { capacityCache.clear(); }
+
+function cachedCapacity(iso) {
+    const entry = capacityCache.get(iso);
+    if (!entry) return null;
+    if (Date.now() - entry.fetchedAt > CAPACITY_TTL_MS) {
+        capacityCache.delete(iso);
+        return null;
+    }
+    return entry.counts;
+}
+
+async function loadCapacityWindow(dateObj) {
+    const monday = setWeekStartFromDate(dateObj);
+    const end = new Date(monday);
+    end.setDate(monday.getDate() + 13);
+
+    const res = await fetch(`/admin/bookings/capacity/range?start=${toISODate(monday)}&end=${toISODate(end)}`, {
+        headers: { 'Accept': 'application/json' }
+    });
+    if (!res.ok) return;
+
+    const byDate = await res.json();
+    const fetchedAt = Date.now();
+    Object.entries(byDate).forEach(([iso, counts]) => capacityCache.set(iso, { counts, fetchedAt }));
+}
+
 async function fetchCapacityRibbonFor(dateObj) {
     // 0) Only update when the Bookings tab is active and the ribbon exists
     const ribbon = document.getElementById('capacityRibbon');
     const bookingsPaneActive = document.querySelector('#bookings.tab-pane.active.show');
     if (!ribbon || !bookingsPaneActive) return;
 
-    // 1) Fetch
+    // 1) Fetch (from the cached window when possible)
     const iso = toISODate(dateObj);
     if (!iso) return;
 
-    const res = await fetch(`/admin/bookings/capacity?date=${iso}`, {
-        headers: { 'Accept': 'application/json' }
-    });
-    if (!res.ok) return;
-
-    const c = await res.json();
+    let c = cachedCapacity(iso);
+    if (!c) {
+        await loadCapacityWindow(dateObj);
+        c = cachedCapacity(iso);
+    }
+    if (!c) return;
 
     // 2) Setter helper (no-throw if element is missing)
     const set = (id, v) => {
@@ -369,6 +403,13 @@ document.addEventListener("DOMContentLoaded", () => {
     fetchWeeklyInvoices();
 });
 
+// Back/forward restores the page with its old in-memory cache; refetch the visible day
+window.addEventListener('pageshow', e => {
+    if (!e.persisted) return;
+    invalidateCapacityCache();
+    fetchCapacityRibbonFor(currentBookingDate);
+});
+
 // Reusable helper: persistent Bootstrap Collapse with button label swap
 // opts: { collapseId, buttonId, storageKey, applyOnMaxWidth (number or null) }
 window.setupPersistentCollapse = function(opts){
@@ -0,0 +1,93 @@
+package com.dogdaycare.it;
+
+import com.dogdaycare.controller.AdminBookingController;
+import com.dogdaycare.dto.BookingRowDto;
+import com.dogdaycare.model.Booking;
+import com.dogdaycare.model.BookingStatus;
+import com.dogdaycare.model.User;
+import com.dogdaycare.repository.BookingRepository;
+import com.dogdaycare.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+class AdminBookingsLiveAmountIntegrationTest {
+
+    @Autowired AdminBookingController adminBookingController;
+    @Autowired BookingRepository bookingRepo;
+    @Autowired UserRepository userRepo;
+
+    // Wed 2025-04-09 in week Mon 2025-04-07
+    private final LocalDate monday = LocalDate.of(2025, 4, 7);
+    private final LocalDate day = monday.plusDays(2);
+
+    @BeforeEach
+    void setup() {
+        bookingRepo.deleteAll();
+        userRepo.deleteAll();
+    }
+
+    private User user(String email) {
+        User u = new User();
+        u.setUsername(email);
+        u.setPassword("{noop}pw");
+        u.setRole("CUSTOMER");
+        u.setEnabled(true);
+        return userRepo.save(u);
+    }
+
+    private Booking book(User u, LocalDate date, String serviceType, BookingStatus status, int dogs) {
+        Booking b = new Booking();
+        b.setCustomer(u);
+        b.setDate(date);
+        b.setTime(LocalTime.of(8, 0));
+        b.setServiceType(serviceType);
+        b.setStatus(status);
+        b.setDogCount(dogs);
+        return bookingRepo.save(b);
+    }
+
+    @Test
+    void liveAmounts_areTierAwarePerCustomer() {
+        User regular = user("regular@example.com");
+        User occasional = user("occasional@example.com");
+        User boarder = user("boarder@example.com");
+
+        // 4 non-canceled daycare days this week => ≥4 tier; a canceled one doesn't count for 'occasional'
+        for (int i = 0; i < 4; i++) book(regular, monday.plusDays(i), "Daycare (6 AM - 3 PM)", BookingStatus.APPROVED, 1);
+        book(occasional, day, "Daycare (6 AM - 8 PM)", BookingStatus.APPROVED, 2);
+        book(occasional, monday, "Daycare (6 AM - 8 PM)", BookingStatus.CANCELED, 1);
+        book(occasional, monday.plusDays(1), "Daycare (6 AM - 8 PM)", BookingStatus.APPROVED, 1);
+        book(occasional, monday.plusDays(3), "Daycare (6 AM - 8 PM)", BookingStatus.APPROVED, 1);
+
+        // Boarding Tue+Wed: Wed is last of block with no pickup-day daycare => 1.5 × 90
+        book(boarder, monday.plusDays(1), "Boarding", BookingStatus.APPROVED, 1);
+        book(boarder, day, "Boarding", BookingStatus.APPROVED, 1);
+        book(boarder, day, "Daycare After Hours (6 AM - 11 PM)", BookingStatus.APPROVED, 1);
+
+        List<BookingRowDto> rows = adminBookingController.getBookingsByDate(day);
+        Map<String, List<BigDecimal>> byEmail = rows.stream().collect(Collectors.groupingBy(
+                BookingRowDto::getCustomerEmail,
+                Collectors.mapping(BookingRowDto::getLiveAmount, Collectors.toList())));
+
+        assertThat(byEmail.get("regular@example.com")).containsExactly(new BigDecimal("40.00"));
+        assertThat(byEmail.get("occasional@example.com")).containsExactly(new BigDecimal("100.00"));
+        assertThat(byEmail.get("boarder@example.com"))
+                .containsExactlyInAnyOrder(new BigDecimal("135.00"), new BigDecimal("90.00"));
+    }
+}
@@ -0,0 +1,217 @@
+package com.dogdaycare.it;
+
+import com.dogdaycare.model.EvaluationRequest;
+import com.dogdaycare.model.UploadedFile;
+import com.dogdaycare.model.User;
+import com.dogdaycare.repository.BookingRepository;
+import com.dogdaycare.repository.CustomerDocumentStatusRepository;
+import com.dogdaycare.repository.EvaluationRepository;
+import com.dogdaycare.repository.FileRepository;
+import com.dogdaycare.repository.UploadBlobRepository;
+import com.dogdaycare.repository.UserRepository;
+import com.dogdaycare.service.DocumentComplianceService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.servlet.ModelAndView;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@Transactional
+@WithMockUser(username = "admin", roles = "ADMIN")
+class AdminDashboardIntegrationTest {
+
+    @Autowired MockMvc mvc;
+    @Autowired EvaluationRepository evalRepo;
+    @Autowired BookingRepository bookingRepo;
+    @Autowired FileRepository fileRepo;
+    @Autowired UploadBlobRepository blobRepo;
+    @Autowired UserRepository userRepo;
+    @Autowired CustomerDocumentStatusRepository statusRepo;
+    @Autowired DocumentComplianceService complianceService;
+
+    @BeforeEach
+    void setup() {
+        statusRepo.deleteAll();
+        evalRepo.deleteAll();
+        bookingRepo.deleteAll();
+        fileRepo.deleteAll();
+        blobRepo.deleteAll();
+        userRepo.deleteAll();
+    }
+
+    private User customer(String email) {
+        User u = new User();
+        u.setUsername(email);
+        u.setPassword("{noop}pw");
+        u.setRole("CUSTOMER");
+        u.setEnabled(true);
+        return userRepo.save(u);
+    }
+
+    private UploadedFile upload(User owner) {
+        return upload(owner, null);
+    }
+
+    private UploadedFile upload(User owner, LocalDate expires) {
+        UploadedFile f = new UploadedFile();
+        f.setUser(owner);
+        f.setFileName("vaccines.pdf");
+        f.setFilePath("/nonexistent/vaccines.pdf");
+        f.setExpirationDate(expires);
+        f = fileRepo.save(f);
+        complianceService.refresh(owner.getId());
+        return f;
+    }
+
+    private EvaluationRequest eval(String email, boolean approved, LocalDateTime createdAt) {
+        EvaluationRequest e = new EvaluationRequest();
+        e.setEmail(email);
+        e.setClientName("Client");
+        e.setPhone("555-555-5555");
+        e.setDogName("Rex");
+        e.setDogBreed("Mutt");
+        e.setApproved(approved);
+        e.setCreatedAt(createdAt);
+        return evalRepo.save(e);
+    }
+
+    private ModelAndView dashboard(String... params) throws Exception {
+        var req = get("/admin");
+        for (int i = 0; i < params.length; i += 2) req = req.param(params[i], params[i + 1]);
+        return mvc.perform(req).andExpect(status().isOk()).andReturn().getModelAndView();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> List<T> list(ModelAndView mv, String name) {
+        return (List<T>) mv.getModel().get(name);
+    }
+
+    @Test
+    void evaluations_showPendingAndRecent_newestFirst() throws Exception {
+        LocalDateTime now = LocalDateTime.now();
+        EvaluationRequest pendingOld = eval("old-pending@example.com", false, now.minusDays(30));
+        eval("old-approved@example.com", true, now.minusDays(30));
+        EvaluationRequest recentApproved = eval("recent@example.com", true, now.minusHours(2));
+
+        List<EvaluationRequest> evaluations = list(dashboard(), "evaluations");
+        assertThat(evaluations).extracting(EvaluationRequest::getId)
+                .containsExactly(recentApproved.getId(), pendingOld.getId());
+    }
+
+    @Test
+    void userLists_pageByKeyset() throws Exception {
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 55; i++) {
+            User c = customer(String.format("c%02d@example.com", i));
+            upload(c);
+            ids.add(c.getId());
+        }
+
+        ModelAndView first = dashboard();
+        assertThat(list(first, "users")).hasSize(50);
+        Long next = (Long) first.getModel().get("nextUsersAfter");
+        assertThat(next).isEqualTo(ids.get(49));
+
+        ModelAndView second = dashboard("usersAfter", next.toString());
+        assertThat(list(second, "users")).extracting(u -> ((User) u).getId()).containsExactlyElementsOf(ids.subList(50, 55));
+        assertThat(second.getModel().get("nextUsersAfter")).isNull();
+
+        // Uploads tab pages customers the same way
+        assertThat(list(first, "uploadUsers")).hasSize(50);
+        assertThat(first.getModel().get("nextUploadsAfter")).isEqualTo(ids.get(49));
+    }
+
+    @Test
+    void uploadsTab_pagesOnlyCustomersWithUploads() throws Exception {
+        // A full page of customers without files must not hide the ones that have some
+        for (int i = 0; i < 60; i++) customer(String.format("nofiles%02d@example.com", i));
+        User withFiles = customer("files@example.com");
+        upload(withFiles);
+
+        ModelAndView mv = dashboard("openTab", "uploads");
+        assertThat(list(mv, "uploadUsers")).extracting(u -> ((User) u).getId()).containsExactly(withFiles.getId());
+        assertThat(mv.getModel().get("nextUploadsAfter")).isNull();
+        // The Users tab still lists everyone
+        assertThat(list(mv, "users")).hasSize(50);
+    }
+
+    @Test
+    void expiryFilters_pageCustomersByComplianceStatus() throws Exception {
+        LocalDate today = LocalDate.now();
+        List<Long> expiredIds = new ArrayList<>();
+        for (int i = 0; i < 52; i++) {
+            User c = customer(String.format("expired%02d@example.com", i));
+            upload(c, today.minusDays(1));
+            expiredIds.add(c.getId());
+        }
+        User bob = customer("bob@example.com");
+        UploadedFile bobsExpired = upload(bob, today.minusDays(3));
+        UploadedFile bobsExpiring = upload(bob, today.plusDays(10));
+        upload(bob, today.plusDays(100));
+        expiredIds.add(bob.getId());
+        User expiring = customer("soon@example.com");
+        upload(expiring, today.plusDays(5));
+        upload(customer("valid@example.com"), today.plusDays(100));
+
+        ModelAndView mv = dashboard("filter", "expired", "openTab", "uploads");
+        assertThat(list(mv, "uploadUsers")).extracting(u -> ((User) u).getId())
+                .containsExactlyElementsOf(expiredIds.subList(0, 50));
+        assertThat(mv.getModel().get("nextUploadsAfter")).isEqualTo(expiredIds.get(49));
+
+        mv = dashboard("filter", "expired", "openTab", "uploads", "uploadsAfter", expiredIds.get(49).toString());
+        assertThat(list(mv, "uploadUsers")).extracting(u -> ((User) u).getId())
+                .containsExactlyElementsOf(expiredIds.subList(50, 53));
+
+        // Only the page's matching files are loaded
+        mv = dashboard("filter", "expired", "q", "BO", "openTab", "uploads");
+        assertThat(list(mv, "uploadUsers")).extracting(u -> ((User) u).getId()).containsExactly(bob.getId());
+        @SuppressWarnings("unchecked")
+        var byUser = (Map<Long, List<UploadedFile>>) mv.getModel().get("byUser");
+        assertThat(byUser.get(bob.getId())).extracting(UploadedFile::getId).containsExactly(bobsExpired.getId());
+
+        mv = dashboard("filter", "expiring", "openTab", "uploads");
+        assertThat(list(mv, "uploadUsers")).extracting(u -> ((User) u).getId())
+                .containsExactly(bob.getId(), expiring.getId());
+        byUser = (Map<Long, List<UploadedFile>>) mv.getModel().get("byUser");
+        assertThat(byUser.get(bob.getId())).extracting(UploadedFile::getId).containsExactly(bobsExpiring.getId());
+    }
+
+    @Test
+    void uploadsSearch_matchesUsernamePrefix_caseInsensitively() throws Exception {
+        User alice = customer("Alice@example.com");
+        upload(alice);
+        upload(customer("malice@example.com"));
+        User underscore = customer("a_b@example.com");
+        upload(underscore);
+        upload(customer("axb@example.com"));
+        customer("alfie@example.com"); // matches "al" but has no uploads
+
+        List<User> found = list(dashboard("q", "ALI", "openTab", "uploads"), "uploadUsers");
+        assertThat(found).extracting(User::getId).containsExactly(alice.getId());
+
+        // LIKE wildcards in q are literal
+        found = list(dashboard("q", "a_", "openTab", "uploads"), "uploadUsers");
+        assertThat(found).extracting(User::getId).containsExactly(underscore.getId());
+
+        found = list(dashboard("q", "al", "openTab", "uploads"), "uploadUsers");
+        assertThat(found).extracting(User::getId).containsExactly(alice.getId());
+    }
+}
@@ -0,0 +1,116 @@
+package com.dogdaycare.it;
+
+import com.dogdaycare.model.EvaluationRequest;
+import com.dogdaycare.model.User;
+import com.dogdaycare.repository.BookingRepository;
+import com.dogdaycare.repository.EvaluationRepository;
+import com.dogdaycare.repository.FileRepository;
+import com.dogdaycare.repository.UploadBlobRepository;
+import com.dogdaycare.repository.UserRepository;
+import com.dogdaycare.service.AdminSearchService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.hasSize;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@Transactional
+class AdminSearchIntegrationTest {
+
+    @Autowired MockMvc mvc;
+    @Autowired AdminSearchService searchService;
+    @Autowired EvaluationRepository evalRepo;
+    @Autowired BookingRepository bookingRepo;
+    @Autowired FileRepository fileRepo;
+    @Autowired UploadBlobRepository blobRepo;
+    @Autowired UserRepository userRepo;
+
+    @BeforeEach
+    void setup() {
+        evalRepo.deleteAll();
+        bookingRepo.deleteAll();
+        fileRepo.deleteAll();
+        blobRepo.deleteAll();
+        userRepo.deleteAll();
+    }
+
+    private User customer(String email) {
+        User u = new User();
+        u.setUsername(email);
+        u.setPassword("{noop}pw");
+        u.setRole("CUSTOMER");
+        u.setEnabled(true);
+        return userRepo.save(u);
+    }
+
+    private EvaluationRequest eval(String email, String client, String dog) {
+        EvaluationRequest e = new EvaluationRequest();
+        e.setEmail(email);
+        e.setClientName(client);
+        e.setPhone("555-555-5555");
+        e.setDogName(dog);
+        e.setDogBreed("Mutt");
+        e.setCreatedAt(LocalDateTime.now());
+        return evalRepo.save(e);
+    }
+
+    @Test
+    @WithMockUser(username = "admin", roles = "ADMIN")
+    void search_matchesSubstringsOfEmailsAndNames() throws Exception {
+        User jane = customer("jane.doe@example.com");
+        customer("bob@example.com");
+        EvaluationRequest janeEval = eval("jane.doe@example.com", "Jane Doe", "Biscuit");
+        eval("carl@example.com", "Carl", "Rover");
+
+        mvc.perform(get("/admin/search").param("q", "DOE"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].type").value("user"))
+                .andExpect(jsonPath("$[0].id").value(jane.getId()))
+                .andExpect(jsonPath("$[1].type").value("evaluation"))
+                .andExpect(jsonPath("$[1].id").value(janeEval.getId()))
+                .andExpect(jsonPath("$[1].label").value("Jane Doe (Biscuit)"));
+
+        // Dog names are searchable too
+        assertThat(searchService.search("biscu", 10))
+                .extracting(AdminSearchService.Hit::email)
+                .containsExactly("jane.doe@example.com");
+    }
+
+    @Test
+    void search_seesNewRows_andTreatsWildcardsLiterally() {
+        customer("a_b@example.com");
+        assertThat(searchService.search("a_b", 10)).hasSize(1);
+
+        customer("axb@example.com");
+        assertThat(searchService.search("xb@", 10)).extracting(AdminSearchService.Hit::email)
+                .containsExactly("axb@example.com");
+        assertThat(searchService.search("a_b", 10)).hasSize(1);
+        assertThat(searchService.search("a%", 10)).isEmpty();
+
+        // Too short to be useful
+        assertThat(searchService.search(" a ", 10)).isEmpty();
+    }
+
+    @Test
+    void search_capsResultsPerKind() {
+        for (int i = 0; i < 30; i++) customer("pup" + i + "@example.com");
+        assertThat(searchService.search("pup", 5)).hasSize(5);
+        assertThat(searchService.search("pup", 500)).hasSize(20);
+    }
+}
@@ -1,6 +1,7 @@
 package com.dogdaycare.it;
 
 import com.dogdaycare.model.Booking;
+import com.dogdaycare.model.BookingStatus;
 import com.dogdaycare.model.User;
 import com.dogdaycare.repository.BookingRepository;
 import com.dogdaycare.repository.UserRepository;
@@ -47,7 +48,7 @@ public class  BoardingSundayPricingIT {
         sundayBoarding.setCustomer(customer);
         sundayBoarding.setDate(sunday);
         sundayBoarding.setServiceType("Boarding");
-        sundayBoarding.setStatus("APPROVED");
+        sundayBoarding.setStatus(BookingStatus.APPROVED);
         sundayBoarding.setDogCount(1);
         sundayBoarding = bookingRepository.save(sundayBoarding);
 
@@ -61,7 +62,7 @@ public class  BoardingSundayPricingIT {
         mondayDaycare.setCustomer(customer);
         mondayDaycare.setDate(monday);
         mondayDaycare.setServiceType("Daycare (6 AM - 3 PM)");
-        mondayDaycare.setStatus("APPROVED");
+        mondayDaycare.setStatus(BookingStatus.APPROVED);
         mondayDaycare.setDogCount(1);
         bookingRepository.save(mondayDaycare);
 
@@ -0,0 +1,103 @@
+package com.dogdaycare.it;
+
+import com.dogdaycare.dto.AdminBookingRow;
+import com.dogdaycare.model.Booking;
+import com.dogdaycare.model.BookingStatus;
+import com.dogdaycare.model.ServiceKind;
+import com.dogdaycare.model.User;
+import com.dogdaycare.repository.BookingRepository;
+import com.dogdaycare.repository.UserRepository;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Hibernate;
+import org.hibernate.Session;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+class BookingFetchPlanIntegrationTest {
+
+    @Autowired BookingRepository bookingRepo;
+    @Autowired UserRepository userRepo;
+    @Autowired EntityManager em;
+
+    private final LocalDate monday = LocalDate.of(2025, 6, 2);
+    private Booking booking;
+
+    @BeforeEach
+    void setup() {
+        bookingRepo.deleteAll();
+        userRepo.deleteAll();
+
+        User u = new User();
+        u.setUsername("fetch@example.com");
+        u.setPassword("{noop}pw");
+        u.setRole("CUSTOMER");
+        u.setEnabled(true);
+        u = userRepo.save(u);
+
+        Booking b = new Booking();
+        b.setCustomer(u);
+        b.setDate(monday);
+        b.setTime(LocalTime.of(8, 0));
+        b.setServiceType("Daycare (6 AM - 3 PM)");
+        booking = bookingRepo.saveAndFlush(b);
+        em.clear();
+    }
+
+    @Test
+    void customerIsLazyByDefault() {
+        Booking b = bookingRepo.findById(booking.getId()).orElseThrow();
+        assertThat(Hibernate.isInitialized(b.getCustomer())).isFalse();
+        // The id alone doesn't need the row
+        assertThat(b.getCustomer().getId()).isNotNull();
+        assertThat(Hibernate.isInitialized(b.getCustomer())).isFalse();
+    }
+
+    @Test
+    void listingQueries_fetchTheCustomerUpFront() {
+        assertThat(bookingRepo.findByDate(monday))
+                .singleElement()
+                .satisfies(b -> assertThat(Hibernate.isInitialized(b.getCustomer())).isTrue());
+        em.clear();
+
+        assertThat(bookingRepo.findByDateBetween(monday, monday.plusDays(6)))
+                .singleElement()
+                .satisfies(b -> assertThat(Hibernate.isInitialized(b.getCustomer())).isTrue());
+        em.clear();
+
+        Booking b = bookingRepo.findWithCustomerById(booking.getId()).orElseThrow();
+        assertThat(Hibernate.isInitialized(b.getCustomer())).isTrue();
+        assertThat(b.getCustomer().getUsername()).isEqualTo("fetch@example.com");
+    }
+
+    @Test
+    void adminRows_projectTheSameColumnsAsTheEntity() {
+        Booking entity = bookingRepo.findWithCustomerById(booking.getId()).orElseThrow();
+        em.clear();
+
+        AdminBookingRow row = bookingRepo.findAdminRowsByDate(monday).get(0);
+        assertThat(row.id()).isEqualTo(entity.getId());
+        assertThat(row.customerId()).isEqualTo(entity.getCustomer().getId());
+        assertThat(row.customerEmail()).isEqualTo("fetch@example.com");
+        assertThat(row.status()).isEqualTo(BookingStatus.APPROVED);
+        assertThat(row.time()).isEqualTo(LocalTime.of(8, 0));
+        // Nothing was loaded into the persistence context
+        assertThat(em.contains(entity)).isFalse();
+        assertThat(em.unwrap(Session.class).getStatistics().getEntityCount()).isZero();
+
+        Booking pricingInput = row.asBooking();
+        assertThat(pricingInput.getServiceKind()).isEqualTo(ServiceKind.DAYCARE_HALF_DAY);
+        assertThat(pricingInput.getCustomer().getUsername()).isEqualTo("fetch@example.com");
+    }
+}
@@ -1,6 +1,7 @@
 package com.dogdaycare.it;
 
 import com.dogdaycare.model.Booking;
+import com.dogdaycare.model.BookingStatus;
 import com.dogdaycare.model.User;
 import com.dogdaycare.repository.BookingRepository;
 import com.dogdaycare.repository.UserRepository;
@@ -54,7 +55,7 @@ class BookingInvoicesAndFiltersIT {
         b.setCustomer(customer);
         b.setDate(date);
         b.setServiceType("Daycare (6 AM - 3 PM)");
-        b.setStatus("APPROVED");
+        b.setStatus(BookingStatus.APPROVED);
         b.setDogCount(dogs);
         b.setAdvanceEligible(true);
         b.setWantsAdvancePay(true);
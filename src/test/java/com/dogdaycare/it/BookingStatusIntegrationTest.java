@@ -0,0 +1,82 @@
+package com.dogdaycare.it;
+
+import com.dogdaycare.model.Booking;
+import com.dogdaycare.model.BookingStatus;
+import com.dogdaycare.model.User;
+import com.dogdaycare.repository.BookingRepository;
+import com.dogdaycare.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+class BookingStatusIntegrationTest {
+
+    @Autowired BookingRepository bookingRepo;
+    @Autowired UserRepository userRepo;
+
+    private final LocalDate monday = LocalDate.of(2025, 6, 2);
+    private User customer;
+
+    @BeforeEach
+    void setup() {
+        bookingRepo.deleteAll();
+        userRepo.deleteAll();
+
+        User u = new User();
+        u.setUsername("status@example.com");
+        u.setPassword("{noop}pw");
+        u.setRole("CUSTOMER");
+        u.setEnabled(true);
+        customer = userRepo.save(u);
+    }
+
+    private Booking book(LocalDate date, BookingStatus status, boolean paid) {
+        Booking b = new Booking();
+        b.setCustomer(customer);
+        b.setDate(date);
+        b.setTime(LocalTime.of(8, 0));
+        b.setServiceType("Daycare (6 AM - 3 PM)");
+        b.setStatus(status);
+        b.setPaid(paid);
+        return bookingRepo.save(b);
+    }
+
+    @Test
+    void newBookingsDefaultToApproved() {
+        Booking b = new Booking();
+        assertThat(b.getStatus()).isEqualTo(BookingStatus.APPROVED);
+        assertThat(BookingStatus.PENDING.isActive()).isTrue();
+        assertThat(BookingStatus.CANCELED.isActive()).isFalse();
+    }
+
+    @Test
+    void activeQueries_skipCanceledRows() {
+        Booking approved = book(monday, BookingStatus.APPROVED, false);
+        Booking pending = book(monday.plusDays(1), BookingStatus.PENDING, false);
+        book(monday.plusDays(2), BookingStatus.CANCELED, true);
+
+        assertThat(bookingRepo.findActiveByCustomerAndDateBetween(customer, monday, monday.plusDays(6)))
+                .extracting(Booking::getId)
+                .containsExactlyInAnyOrder(approved.getId(), pending.getId());
+        assertThat(bookingRepo.findActiveByCustomerEmailAndDateBetween("status@example.com", monday, monday.plusDays(6)))
+                .hasSize(2);
+
+        assertThat(bookingRepo.existsActiveByCustomerAndDate(customer, monday)).isTrue();
+        assertThat(bookingRepo.existsActiveByCustomerAndDate(customer, monday.plusDays(2))).isFalse();
+
+        // The only paid booking is canceled => the week doesn't count as paid
+        assertThat(bookingRepo.existsActivePaidByCustomerAndDateBetween(customer, monday, monday.plusDays(6))).isFalse();
+        assertThat(bookingRepo.findPaidDatesByCustomerAndDateBetween(customer, monday, monday.plusDays(6))).isEmpty();
+    }
+}
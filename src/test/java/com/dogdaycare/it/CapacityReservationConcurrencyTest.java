@@ -0,0 +1,129 @@
+package com.dogdaycare.it;
+
+import com.dogdaycare.model.Booking;
+import com.dogdaycare.model.BookingStatus;
+import com.dogdaycare.model.User;
+import com.dogdaycare.repository.BookingRepository;
+import com.dogdaycare.repository.DailyCapacityRepository;
+import com.dogdaycare.repository.UserRepository;
+import com.dogdaycare.service.BookingLimitService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Monday-morning rush: many customers race for the last spots of a day.
+ * Not @Transactional on purpose — each reservation must commit in its own transaction.
+ */
+@SpringBootTest(properties = {
+        "booking.cap.daycare=5",
+        "booking.cap.boarding=3",
+        "booking.cap.total=7"
+})
+@ActiveProfiles("test")
+class CapacityReservationConcurrencyTest {
+
+    private static final int CUSTOMERS = 24;
+
+    @Autowired BookingLimitService limitService;
+    @Autowired BookingRepository bookingRepo;
+    @Autowired UserRepository userRepo;
+    @Autowired DailyCapacityRepository capacityRepo;
+
+    private final LocalDate day = LocalDate.of(2025, 4, 7); // Monday
+    private final List<User> customers = new ArrayList<>();
+
+    @BeforeEach
+    void setup() {
+        cleanup();
+        for (int i = 0; i < CUSTOMERS; i++) {
+            User u = new User();
+            u.setUsername("rush" + i + "@example.com");
+            u.setPassword("{noop}pw");
+            u.setRole("CUSTOMER");
+            u.setEnabled(true);
+            customers.add(userRepo.save(u));
+        }
+    }
+
+    @AfterEach
+    void cleanup() {
+        capacityRepo.deleteAll();
+        bookingRepo.deleteAll();
+        userRepo.deleteAll();
+        customers.clear();
+    }
+
+    private Booking booking(User customer, String serviceType) {
+        Booking b = new Booking();
+        b.setCustomer(customer);
+        b.setDate(day);
+        b.setTime(LocalTime.of(7, 0));
+        b.setServiceType(serviceType);
+        b.setStatus(BookingStatus.APPROVED);
+        return b;
+    }
+
+    private int race(List<Booking> attempts) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(attempts.size());
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger reserved = new AtomicInteger();
+        List<Future<?>> futures = new ArrayList<>();
+        try {
+            for (Booking b : attempts) {
+                futures.add(pool.submit(() -> {
+                    start.await();
+                    if (limitService.reserveAndCreate(b).isPresent()) reserved.incrementAndGet();
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> f : futures) f.get(30, TimeUnit.SECONDS);
+        } finally {
+            pool.shutdownNow();
+        }
+        return reserved.get();
+    }
+
+    @Test
+    void concurrentDaycareReservations_neverExceedCap() throws Exception {
+        List<Booking> attempts = customers.stream()
+                .map(c -> booking(c, "Daycare (6 AM - 3 PM)"))
+                .toList();
+
+        int reserved = race(attempts);
+
+        assertThat(reserved).isEqualTo(5);
+        assertThat(bookingRepo.findByDate(day)).hasSize(5);
+        assertThat(limitService.snapshot(day).getDaycare()).isEqualTo(5);
+    }
+
+    @Test
+    void concurrentMixedReservations_respectServiceAndTotalCaps() throws Exception {
+        List<Booking> attempts = new ArrayList<>();
+        for (int i = 0; i < CUSTOMERS; i++) {
+            attempts.add(booking(customers.get(i), (i % 2 == 0) ? "Daycare (6 AM - 8 PM)" : "Boarding"));
+        }
+
+        int reserved = race(attempts);
+
+        var snapshot = limitService.snapshot(day);
+        assertThat(reserved).isEqualTo(7);
+        assertThat(snapshot.getTotal()).isEqualTo(7);
+        assertThat(snapshot.getDaycare()).isLessThanOrEqualTo(5);
+        assertThat(snapshot.getBoarding()).isLessThanOrEqualTo(3);
+        assertThat(bookingRepo.findByDate(day)).hasSize(7);
+    }
+}
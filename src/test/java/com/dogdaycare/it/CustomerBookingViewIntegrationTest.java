@@ -0,0 +1,96 @@
+package com.dogdaycare.it;
+
+import com.dogdaycare.dto.CustomerBookingView;
+import com.dogdaycare.model.Booking;
+import com.dogdaycare.model.BookingStatus;
+import com.dogdaycare.model.User;
+import com.dogdaycare.repository.BookingRepository;
+import com.dogdaycare.repository.UserRepository;
+import com.dogdaycare.service.BundleService;
+import com.dogdaycare.service.CustomerBookingViewService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+class CustomerBookingViewIntegrationTest {
+
+    @Autowired CustomerBookingViewService viewService;
+    @Autowired BundleService bundleService;
+    @Autowired BookingRepository bookingRepo;
+    @Autowired UserRepository userRepo;
+
+    private final LocalDate monday = LocalDate.of(2025, 9, 1);
+    private User customer;
+
+    @BeforeEach
+    void setup() {
+        bookingRepo.deleteAll();
+        userRepo.deleteAll();
+
+        customer = new User();
+        customer.setUsername("view@example.com");
+        customer.setPassword("{noop}pw");
+        customer.setRole("CUSTOMER");
+        customer.setEnabled(true);
+        customer = userRepo.save(customer);
+    }
+
+    private Booking book(LocalDate date, String serviceType, BookingStatus status, boolean paid) {
+        Booking b = new Booking();
+        b.setCustomer(customer);
+        b.setDate(date);
+        b.setTime(LocalTime.of(8, 0));
+        b.setServiceType(serviceType);
+        b.setStatus(status);
+        b.setPaid(paid);
+        b.setAdvanceEligible(true);
+        b.setWantsAdvancePay(true);
+        return bookingRepo.save(b);
+    }
+
+    @Test
+    void load_bucketsVisibleBookings_andFlagsPaidWeeks() {
+        book(monday.minusWeeks(1), "Daycare (6 AM - 3 PM)", BookingStatus.APPROVED, true);        // before window
+        Booking shortDay = book(monday, "Daycare (6 AM - 3 PM)", BookingStatus.APPROVED, true);
+        book(monday.plusDays(1), "Daycare (6 AM - 8 PM)", BookingStatus.APPROVED, false);
+        book(monday.plusDays(1), "Boarding", BookingStatus.APPROVED, false);
+        book(monday.plusDays(2), "Daycare After Hours (6 AM - 11 PM)", BookingStatus.CANCELED, false);
+        book(monday.plusWeeks(1), "Daycare (6 AM - 3 PM)", BookingStatus.CANCELED, true);           // canceled paid ≠ paid week
+
+        CustomerBookingView view = viewService.load(customer, monday,
+                List.of(monday, monday.plusWeeks(1), monday.minusWeeks(1)));
+
+        assertThat(view.bookings()).hasSize(5);
+        assertThat(view.daycare()).hasSize(4);
+        assertThat(view.daycareShort()).hasSize(2);
+        assertThat(view.daycareLong()).hasSize(1);
+        assertThat(view.daycareAfterHours()).hasSize(1);
+        assertThat(view.boarding()).hasSize(1);
+
+        assertThat(view.bookedByDate())
+                .containsEntry(monday, "Daycare (6 AM - 3 PM)")
+                .containsEntry(monday.plusDays(1), "Multiple")
+                .doesNotContainKey(monday.plusDays(2));
+        assertThat(view.provisionalQuotes()).containsKey(shortDay.getId());
+
+        assertThat(view.isWeekPaid(monday.plusDays(3))).isTrue();
+        assertThat(view.isWeekPaid(monday.plusWeeks(1))).isFalse();
+        assertThat(view.isWeekPaid(monday.minusWeeks(1))).isTrue();
+
+        // Single-week EXISTS variant agrees with the batched lookup
+        assertThat(bundleService.hasWeekPaid(customer, monday.plusDays(6))).isTrue();
+        assertThat(bundleService.hasWeekPaid(customer, monday.plusWeeks(1))).isFalse();
+    }
+}
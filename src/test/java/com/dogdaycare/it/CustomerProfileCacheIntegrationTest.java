@@ -0,0 +1,66 @@
+package com.dogdaycare.it;
+
+import com.dogdaycare.model.EvaluationRequest;
+import com.dogdaycare.repository.EvaluationRepository;
+import com.dogdaycare.service.CustomerProfileCache;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+class CustomerProfileCacheIntegrationTest {
+
+    @Autowired CustomerProfileCache profileCache;
+    @Autowired EvaluationRepository evalRepo;
+
+    @BeforeEach
+    void setup() {
+        evalRepo.deleteAll();
+        profileCache.invalidateAll();
+    }
+
+    private EvaluationRequest eval(String email, String client, String dog, LocalDateTime createdAt) {
+        EvaluationRequest e = new EvaluationRequest();
+        e.setEmail(email);
+        e.setClientName(client);
+        e.setPhone("555-555-5555");
+        e.setDogName(dog);
+        e.setDogBreed("Mutt");
+        e.setCreatedAt(createdAt);
+        return evalRepo.save(e);
+    }
+
+    @Test
+    void getAll_resolvesLatestEvaluationPerEmail_andCachesMisses() {
+        LocalDateTime t = LocalDateTime.of(2025, 1, 1, 9, 0);
+        eval("a@example.com", "Alice Old", "Rex", t);
+        eval("a@example.com", "Alice", "Rex II", t.plusDays(1));
+        eval("b@example.com", "Bob", "Fido", t);
+
+        Map<String, CustomerProfileCache.Profile> profiles =
+                profileCache.getAll(List.of("a@example.com", "b@example.com", "nobody@example.com"));
+
+        assertThat(profiles.get("a@example.com")).isEqualTo(new CustomerProfileCache.Profile("Alice", "Rex II"));
+        assertThat(profiles.get("b@example.com").clientName()).isEqualTo("Bob");
+        assertThat(profiles.get("nobody@example.com").clientNameOr("nobody@example.com"))
+                .isEqualTo("nobody@example.com");
+
+        // Served from cache: a newer evaluation isn't seen until the email is invalidated
+        eval("b@example.com", "Robert", "Fido", t.plusDays(2));
+        assertThat(profileCache.get("b@example.com").clientName()).isEqualTo("Bob");
+
+        profileCache.invalidate("b@example.com");
+        assertThat(profileCache.get("b@example.com").clientName()).isEqualTo("Robert");
+    }
+}
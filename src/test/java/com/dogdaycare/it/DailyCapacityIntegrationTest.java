@@ -0,0 +1,141 @@
+package com.dogdaycare.it;
+
+import com.dogdaycare.dto.EmergencyCounts;
+import com.dogdaycare.model.Booking;
+import com.dogdaycare.model.BookingStatus;
+import com.dogdaycare.model.User;
+import com.dogdaycare.repository.BookingRepository;
+import com.dogdaycare.repository.DailyCapacityRepository;
+import com.dogdaycare.repository.EmergencyAllocationRepository;
+import com.dogdaycare.repository.UserRepository;
+import com.dogdaycare.service.BookingLimitService;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+class DailyCapacityIntegrationTest {
+
+    @Autowired BookingLimitService limitService;
+    @Autowired BookingRepository bookingRepo;
+    @Autowired UserRepository userRepo;
+    @Autowired DailyCapacityRepository capacityRepo;
+    @Autowired EmergencyAllocationRepository emergencyRepo;
+    @Autowired EntityManager em;
+
+    private final LocalDate day = LocalDate.of(2025, 3, 4);
+    private User customer;
+
+    @BeforeEach
+    void setup() {
+        emergencyRepo.deleteAll();
+        capacityRepo.deleteAll();
+        bookingRepo.deleteAll();
+        userRepo.deleteAll();
+
+        customer = new User();
+        customer.setUsername("capacity@example.com");
+        customer.setPassword("{noop}pw");
+        customer.setRole("CUSTOMER");
+        customer.setEnabled(true);
+        customer = userRepo.save(customer);
+    }
+
+    private Booking booking(String serviceType) {
+        Booking b = new Booking();
+        b.setCustomer(customer);
+        b.setDate(day);
+        b.setTime(LocalTime.of(8, 0));
+        b.setServiceType(serviceType);
+        b.setStatus(BookingStatus.APPROVED);
+        return b;
+    }
+
+    @Test
+    void createAndCancel_maintainCounters() {
+        limitService.createBooking(booking("Daycare (6 AM - 3 PM)"));
+        limitService.createBooking(booking("Daycare After Hours (6 AM - 11 PM)"));
+        Booking boarding = limitService.createBooking(booking("Boarding"));
+
+        EmergencyCounts c = limitService.snapshot(day);
+        assertThat(c.getDaycare()).isEqualTo(2);
+        assertThat(c.getBoarding()).isEqualTo(1);
+        assertThat(c.getTotal()).isEqualTo(3);
+
+        limitService.cancelBooking(bookingRepo.findById(boarding.getId()).orElseThrow());
+        // second cancel is a no-op (no double decrement)
+        limitService.cancelBooking(bookingRepo.findById(boarding.getId()).orElseThrow());
+
+        c = limitService.snapshot(day);
+        assertThat(c.getDaycare()).isEqualTo(2);
+        assertThat(c.getBoarding()).isZero();
+    }
+
+    @Test
+    void emergencyBooking_countsAllocation_andCancelReleasesIt() {
+        Booking e = limitService.createEmergencyBooking(booking("Boarding"));
+        assertThat(limitService.snapshot(day).getEmergencyUsed()).isEqualTo(1);
+
+        limitService.cancelBooking(bookingRepo.findById(e.getId()).orElseThrow());
+        assertThat(limitService.snapshot(day).getEmergencyUsed()).isZero();
+        assertThat(emergencyRepo.countByDate(day)).isZero();
+    }
+
+    @Test
+    void counterUpdates_leaveTheCallersEntitiesManaged() {
+        Booking b = limitService.reserveAndCreate(booking("Boarding")).orElseThrow();
+        limitService.cancelBooking(b);
+
+        assertThat(em.contains(customer)).isTrue();
+        assertThat(em.contains(b)).isTrue();
+        assertThat(limitService.snapshot(day).getBoarding()).isZero();
+    }
+
+    @Test
+    void reconcile_rebuildsCountersFromBookings() {
+        // Written behind the service's back → counters drift
+        bookingRepo.save(booking("Daycare (6 AM - 8 PM)"));
+        bookingRepo.save(booking("Boarding"));
+        Booking canceled = booking("Boarding");
+        canceled.setStatus(BookingStatus.CANCELED);
+        bookingRepo.save(canceled);
+
+        assertThat(limitService.snapshot(day).getTotal()).isZero();
+
+        int drifted = limitService.reconcile(day.minusDays(1), day.plusDays(1));
+        assertThat(drifted).isEqualTo(1);
+
+        EmergencyCounts c = limitService.snapshot(day);
+        assertThat(c.getDaycare()).isEqualTo(1);
+        assertThat(c.getBoarding()).isEqualTo(1);
+
+        // Already in sync → nothing to correct
+        assertThat(limitService.reconcile(day.minusDays(1), day.plusDays(1))).isZero();
+    }
+
+    @Test
+    void snapshotRange_returnsEveryDayInOrder() {
+        limitService.createBooking(booking("Daycare (6 AM - 3 PM)"));
+        limitService.createBooking(booking("Boarding"));
+
+        Map<LocalDate, EmergencyCounts> range = limitService.snapshotRange(day.minusDays(2), day.plusDays(11));
+
+        assertThat(range).hasSize(14);
+        assertThat(range.keySet()).first().isEqualTo(day.minusDays(2));
+        assertThat(range.get(day).getTotal()).isEqualTo(2);
+        assertThat(range.get(day.plusDays(1)).getTotal()).isZero();
+        assertThat(range.get(day).getDaycare()).isEqualTo(limitService.snapshot(day).getDaycare());
+    }
+}
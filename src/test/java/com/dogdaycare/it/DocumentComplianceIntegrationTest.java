@@ -0,0 +1,164 @@
+package com.dogdaycare.it;
+
+import com.dogdaycare.model.CustomerDocumentStatus;
+import com.dogdaycare.model.CustomerDocumentStatus.Compliance;
+import com.dogdaycare.model.UploadedFile;
+import com.dogdaycare.model.User;
+import com.dogdaycare.repository.CustomerDocumentStatusRepository;
+import com.dogdaycare.repository.BookingRepository;
+import com.dogdaycare.repository.FileRepository;
+import com.dogdaycare.repository.UploadBlobRepository;
+import com.dogdaycare.repository.UserRepository;
+import com.dogdaycare.service.DocumentComplianceService;
+import com.dogdaycare.service.UploadService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@Transactional
+class DocumentComplianceIntegrationTest {
+
+    @Autowired MockMvc mvc;
+    @Autowired DocumentComplianceService complianceService;
+    @Autowired UploadService uploadService;
+    @Autowired CustomerDocumentStatusRepository statusRepo;
+    @Autowired BookingRepository bookingRepo;
+    @Autowired FileRepository fileRepo;
+    @Autowired UploadBlobRepository blobRepo;
+    @Autowired UserRepository userRepo;
+    @Autowired Clock clock;
+
+    private User customer;
+    private LocalDate today;
+
+    @BeforeEach
+    void setup() {
+        statusRepo.deleteAll();
+        bookingRepo.deleteAll();
+        fileRepo.deleteAll();
+        blobRepo.deleteAll();
+        userRepo.deleteAll();
+
+        customer = customer("docs@example.com");
+        today = LocalDate.now(clock);
+    }
+
+    private User customer(String email) {
+        User u = new User();
+        u.setUsername(email);
+        u.setPassword("{noop}pw");
+        u.setRole("CUSTOMER");
+        u.setEnabled(true);
+        return userRepo.save(u);
+    }
+
+    private UploadedFile upload(User owner, String name, LocalDate expires) throws Exception {
+        return uploadService.storeForUser(owner,
+                new MockMultipartFile("file", name, "application/pdf", name.getBytes(StandardCharsets.UTF_8)),
+                null, expires);
+    }
+
+    // Row written directly, as for files that predate the summary table
+    private void legacyFile(User owner, LocalDate expires) {
+        UploadedFile f = new UploadedFile();
+        f.setUser(owner);
+        f.setFileName("legacy.pdf");
+        f.setFilePath("/nonexistent/legacy.pdf");
+        f.setExpirationDate(expires);
+        fileRepo.save(f);
+    }
+
+    private CustomerDocumentStatus row(User u) {
+        return statusRepo.findById(u.getId()).orElseThrow();
+    }
+
+    @Test
+    void uploadsAndDeletes_keepTheCustomersRowCurrent() throws Exception {
+        upload(customer, "rabies.pdf", today.plusDays(200));
+        assertThat(row(customer).getStatus()).isEqualTo(Compliance.VALID);
+
+        upload(customer, "bordetella.pdf", today.plusDays(10));
+        assertThat(row(customer).getStatus()).isEqualTo(Compliance.EXPIRING);
+        assertThat(row(customer).getNextExpiration()).isEqualTo(today.plusDays(10));
+
+        UploadedFile expired = upload(customer, "dhpp.pdf", today.minusDays(1));
+        assertThat(row(customer).getStatus()).isEqualTo(Compliance.EXPIRED);
+        assertThat(row(customer).getExpiredCount()).isEqualTo(1);
+        assertThat(row(customer).getDocumentCount()).isEqualTo(3);
+
+        uploadService.delete(expired);
+        assertThat(row(customer).getStatus()).isEqualTo(Compliance.EXPIRING);
+        assertThat(complianceService.statusFor(customer.getId())).isEqualTo(Compliance.EXPIRING);
+    }
+
+    @Test
+    void refreshAll_summarizesEveryCustomerInOnePass() {
+        User undated = customer("undated@example.com");
+        User valid = customer("valid@example.com");
+        legacyFile(customer, today.minusDays(5));
+        legacyFile(customer, today.plusDays(100));
+        legacyFile(undated, null);
+        legacyFile(valid, today.plusDays(31));
+
+        assertThat(complianceService.refreshAll()).isEqualTo(3);
+
+        assertThat(row(customer).getStatus()).isEqualTo(Compliance.EXPIRED);
+        assertThat(row(customer).getNextExpiration()).isEqualTo(today.plusDays(100));
+        assertThat(row(undated).getStatus()).isEqualTo(Compliance.NONE);
+        assertThat(row(undated).getDocumentCount()).isEqualTo(1);
+        assertThat(row(valid).getStatus()).isEqualTo(Compliance.VALID);
+
+        // Nothing moved => nothing changed
+        assertThat(complianceService.refreshAll()).isZero();
+
+        // Unchanged rows left from an earlier day are only re-dated
+        CustomerDocumentStatus stale = row(valid);
+        stale.setAsOf(today.minusDays(1));
+        statusRepo.saveAndFlush(stale);
+        assertThat(complianceService.refreshAll()).isZero();
+        assertThat(row(valid).getAsOf()).isEqualTo(today);
+        assertThat(row(valid).getStatus()).isEqualTo(Compliance.VALID);
+    }
+
+    @Test
+    void statusFor_recomputesARowLeftFromAnEarlierDay() {
+        legacyFile(customer, today.plusDays(5));
+        CustomerDocumentStatus stale = complianceService.refresh(customer.getId());
+        stale.setStatus(Compliance.VALID);
+        stale.setAsOf(today.minusDays(1));
+        statusRepo.saveAndFlush(stale);
+
+        assertThat(complianceService.statusFor(customer.getId())).isEqualTo(Compliance.EXPIRING);
+        assertThat(complianceService.statusFor(-1L)).isEqualTo(Compliance.NONE);
+    }
+
+    @Test
+    @WithMockUser(username = "admin", roles = "ADMIN")
+    void adminUploadsTab_showsTheComplianceBadge() throws Exception {
+        upload(customer, "dhpp.pdf", today.minusDays(1));
+
+        mvc.perform(get("/admin").param("openTab", "uploads"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("1 expired")));
+    }
+}
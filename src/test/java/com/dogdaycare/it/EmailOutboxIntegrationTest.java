@@ -0,0 +1,238 @@
+package com.dogdaycare.it;
+
+import com.dogdaycare.model.OutboundEmail;
+import com.dogdaycare.repository.OutboundEmailRepository;
+import com.dogdaycare.service.EmailOutboxDispatcher;
+import com.dogdaycare.service.EmailService;
+import jakarta.mail.internet.MimeMessage;
+import jakarta.mail.internet.MimeMultipart;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.reset;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional // rows stay invisible to the background poll and after-commit hand-off
+class EmailOutboxIntegrationTest {
+
+    /**
+     * In-process SMTP stand-in: records messages, or fails while {@code failuresLeft > 0}
+     * ({@code unexpectedFailuresLeft} throws a plain runtime exception instead of a MailException).
+     */
+    static class RecordingMailSender extends JavaMailSenderImpl {
+        final List<MimeMessage> sent = new CopyOnWriteArrayList<>();
+        volatile int failuresLeft;
+        volatile int unexpectedFailuresLeft;
+
+        @Override
+        protected void doSend(MimeMessage[] mimeMessages, Object[] originalMessages) throws MailException {
+            if (unexpectedFailuresLeft > 0) {
+                unexpectedFailuresLeft--;
+                throw new IllegalStateException("broken attachment");
+            }
+            if (failuresLeft > 0) {
+                failuresLeft--;
+                throw new MailSendException("SMTP unavailable");
+            }
+            sent.addAll(List.of(mimeMessages));
+        }
+    }
+
+    @TestConfiguration
+    static class MailConfig {
+        @Bean
+        JavaMailSender javaMailSender() {
+            return new RecordingMailSender();
+        }
+    }
+
+    @Autowired EmailService emailService;
+    @Autowired EmailOutboxDispatcher dispatcher;
+    @SpyBean OutboundEmailRepository outboxRepo;
+    @Autowired JavaMailSender mailSender;
+    @Autowired Clock clock;
+    @Autowired EntityManager em;
+
+    private RecordingMailSender smtp;
+
+    @BeforeEach
+    void setup() {
+        reset(outboxRepo);
+        outboxRepo.deleteAll();
+        smtp = (RecordingMailSender) mailSender;
+        smtp.sent.clear();
+        smtp.failuresLeft = 0;
+        smtp.unexpectedFailuresLeft = 0;
+    }
+
+    private OutboundEmail only() {
+        List<OutboundEmail> all = outboxRepo.findAll();
+        assertThat(all).hasSize(1);
+        return all.get(0);
+    }
+
+    @Test
+    void sendEmail_onlyQueues_untilTheDispatcherDelivers() throws Exception {
+        emailService.sendEmail("owner@example.com", "Evaluation Received", "Hello");
+
+        OutboundEmail queued = only();
+        assertThat(queued.getStatus()).isEqualTo(OutboundEmail.Status.PENDING);
+        assertThat(smtp.sent).isEmpty();
+
+        assertThat(dispatcher.deliver(queued.getId())).isTrue();
+
+        assertThat(smtp.sent).hasSize(1);
+        MimeMessage msg = smtp.sent.get(0);
+        assertThat(msg.getAllRecipients()[0].toString()).isEqualTo("owner@example.com");
+        assertThat(msg.getSubject()).isEqualTo("Evaluation Received");
+        assertThat(msg.getFrom()[0].toString()).isEqualTo("noreply@dogdaycare.test");
+
+        OutboundEmail sent = only();
+        assertThat(sent.getStatus()).isEqualTo(OutboundEmail.Status.SENT);
+        assertThat(sent.getSentAt()).isNotNull();
+        assertThat(sent.getBody()).isNull();
+
+        // Already sent => a second worker can't claim it
+        assertThat(dispatcher.deliver(queued.getId())).isFalse();
+        assertThat(smtp.sent).hasSize(1);
+    }
+
+    @Test
+    void secrets_areFilledInAtSendTime_andNeverStored() throws Exception {
+        emailService.sendEmailWithSecret("new@example.com", "Approved",
+                "Password: " + EmailService.SECRET, "hunter2");
+
+        OutboundEmail queued = only();
+        assertThat(queued.getBody()).isEqualTo("Password: " + EmailService.SECRET).doesNotContain("hunter2");
+
+        assertThat(dispatcher.deliver(queued.getId())).isTrue();
+        assertThat((String) smtp.sent.get(0).getContent()).contains("Password: hunter2");
+        assertThat(only().getBody()).isNull();
+    }
+
+    @Test
+    void secretNotHeldHere_failsTheAttempt() {
+        emailService.sendEmailWithSecret("new@example.com", "Approved",
+                "Password: " + EmailService.SECRET, "hunter2");
+        Long id = only().getId();
+        dispatcher.forgetSecret(id); // as after a restart
+
+        assertThat(dispatcher.deliver(id)).isFalse();
+        assertThat(smtp.sent).isEmpty();
+        assertThat(only().getLastError()).contains("not held by this instance");
+    }
+
+    @Test
+    void failedSend_backsOff_thenSucceedsOnRetry() {
+        smtp.failuresLeft = 1;
+        emailService.sendEmail("owner@example.com", "Approved", "Welcome");
+        Long id = only().getId();
+
+        assertThat(dispatcher.deliver(id)).isFalse();
+        OutboundEmail failed = only();
+        assertThat(failed.getStatus()).isEqualTo(OutboundEmail.Status.PENDING);
+        assertThat(failed.getAttempts()).isEqualTo(1);
+        assertThat(failed.getLastError()).contains("SMTP unavailable");
+        assertThat(failed.getNextAttemptAt()).isAfter(LocalDateTime.now(clock).plusSeconds(20));
+
+        // Not due yet
+        assertThat(dispatcher.deliver(id)).isFalse();
+        assertThat(smtp.sent).isEmpty();
+
+        failed.setNextAttemptAt(LocalDateTime.now(clock).minusSeconds(1));
+        outboxRepo.saveAndFlush(failed);
+
+        assertThat(dispatcher.deliver(id)).isTrue();
+        assertThat(smtp.sent).hasSize(1);
+        assertThat(only().getStatus()).isEqualTo(OutboundEmail.Status.SENT);
+    }
+
+    @Test
+    void unexpectedException_countsAsAFailedAttempt() {
+        smtp.unexpectedFailuresLeft = 1;
+        emailService.sendEmail("owner@example.com", "Approved", "Welcome");
+        Long id = only().getId();
+
+        assertThat(dispatcher.deliver(id)).isFalse();
+        OutboundEmail failed = only();
+        assertThat(failed.getStatus()).isEqualTo(OutboundEmail.Status.PENDING);
+        assertThat(failed.getAttempts()).isEqualTo(1);
+        assertThat(failed.getLastError()).contains("IllegalStateException", "broken attachment");
+    }
+
+    @Test
+    void sentButNotMarked_isNotCountedAsAFailedAttempt() {
+        emailService.sendEmail("owner@example.com", "Approved", "Welcome");
+        Long id = only().getId();
+        doThrow(new DataAccessResourceFailureException("database unavailable"))
+                .when(outboxRepo).save(argThat(e -> e.getStatus() == OutboundEmail.Status.SENT));
+
+        assertThat(dispatcher.deliver(id)).isTrue();
+        assertThat(smtp.sent).hasSize(1);
+        em.clear(); // drop the unsaved SENT state; outside this test's transaction it was never persisted
+        OutboundEmail row = only();
+        assertThat(row.getStatus()).isEqualTo(OutboundEmail.Status.SENDING);
+        assertThat(row.getAttempts()).isZero();
+    }
+
+    @Test
+    void givesUp_afterMaxAttempts() {
+        smtp.failuresLeft = Integer.MAX_VALUE;
+        emailService.sendEmail("owner@example.com", "Approved", "Welcome");
+        Long id = only().getId();
+
+        for (int i = 0; i < 8; i++) {
+            OutboundEmail e = only();
+            e.setNextAttemptAt(LocalDateTime.now(clock).minusSeconds(1));
+            outboxRepo.saveAndFlush(e);
+            dispatcher.deliver(id);
+        }
+
+        OutboundEmail parked = only();
+        assertThat(parked.getStatus()).isEqualTo(OutboundEmail.Status.FAILED);
+        assertThat(parked.getAttempts()).isEqualTo(8);
+        assertThat(parked.getBody()).isNull();
+        assertThat(dispatcher.deliver(id)).isFalse();
+    }
+
+    @Test
+    void attachments_areReadFromDiskAtSendTime() throws Exception {
+        File upload = Files.createTempFile("dog", ".txt").toFile();
+        upload.deleteOnExit();
+        Files.writeString(upload.toPath(), "vaccination record");
+
+        emailService.sendEmailWithAttachments("business@dogdaycare.test", "New Evaluation Request", "See attached", List.of(upload));
+        assertThat(only().getAttachments())
+                .containsExactly(new OutboundEmail.Attachment(upload.getAbsolutePath(), upload.getName()));
+
+        assertThat(dispatcher.deliver(only().getId())).isTrue();
+
+        MimeMultipart parts = (MimeMultipart) smtp.sent.get(0).getContent();
+        assertThat(parts.getCount()).isEqualTo(2);
+        assertThat(parts.getBodyPart(1).getFileName()).isEqualTo(upload.getName());
+    }
+}
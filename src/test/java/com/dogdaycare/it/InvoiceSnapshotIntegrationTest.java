@@ -0,0 +1,187 @@
+package com.dogdaycare.it;
+
+import com.dogdaycare.model.Booking;
+import com.dogdaycare.model.BookingStatus;
+import com.dogdaycare.model.Invoice;
+import com.dogdaycare.model.InvoiceSnapshot;
+import com.dogdaycare.model.User;
+import com.dogdaycare.repository.BookingRepository;
+import com.dogdaycare.repository.InvoiceRepository;
+import com.dogdaycare.repository.InvoiceSnapshotRepository;
+import com.dogdaycare.repository.InvoiceSnapshotWeekRepository;
+import com.dogdaycare.repository.UserRepository;
+import com.dogdaycare.service.WeeklyInvoiceService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Not @Transactional on purpose — snapshots are refreshed after the booking change commits.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class InvoiceSnapshotIntegrationTest {
+
+    @Autowired WeeklyInvoiceService weeklyInvoiceService;
+    @Autowired InvoiceSnapshotRepository snapshotRepo;
+    @Autowired InvoiceRepository invoiceRepo;
+    @Autowired BookingRepository bookingRepo;
+    @Autowired InvoiceSnapshotWeekRepository snapshotWeekRepo;
+    @Autowired UserRepository userRepo;
+    @Autowired TransactionTemplate tx;
+
+    private User customer;
+
+    @BeforeEach
+    void setup() {
+        cleanup();
+
+        customer = new User();
+        customer.setUsername("snapshot@example.com");
+        customer.setPassword("{noop}pw");
+        customer.setRole("CUSTOMER");
+        customer.setEnabled(true);
+        customer = userRepo.save(customer);
+    }
+
+    @AfterEach
+    void cleanup() {
+        snapshotRepo.deleteAll();
+        snapshotWeekRepo.deleteAll();
+        invoiceRepo.deleteAll();
+        bookingRepo.deleteAll();
+        userRepo.deleteAll();
+    }
+
+    private Booking book(LocalDate date, String serviceType) {
+        return bookingRepo.save(booking(date, serviceType));
+    }
+
+    private Booking booking(LocalDate date, String serviceType) {
+        Booking b = new Booking();
+        b.setCustomer(customer);
+        b.setDate(date);
+        b.setTime(LocalTime.of(8, 0));
+        b.setServiceType(serviceType);
+        b.setStatus(BookingStatus.APPROVED);
+        return b;
+    }
+
+    private InvoiceSnapshot snapshot(LocalDate ws) {
+        return snapshotRepo.findByCustomerIdAndWeekStart(customer.getId(), ws).orElseThrow();
+    }
+
+    @Test
+    void bookingSaves_refreshTheirCustomerWeek() {
+        LocalDate monday = LocalDate.of(2025, 6, 2);
+        Booking first = book(monday, "Daycare (6 AM - 3 PM)");
+        book(monday.plusDays(1), "Daycare (6 AM - 3 PM)");
+
+        InvoiceSnapshot s = snapshot(monday);
+        assertThat(s.getBookingCount()).isEqualTo(2);
+        assertThat(s.getCurrentAmount()).isEqualByComparingTo("90.00"); // 2 × 45 (1–3 tier)
+        assertThat(s.getPaidToDate()).isEqualByComparingTo("0");
+
+        first.setPaid(true);
+        bookingRepo.save(first);
+        assertThat(snapshot(monday).getPaidToDate()).isEqualByComparingTo("45.00");
+        assertThat(snapshot(monday).getDeltaUnpaid()).isEqualByComparingTo("45.00");
+
+        first.setStatus(BookingStatus.CANCELED);
+        bookingRepo.save(first);
+        assertThat(snapshot(monday).getBookingCount()).isEqualTo(1);
+        assertThat(snapshot(monday).getCurrentAmount()).isEqualByComparingTo("45.00");
+
+        assertThat(weeklyInvoiceService.weeklyRows(monday))
+                .singleElement()
+                .satisfies(r -> assertThat(r.getDeltaUnpaidRaw()).isEqualByComparingTo(new BigDecimal("45.00")));
+    }
+
+    @Test
+    void saveAll_refreshesTheWeekOnceItCommits() {
+        LocalDate monday = LocalDate.of(2025, 6, 2);
+        tx.executeWithoutResult(status -> {
+            List<Booking> week = new ArrayList<>();
+            for (int i = 0; i < 5; i++) week.add(booking(monday.plusDays(i), "Daycare (6 AM - 3 PM)"));
+            bookingRepo.saveAll(week);
+            // Nothing is refreshed before commit
+            assertThat(snapshotRepo.findByCustomerIdAndWeekStart(customer.getId(), monday)).isEmpty();
+        });
+
+        InvoiceSnapshot s = snapshot(monday);
+        assertThat(s.getBookingCount()).isEqualTo(5);
+        assertThat(s.getCurrentAmount()).isEqualByComparingTo("200.00"); // 5 × 40 (4+ tier)
+    }
+
+    @Test
+    void rolledBackChange_leavesTheSnapshotAlone() {
+        LocalDate monday = LocalDate.of(2025, 6, 2);
+        book(monday, "Daycare (6 AM - 3 PM)");
+
+        tx.executeWithoutResult(status -> {
+            bookingRepo.save(booking(monday.plusDays(1), "Daycare (6 AM - 3 PM)"));
+            status.setRollbackOnly();
+        });
+
+        assertThat(snapshot(monday).getBookingCount()).isEqualTo(1);
+        assertThat(snapshot(monday).getCurrentAmount()).isEqualByComparingTo("45.00");
+    }
+
+    @Test
+    void weeklyRows_joinTheWeeksInvoice() {
+        LocalDate monday = LocalDate.of(2025, 6, 2);
+        Booking b = book(monday, "Daycare (6 AM - 3 PM)");
+        b.setPaid(true);
+        bookingRepo.save(b);
+        assertThat(weeklyInvoiceService.weeklyRows(monday))
+                .singleElement()
+                .satisfies(r -> {
+                    assertThat(r.getInvoiceId()).isNull();
+                    assertThat(r.isInvoicePaid()).isFalse();
+                    assertThat(r.isPaid()).isFalse();
+                });
+
+        Invoice invoice = new Invoice();
+        invoice.setCustomerEmail("snapshot@example.com");
+        invoice.setCustomerName("Snapshot");
+        invoice.setWeekStart(monday);
+        invoice.setWeekEnd(monday.plusDays(6));
+        invoice.setAmount(new BigDecimal("45.00"));
+        invoice.setPaid(true);
+        invoice = invoiceRepo.save(invoice);
+
+        Long invoiceId = invoice.getId();
+        assertThat(weeklyInvoiceService.weeklyRows(monday))
+                .singleElement()
+                .satisfies(r -> {
+                    assertThat(r.getInvoiceId()).isEqualTo(invoiceId);
+                    assertThat(r.isInvoicePaid()).isTrue();
+                    assertThat(r.isPaid()).isTrue();
+                    assertThat(r.getDeltaUnpaidRaw()).isEqualByComparingTo("0");
+                });
+    }
+
+    @Test
+    void priorMonthBoarding_refreshesNextMonthsWeeks() {
+        // Single April night: last of block, immediate rate → 1.5 × 90
+        LocalDate aprilMonday = LocalDate.of(2025, 4, 14);
+        book(aprilMonday.plusDays(2), "Boarding");
+        assertThat(snapshot(aprilMonday).getCurrentAmount()).isEqualByComparingTo("135.00");
+
+        // 4 March nights move April to the ≥4 tier → 1.5 × 80
+        for (int i = 0; i < 4; i++) book(LocalDate.of(2025, 3, 10).plusDays(i), "Boarding");
+        assertThat(snapshot(aprilMonday).getCurrentAmount()).isEqualByComparingTo("120.00");
+    }
+}
@@ -0,0 +1,124 @@
+package com.dogdaycare.it;
+
+import com.dogdaycare.model.Booking;
+import com.dogdaycare.model.BookingStatus;
+import com.dogdaycare.model.Invoice;
+import com.dogdaycare.model.User;
+import com.dogdaycare.repository.BookingRepository;
+import com.dogdaycare.repository.InvoiceRepository;
+import com.dogdaycare.repository.InvoiceSnapshotRepository;
+import com.dogdaycare.repository.InvoiceSnapshotWeekRepository;
+import com.dogdaycare.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Admin paths that read Booking.customer (lazy), run the way production does: no open
+ * session in view and no test transaction, so an uninitialized proxy fails the request.
+ */
+@SpringBootTest(properties = "spring.jpa.open-in-view=false")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@WithMockUser(username = "admin", roles = "ADMIN")
+class LazyCustomerWithoutOpenInViewIntegrationTest {
+
+    @Autowired MockMvc mvc;
+    @Autowired BookingRepository bookingRepo;
+    @Autowired InvoiceRepository invoiceRepo;
+    @Autowired InvoiceSnapshotRepository snapshotRepo;
+    @Autowired InvoiceSnapshotWeekRepository snapshotWeekRepo;
+    @Autowired UserRepository userRepo;
+
+    private final LocalDate monday = LocalDate.of(2025, 6, 2);
+    private User customer;
+
+    @BeforeEach
+    void setup() {
+        cleanup();
+        User u = new User();
+        u.setUsername("lazy@example.com");
+        u.setPassword("{noop}pw");
+        u.setRole("CUSTOMER");
+        u.setEnabled(true);
+        customer = userRepo.save(u);
+    }
+
+    @AfterEach
+    void cleanup() {
+        snapshotRepo.deleteAll();
+        snapshotWeekRepo.deleteAll();
+        invoiceRepo.deleteAll();
+        bookingRepo.deleteAll();
+        userRepo.deleteAll();
+    }
+
+    private Booking book(LocalDate date) {
+        Booking b = new Booking();
+        b.setCustomer(customer);
+        b.setDate(date);
+        b.setTime(LocalTime.of(8, 0));
+        b.setServiceType("Daycare (6 AM - 3 PM)");
+        b.setStatus(BookingStatus.APPROVED);
+        return bookingRepo.save(b);
+    }
+
+    @Test
+    void dayView_rendersCustomerNames() throws Exception {
+        book(monday);
+
+        mvc.perform(get("/admin/bookings/view").param("date", monday.toString()))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("lazy@example.com")));
+        mvc.perform(get("/admin/bookings").param("date", monday.toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].customerEmail").value("lazy@example.com"));
+    }
+
+    @Test
+    void markDayPaid_paysTheDayAndInvoicesTheFullyPaidWeek() throws Exception {
+        Booking b = book(monday);
+
+        mvc.perform(post("/admin/bookings/mark-paid/" + b.getId()).with(csrf()))
+                .andExpect(status().is3xxRedirection());
+
+        assertThat(bookingRepo.findById(b.getId()).orElseThrow().isPaid()).isTrue();
+        assertThat(invoiceRepo.findByCustomerEmailAndWeekStart("lazy@example.com", monday))
+                .get().extracting(Invoice::isPaid).isEqualTo(true);
+    }
+
+    @Test
+    void markInvoicePaid_paysEveryBookingOfTheWeek() throws Exception {
+        Booking first = book(monday);
+        Booking second = book(monday.plusDays(1));
+
+        mvc.perform(post("/admin/invoices/mark-paid").with(csrf())
+                        .param("email", "lazy@example.com")
+                        .param("start", monday.toString()))
+                .andExpect(status().is3xxRedirection());
+
+        assertThat(bookingRepo.findAllById(List.of(first.getId(), second.getId())))
+                .allMatch(Booking::isPaid);
+        assertThat(invoiceRepo.findByCustomerEmailAndWeekStart("lazy@example.com", monday))
+                .get().extracting(Invoice::getAmount).isNotNull();
+    }
+}
@@ -1,6 +1,7 @@
 package com.dogdaycare.it;
 
 import com.dogdaycare.model.Booking;
+import com.dogdaycare.model.BookingStatus;
 import com.dogdaycare.model.User;
 import com.dogdaycare.repository.BookingRepository;
 import com.dogdaycare.repository.UserRepository;
@@ -51,7 +52,7 @@ class PricingEdgeCasesIT {
         customer = userRepo.save(customer);
     }
 
-    private Booking newBooking(LocalDate date, String serviceType, int dogs, String status) {
+    private Booking newBooking(LocalDate date, String serviceType, int dogs, BookingStatus status) {
         Booking b = new Booking();
         b.setCustomer(customer);
         b.setDate(date);
@@ -64,11 +65,11 @@ class PricingEdgeCasesIT {
     @Test
     void canceledMondayDaycare_doesNotWaivePickup() {
         LocalDate sun = LocalDate.of(2025, 10, 19); // Sunday
-        Booking sundayBoarding = newBooking(sun, "Boarding", 1, "APPROVED");
+        Booking sundayBoarding = newBooking(sun, "Boarding", 1, BookingStatus.APPROVED);
 
         BigDecimal before = pricingService.priceFor(sundayBoarding); // expect 135.00 with empty next day
         // Add Monday daycare BUT canceled
-        newBooking(sun.plusDays(1), "Daycare (6 AM - 3 PM)", 1, "CANCELED");
+        newBooking(sun.plusDays(1), "Daycare (6 AM - 3 PM)", 1, BookingStatus.CANCELED);
 
         BigDecimal after = pricingService.priceFor(sundayBoarding);
         assertThat(after).isEqualByComparingTo(before); // waiver should NOT apply
@@ -78,12 +79,12 @@ class PricingEdgeCasesIT {
     @Test
     void afterHoursMondayDaycare_doesNotWaivePickup() {
         LocalDate sun = LocalDate.of(2025, 10, 19); // Sunday
-        Booking sundayBoarding = newBooking(sun, "Boarding", 1, "APPROVED");
+        Booking sundayBoarding = newBooking(sun, "Boarding", 1, BookingStatus.APPROVED);
 
         BigDecimal before = pricingService.priceFor(sundayBoarding); // 135.00 baseline
 
         // Monday Daycare After Hours (should not trigger waiver)
-        newBooking(sun.plusDays(1), "Daycare After Hours", 1, "APPROVED");
+        newBooking(sun.plusDays(1), "Daycare After Hours", 1, BookingStatus.APPROVED);
 
         BigDecimal after = pricingService.priceFor(sundayBoarding);
         assertThat(after).isEqualByComparingTo(before); // still 135.00
@@ -93,7 +94,7 @@ class PricingEdgeCasesIT {
     @Test
     void twoDogBoarding_multipliesInAdminBookingsJson() throws Exception {
         LocalDate sun = LocalDate.of(2025, 10, 19); // Sunday
-        newBooking(sun, "Boarding", 2, "APPROVED");
+        newBooking(sun, "Boarding", 2, BookingStatus.APPROVED);
 
         // No Monday daycare → pickup applies → 135 per dog × 2 = 270.00
         mvc.perform(get("/admin/bookings").param("date", sun.toString()))
@@ -1,6 +1,7 @@
 package com.dogdaycare.it;
 
 import com.dogdaycare.model.Booking;
+import com.dogdaycare.model.BookingStatus;
 import com.dogdaycare.model.EvaluationRequest;
 import com.dogdaycare.model.User;
 import com.dogdaycare.repository.BookingRepository;
@@ -82,7 +83,7 @@ class PricingFlowIntegrationTest {
         b.setDate(date);
         b.setTime(LocalTime.of(9, 0));
         b.setServiceType(service);
-        b.setStatus("APPROVED");
+        b.setStatus(BookingStatus.APPROVED);
         b.setDogCount(dogs);
         b.setCreatedAt(LocalDateTime.now(clock));
         bookingRepo.save(b);
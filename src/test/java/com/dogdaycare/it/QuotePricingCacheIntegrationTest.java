@@ -0,0 +1,116 @@
+package com.dogdaycare.it;
+
+import com.dogdaycare.model.Booking;
+import com.dogdaycare.model.BookingStatus;
+import com.dogdaycare.model.User;
+import com.dogdaycare.repository.BookingRepository;
+import com.dogdaycare.repository.UserRepository;
+import com.dogdaycare.service.BundleService;
+import com.dogdaycare.service.PricingService;
+import com.dogdaycare.service.QuotePricingCache;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+class QuotePricingCacheIntegrationTest {
+
+    @Autowired QuotePricingCache quoteCache;
+    @Autowired PricingService pricingService;
+    @Autowired BookingRepository bookingRepo;
+    @Autowired UserRepository userRepo;
+
+    private final LocalDate monday = LocalDate.of(2025, 7, 7);
+    private User customer;
+
+    @BeforeEach
+    void setup() {
+        bookingRepo.deleteAll();
+        userRepo.deleteAll();
+        quoteCache.invalidateAll();
+
+        customer = new User();
+        customer.setUsername("quote@example.com");
+        customer.setPassword("{noop}pw");
+        customer.setRole("CUSTOMER");
+        customer.setEnabled(true);
+        customer = userRepo.save(customer);
+    }
+
+    private Booking book(LocalDate date, String serviceType) {
+        Booking b = new Booking();
+        b.setCustomer(customer);
+        b.setDate(date);
+        b.setTime(LocalTime.of(8, 0));
+        b.setServiceType(serviceType);
+        b.setStatus(BookingStatus.APPROVED);
+        b.setAdvanceEligible(true);
+        b.setWantsAdvancePay(true);
+        return bookingRepo.save(b);
+    }
+
+    @Test
+    void contextIsReused_untilTheCustomersBookingsChange() {
+        book(monday, "Daycare (6 AM - 3 PM)");
+
+        QuotePricingCache.WeekContext first = quoteCache.get("quote@example.com", monday.plusDays(2));
+        assertThat(first.engine().prepayDaycareCount()).isEqualTo(1);
+        assertThat(quoteCache.get("quote@example.com", monday.plusDays(4))).isSameAs(first);
+
+        book(monday.plusDays(1), "Daycare (6 AM - 3 PM)");
+        QuotePricingCache.WeekContext second = quoteCache.get("quote@example.com", monday);
+        assertThat(second).isNotSameAs(first);
+        assertThat(second.engine().prepayDaycareCount()).isEqualTo(2);
+    }
+
+    @Test
+    void invalidationDuringALoad_keepsTheLoadedContextOutOfTheCache() {
+        book(monday, "Daycare (6 AM - 3 PM)");
+
+        // A booking commits (and invalidates) after the load read the bookings, before it caches
+        BundleService bundles = mock(BundleService.class);
+        QuotePricingCache cache = new QuotePricingCache(userRepo, pricingService, bundles, 100, Duration.ofMinutes(5));
+        AtomicBoolean firstLoad = new AtomicBoolean(true);
+        when(bundles.hasWeekPaid(any(), any())).thenAnswer(inv -> {
+            if (firstLoad.getAndSet(false)) cache.invalidateCustomer(customer.getId());
+            return false;
+        });
+
+        QuotePricingCache.WeekContext raced = cache.get("quote@example.com", monday);
+        QuotePricingCache.WeekContext reloaded = cache.get("quote@example.com", monday);
+        assertThat(reloaded).isNotSameAs(raced);
+        assertThat(cache.get("quote@example.com", monday)).isSameAs(reloaded);
+    }
+
+    @Test
+    void boardingQuote_matchesPriceForOfAnUnsavedProbe() {
+        // 4 prior-month nights + Wed boarding already booked → a Tue night is not last-of-block
+        for (int i = 0; i < 4; i++) book(LocalDate.of(2025, 6, 2).plusDays(i), "Boarding");
+        book(monday.plusDays(2), "Boarding");
+
+        for (LocalDate night : new LocalDate[]{monday.plusDays(1), monday.plusDays(4)}) {
+            Booking probe = new Booking();
+            probe.setCustomer(customer);
+            probe.setServiceType("Boarding");
+            probe.setDate(night);
+
+            assertThat(quoteCache.get("quote@example.com", night).engine().quoteBoarding(night))
+                    .isEqualByComparingTo(pricingService.priceFor(probe));
+        }
+    }
+}
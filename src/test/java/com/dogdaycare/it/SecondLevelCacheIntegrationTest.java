@@ -0,0 +1,145 @@
+package com.dogdaycare.it;
+
+import com.dogdaycare.config.SecondLevelCacheConfig;
+import com.dogdaycare.model.EvaluationRequest;
+import com.dogdaycare.model.User;
+import com.dogdaycare.repository.BookingRepository;
+import com.dogdaycare.repository.EvaluationRepository;
+import com.dogdaycare.repository.OutboundEmailRepository;
+import com.dogdaycare.repository.UserRepository;
+import com.dogdaycare.service.SecondLevelCacheStats;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Not @Transactional on purpose — the second-level cache is only filled and updated on commit.
+ */
+@SpringBootTest(properties = "app.l2-cache.enabled=true")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class SecondLevelCacheIntegrationTest {
+
+    @Autowired MockMvc mvc;
+    @Autowired EntityManagerFactory emf;
+    @Autowired SecondLevelCacheStats cacheStats;
+    @Autowired UserRepository userRepo;
+    @Autowired EvaluationRepository evaluationRepo;
+    @Autowired BookingRepository bookingRepo;
+    @Autowired OutboundEmailRepository outboxRepo;
+
+    private User customer;
+    private Statistics stats;
+
+    @BeforeEach
+    void setup() {
+        cleanup();
+        User u = new User();
+        u.setUsername("l2@example.com");
+        u.setPassword("{noop}pw");
+        u.setRole("CUSTOMER");
+        u.setEnabled(true);
+        customer = userRepo.save(u);
+
+        stats = emf.unwrap(SessionFactory.class).getStatistics();
+        stats.clear();
+    }
+
+    @AfterEach
+    void cleanup() {
+        outboxRepo.deleteAll();
+        evaluationRepo.deleteAll();
+        bookingRepo.deleteAll();
+        userRepo.deleteAll();
+        emf.getCache().evictAll();
+    }
+
+    @Test
+    void usersAndUsernameLookups_areServedFromTheCache() {
+        // IDENTITY inserts aren't cached on commit: the first read loads and puts, the second hits
+        userRepo.findById(customer.getId()).orElseThrow();
+        userRepo.findById(customer.getId()).orElseThrow();
+        assertThat(stats.getCacheRegionStatistics(SecondLevelCacheConfig.USERS).getHitCount()).isEqualTo(1);
+
+        userRepo.findByUsername("l2@example.com").orElseThrow();
+        userRepo.findByUsername("l2@example.com").orElseThrow();
+        assertThat(stats.getCacheRegionStatistics(SecondLevelCacheConfig.USERS_BY_USERNAME).getHitCount()).isEqualTo(1);
+        // One select by id, one by username; everything else came from the cache
+        assertThat(stats.getPrepareStatementCount()).isEqualTo(2);
+    }
+
+    @Test
+    @WithMockUser(username = "admin", roles = "ADMIN")
+    void toggleUser_isVisibleThroughTheCache() throws Exception {
+        assertThat(userRepo.findById(customer.getId()).orElseThrow().isEnabled()).isTrue();
+        assertThat(userRepo.findByUsername("l2@example.com").orElseThrow().isEnabled()).isTrue();
+
+        mvc.perform(post("/admin/toggle/" + customer.getId()).with(csrf()))
+                .andExpect(status().is3xxRedirection());
+
+        assertThat(userRepo.findById(customer.getId()).orElseThrow().isEnabled()).isFalse();
+        assertThat(userRepo.findByUsername("l2@example.com").orElseThrow().isEnabled()).isFalse();
+    }
+
+    @Test
+    @WithMockUser(username = "admin", roles = "ADMIN")
+    void approveEvaluation_dropsTheCachedMissAndUpdatesTheEvaluation() throws Exception {
+        EvaluationRequest e = new EvaluationRequest();
+        e.setEmail("new@example.com");
+        e.setClientName("New Client");
+        e.setPhone("555-555-5555");
+        e.setDogName("Rex");
+        e.setDogBreed("Mutt");
+        e.setCreatedAt(LocalDateTime.now());
+        e.setAdditionalDogs(List.of(new EvaluationRequest.AdditionalDog("Bo", "Lab")));
+        e = evaluationRepo.save(e);
+
+        // Cached "no such user" from a login attempt before approval
+        assertThat(userRepo.findByUsername("new@example.com")).isEmpty();
+        assertThat(userRepo.findByUsername("new@example.com")).isEmpty();
+        assertThat(evaluationRepo.findById(e.getId()).orElseThrow().isApproved()).isFalse();
+
+        mvc.perform(post("/admin/approve/" + e.getId()).param("password", "secret").with(csrf()))
+                .andExpect(status().is3xxRedirection());
+
+        assertThat(userRepo.findByUsername("new@example.com")).isPresent();
+        EvaluationRequest cached = evaluationRepo.findById(e.getId()).orElseThrow();
+        assertThat(cached.isApproved()).isTrue();
+        // @PostLoad still runs for entities assembled from the cache
+        assertThat(cached.getAdditionalDogs()).extracting(EvaluationRequest.AdditionalDog::getName).containsExactly("Bo");
+        assertThat(stats.getCacheRegionStatistics(SecondLevelCacheConfig.EVALUATIONS).getHitCount()).isPositive();
+    }
+
+    @Test
+    @WithMockUser(username = "admin", roles = "ADMIN")
+    void cacheStats_listTheRegions() throws Exception {
+        userRepo.findById(customer.getId()).orElseThrow();
+        userRepo.findById(customer.getId()).orElseThrow();
+
+        assertThat(cacheStats.regions()).extracting(SecondLevelCacheStats.Region::name)
+                .contains(SecondLevelCacheConfig.USERS, SecondLevelCacheConfig.EVALUATIONS,
+                        SecondLevelCacheConfig.USERS_BY_USERNAME);
+        mvc.perform(get("/admin/cache-stats"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[?(@.name == 'users')].hits").value(1));
+    }
+}
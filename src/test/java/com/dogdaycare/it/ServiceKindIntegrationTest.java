@@ -0,0 +1,114 @@
+package com.dogdaycare.it;
+
+import com.dogdaycare.model.Booking;
+import com.dogdaycare.model.BookingStatus;
+import com.dogdaycare.model.ServiceKind;
+import com.dogdaycare.model.User;
+import com.dogdaycare.repository.BookingRepository;
+import com.dogdaycare.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+class ServiceKindIntegrationTest {
+
+    @Autowired BookingRepository bookingRepo;
+    @Autowired UserRepository userRepo;
+
+    private final LocalDate monday = LocalDate.of(2025, 6, 2);
+    private User customer;
+
+    @BeforeEach
+    void setup() {
+        bookingRepo.deleteAll();
+        userRepo.deleteAll();
+
+        User u = new User();
+        u.setUsername("kinds@example.com");
+        u.setPassword("{noop}pw");
+        u.setRole("CUSTOMER");
+        u.setEnabled(true);
+        customer = userRepo.save(u);
+    }
+
+    private Booking book(LocalDate date, String serviceType, BookingStatus status) {
+        Booking b = new Booking();
+        b.setCustomer(customer);
+        b.setDate(date);
+        b.setTime(LocalTime.of(8, 0));
+        b.setServiceType(serviceType);
+        b.setStatus(status);
+        return bookingRepo.save(b);
+    }
+
+    @Test
+    void of_classifiesTheServiceLabels() {
+        assertThat(ServiceKind.of("Daycare (6 AM - 3 PM)")).isEqualTo(ServiceKind.DAYCARE_HALF_DAY);
+        assertThat(ServiceKind.of("Daycare (6 AM - 8 PM)")).isEqualTo(ServiceKind.DAYCARE_FULL_DAY);
+        assertThat(ServiceKind.of("Daycare After Hours (6 AM - 11 PM)")).isEqualTo(ServiceKind.DAYCARE_AFTER_HOURS);
+        assertThat(ServiceKind.of("daycare")).isEqualTo(ServiceKind.DAYCARE_OTHER);
+        assertThat(ServiceKind.of("Boarding")).isEqualTo(ServiceKind.BOARDING);
+        assertThat(ServiceKind.of("Grooming")).isEqualTo(ServiceKind.OTHER);
+        assertThat(ServiceKind.of(null)).isEqualTo(ServiceKind.OTHER);
+
+        assertThat(ServiceKind.DAYCARE_AFTER_HOURS.isDaycare()).isTrue();
+        assertThat(ServiceKind.BOARDING.isDaycare()).isFalse();
+    }
+
+    @Test
+    void kindFollowsServiceType_andIsPersisted() {
+        Booking b = book(monday, "Daycare (6 AM - 3 PM)", BookingStatus.APPROVED);
+        b.setServiceType("Boarding");
+        bookingRepo.saveAndFlush(b);
+
+        assertThat(bookingRepo.findById(b.getId()).orElseThrow().getServiceKind()).isEqualTo(ServiceKind.BOARDING);
+    }
+
+    @Test
+    void kindQueries_filterByEquality() {
+        book(monday, "Daycare (6 AM - 3 PM)", BookingStatus.APPROVED);
+        book(monday.plusDays(1), "Daycare After Hours (6 AM - 11 PM)", BookingStatus.APPROVED);
+        book(monday.plusDays(2), "Daycare (6 AM - 8 PM)", BookingStatus.CANCELED);
+        book(monday.plusDays(3), "Boarding", BookingStatus.APPROVED);
+        book(monday.plusDays(4), "Boarding", BookingStatus.CANCELED);
+
+        List<Booking> daycare = bookingRepo.findActiveByCustomerAndServiceKindInAndDateBetween(
+                customer, ServiceKind.DAYCARE, monday, monday.plusDays(6));
+        assertThat(daycare).extracting(Booking::getServiceKind)
+                .containsExactlyInAnyOrder(ServiceKind.DAYCARE_HALF_DAY, ServiceKind.DAYCARE_AFTER_HOURS);
+
+        assertThat(bookingRepo.findActiveBoardingByCustomerIdInAndDateBetween(
+                Set.of(customer.getId()), monday, monday.plusDays(6)))
+                .extracting(Booking::getDate).containsExactly(monday.plusDays(3));
+        assertThat(bookingRepo.findCustomerIdsWithActiveBoarding(monday, monday.plusDays(6)))
+                .containsExactly(customer.getId());
+
+        assertThat(bookingRepo.countActiveByCustomerAndServiceKindIn(
+                Set.of(customer.getId()), ServiceKind.DAYCARE, monday, monday.plusDays(6)))
+                .singleElement()
+                .satisfies(c -> assertThat(c.getBookings()).isEqualTo(2));
+
+        Map<ServiceKind, Long> perKind = bookingRepo.countActiveByDateAndServiceKind(monday, monday.plusDays(6)).stream()
+                .collect(Collectors.groupingBy(BookingRepository.DayServiceCount::getServiceKind,
+                        Collectors.summingLong(BookingRepository.DayServiceCount::getBookings)));
+        assertThat(perKind).containsOnly(
+                Map.entry(ServiceKind.DAYCARE_HALF_DAY, 1L),
+                Map.entry(ServiceKind.DAYCARE_AFTER_HOURS, 1L),
+                Map.entry(ServiceKind.BOARDING, 1L));
+    }
+}
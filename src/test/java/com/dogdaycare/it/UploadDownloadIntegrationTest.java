@@ -0,0 +1,157 @@
+package com.dogdaycare.it;
+
+import com.dogdaycare.model.UploadedFile;
+import com.dogdaycare.model.User;
+import com.dogdaycare.repository.BookingRepository;
+import com.dogdaycare.repository.FileRepository;
+import com.dogdaycare.repository.UploadBlobRepository;
+import com.dogdaycare.repository.UserRepository;
+import com.dogdaycare.service.UploadService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@Transactional
+class UploadDownloadIntegrationTest {
+
+    private static final String BODY = "0123456789abcdefghij"; // 20 bytes
+
+    @Autowired MockMvc mvc;
+    @Autowired UploadService uploadService;
+    @Autowired BookingRepository bookingRepo;
+    @Autowired FileRepository fileRepo;
+    @Autowired UploadBlobRepository blobRepo;
+    @Autowired UserRepository userRepo;
+
+    private UploadedFile upload;
+    private String url;
+    private String etag;
+
+    @BeforeEach
+    void setup() throws Exception {
+        bookingRepo.deleteAll();
+        fileRepo.deleteAll();
+        blobRepo.deleteAll();
+        userRepo.deleteAll();
+
+        User owner = new User();
+        owner.setUsername("owner@example.com");
+        owner.setPassword("{noop}pw");
+        owner.setRole("CUSTOMER");
+        owner.setEnabled(true);
+        owner = userRepo.save(owner);
+
+        User other = new User();
+        other.setUsername("other@example.com");
+        other.setPassword("{noop}pw");
+        other.setRole("CUSTOMER");
+        other.setEnabled(true);
+        userRepo.save(other);
+
+        upload = uploadService.storeForUser(owner,
+                new MockMultipartFile("file", "Rabies.pdf", "application/pdf", BODY.getBytes(StandardCharsets.UTF_8)),
+                null, null);
+        url = "/uploads/" + upload.getId() + "/download";
+        etag = "\"" + upload.getSha256() + "\"";
+    }
+
+    @Test
+    @WithMockUser(username = "owner@example.com", roles = "CUSTOMER")
+    void fullDownload_advertisesValidatorsAndRanges() throws Exception {
+        mvc.perform(get(url))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, etag))
+                .andExpect(header().exists(HttpHeaders.LAST_MODIFIED))
+                .andExpect(header().string(HttpHeaders.ACCEPT_RANGES, "bytes"))
+                .andExpect(header().longValue(HttpHeaders.CONTENT_LENGTH, 20))
+                .andExpect(header().string(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"Rabies.pdf\""))
+                .andExpect(content().contentType("application/pdf"))
+                .andExpect(content().string(BODY));
+    }
+
+    @Test
+    @WithMockUser(username = "owner@example.com", roles = "CUSTOMER")
+    void rangeRequests_get206WithContentRange() throws Exception {
+        mvc.perform(get(url).header(HttpHeaders.RANGE, "bytes=2-5"))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 2-5/20"))
+                .andExpect(header().longValue(HttpHeaders.CONTENT_LENGTH, 4))
+                .andExpect(content().string("2345"));
+
+        // Suffix and open-ended ranges
+        mvc.perform(get(url).header(HttpHeaders.RANGE, "bytes=-3"))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 17-19/20"))
+                .andExpect(content().string("hij"));
+        mvc.perform(get(url).header(HttpHeaders.RANGE, "bytes=15-"))
+                .andExpect(status().isPartialContent())
+                .andExpect(content().string("fghij"));
+
+        mvc.perform(get(url).header(HttpHeaders.RANGE, "bytes=40-50"))
+                .andExpect(status().isRequestedRangeNotSatisfiable())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes */20"));
+
+        // If-Range with a stale validator => whole file
+        mvc.perform(get(url).header(HttpHeaders.RANGE, "bytes=2-5").header(HttpHeaders.IF_RANGE, "\"stale\""))
+                .andExpect(status().isOk())
+                .andExpect(content().string(BODY));
+        mvc.perform(get(url).header(HttpHeaders.RANGE, "bytes=2-5").header(HttpHeaders.IF_RANGE, etag))
+                .andExpect(status().isPartialContent());
+    }
+
+    @Test
+    @WithMockUser(username = "owner@example.com", roles = "CUSTOMER")
+    void conditionalGets_get304WithoutBody() throws Exception {
+        mvc.perform(get(url).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, etag))
+                .andExpect(content().string(""));
+
+        String lastModified = mvc.perform(get(url)).andReturn().getResponse().getHeader(HttpHeaders.LAST_MODIFIED);
+        mvc.perform(get(url).header(HttpHeaders.IF_MODIFIED_SINCE, lastModified))
+                .andExpect(status().isNotModified());
+
+        mvc.perform(get(url).header(HttpHeaders.IF_NONE_MATCH, "\"something-else\""))
+                .andExpect(status().isOk())
+                .andExpect(content().string(BODY));
+    }
+
+    @Test
+    @WithMockUser(username = "other@example.com", roles = "CUSTOMER")
+    void otherCustomers_areForbidden() throws Exception {
+        mvc.perform(get(url).header(HttpHeaders.RANGE, "bytes=0-1"))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    @WithMockUser(username = "admin", roles = "ADMIN")
+    void adminDownload_sharesTheRangeAndConditionalHandling() throws Exception {
+        String adminUrl = "/admin/uploads/" + upload.getId() + "/download";
+
+        mvc.perform(get(adminUrl).header(HttpHeaders.RANGE, "bytes=0-3"))
+                .andExpect(status().isPartialContent())
+                .andExpect(content().string("0123"));
+        mvc.perform(get(adminUrl).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+        mvc.perform(get("/admin/uploads/999999/download"))
+                .andExpect(status().isNotFound());
+    }
+}
@@ -0,0 +1,187 @@
+package com.dogdaycare.it;
+
+import com.dogdaycare.model.UploadBlob;
+import com.dogdaycare.model.UploadedFile;
+import com.dogdaycare.model.User;
+import com.dogdaycare.repository.BookingRepository;
+import com.dogdaycare.repository.FileRepository;
+import com.dogdaycare.repository.UploadBlobRepository;
+import com.dogdaycare.repository.UserRepository;
+import com.dogdaycare.service.UploadService;
+import com.dogdaycare.service.UploadStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.HexFormat;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+class UploadStoreIntegrationTest {
+
+    @Autowired UploadService uploadService;
+    @Autowired BookingRepository bookingRepo;
+    @Autowired FileRepository fileRepo;
+    @Autowired UserRepository userRepo;
+    @Autowired UploadBlobRepository blobRepo;
+    @Autowired UploadStore uploadStore;
+    @Autowired Clock clock;
+
+    private User customer;
+
+    @BeforeEach
+    void setup() {
+        bookingRepo.deleteAll();
+        fileRepo.deleteAll();
+        blobRepo.deleteAll();
+        userRepo.deleteAll();
+
+        customer = customer("uploads@example.com");
+    }
+
+    private User customer(String email) {
+        User u = new User();
+        u.setUsername(email);
+        u.setPassword("{noop}pw");
+        u.setRole("CUSTOMER");
+        u.setEnabled(true);
+        return userRepo.save(u);
+    }
+
+    private static MockMultipartFile pdf(String name, String content) {
+        return new MockMultipartFile("file", name, "application/pdf", content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String sha256Hex(byte[] bytes) throws Exception {
+        return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(bytes));
+    }
+
+    @Test
+    void storeForUser_streamsToDisk_andRecordsSizeAndHash() throws Exception {
+        // Spans several 64 KB buffers
+        byte[] pdf = new byte[200_000];
+        for (int i = 0; i < pdf.length; i++) pdf[i] = (byte) (i * 31);
+
+        UploadedFile uf = uploadService.storeForUser(customer,
+                new MockMultipartFile("file", "VetRecord.pdf", "application/pdf", pdf),
+                "Rabies", LocalDate.of(2026, 1, 1));
+
+        assertThat(uf.getFileName()).isEqualTo("VetRecord.pdf");
+        assertThat(uf.getSizeBytes()).isEqualTo(pdf.length);
+        assertThat(uf.getSha256()).isEqualTo(sha256Hex(pdf));
+
+        Path stored = Path.of(uf.getFilePath());
+        assertThat(stored).isEqualTo(uploadStore.blobPath(uf.getSha256()));
+        assertThat(stored.getParent().getFileName().toString()).isEqualTo(uf.getSha256().substring(2, 4));
+        assertThat(Files.readAllBytes(stored)).isEqualTo(pdf);
+        try (Stream<Path> files = Files.list(stored.getParent().getParent().getParent().getParent())) {
+            assertThat(files.map(p -> p.getFileName().toString())).noneMatch(n -> n.endsWith(".part"));
+        }
+
+        assertThat(fileRepo.findBySha256(sha256Hex(pdf))).extracting(UploadedFile::getId).containsExactly(uf.getId());
+    }
+
+    @Test
+    void oversizedStream_isRejected_andLeavesNothingBehind(@TempDir Path dir) throws Exception {
+        UploadStore store = new UploadStore(dir.toString(), DataSize.ofBytes(100), blobRepo, clock);
+
+        // Declared size can't be trusted, so the limit is enforced on the bytes actually read
+        assertThatThrownBy(() -> store.store(new ByteArrayInputStream(new byte[101]), "big.pdf", "application/pdf"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("100 bytes");
+        assertThatThrownBy(() -> store.store(new MockMultipartFile("file", "big.pdf", "application/pdf", new byte[101])))
+                .isInstanceOf(IllegalArgumentException.class);
+
+        try (Stream<Path> files = Files.walk(dir)) {
+            assertThat(files.filter(Files::isRegularFile)).isEmpty();
+        }
+
+        byte[] ok = "well within the limit".getBytes(StandardCharsets.UTF_8);
+        UploadStore.StoredUpload stored = store.store(new ByteArrayInputStream(ok), "ok.txt", "text/plain");
+        assertThat(stored.sizeBytes()).isEqualTo(ok.length);
+        assertThat(stored.sha256()).isEqualTo(sha256Hex(ok));
+    }
+
+    @Test
+    void identicalContent_isStoredOnce_andRemovedWithTheLastReference() throws Exception {
+        User other = customer("other@example.com");
+
+        UploadedFile a = uploadService.storeForUser(customer, pdf("Rabies.pdf", "same vaccination record"), null, null);
+        UploadedFile b = uploadService.storeForUser(other, pdf("rabies-2025.pdf", "same vaccination record"), null, null);
+        UploadedFile c = uploadService.storeForUser(customer, pdf("Bordetella.pdf", "a different record"), null, null);
+
+        assertThat(b.getFilePath()).isEqualTo(a.getFilePath());
+        assertThat(c.getFilePath()).isNotEqualTo(a.getFilePath());
+        assertThat(b.getFileName()).isEqualTo("rabies-2025.pdf");
+        assertThat(blobRepo.findById(a.getSha256())).get().extracting(UploadBlob::getRefCount).isEqualTo(2);
+
+        Path shared = Path.of(a.getFilePath());
+        uploadService.delete(a);
+        assertThat(shared).exists();
+        assertThat(blobRepo.findById(a.getSha256())).get().extracting(UploadBlob::getRefCount).isEqualTo(1);
+
+        uploadService.delete(b);
+        assertThat(shared).doesNotExist();            // moved aside now, deleted on commit
+        assertThat(blobRepo.findById(a.getSha256())).isEmpty();
+        assertThat(Path.of(c.getFilePath())).exists();
+
+        // Same content again after the last reference went away => stored afresh
+        UploadedFile again = uploadService.storeForUser(customer, pdf("Rabies.pdf", "same vaccination record"), null, null);
+        assertThat(Path.of(again.getFilePath())).isEqualTo(shared).exists();
+        assertThat(blobRepo.findById(again.getSha256())).get().extracting(UploadBlob::getRefCount).isEqualTo(1);
+    }
+
+    @Test
+    void blobRows_recordedUnderAnotherUploadDir_stillReleaseTheSharedBlob() throws Exception {
+        UploadedFile a = uploadService.storeForUser(customer, pdf("Rabies.pdf", "same vaccination record"), null, null);
+        UploadedFile b = uploadService.storeForUser(customer("other@example.com"),
+                pdf("rabies-2025.pdf", "same vaccination record"), null, null);
+        Path shared = Path.of(a.getFilePath());
+
+        // Written before the upload mount moved
+        String hash = a.getSha256();
+        a.setFilePath(Path.of("/old-mount/uploads/blobs", hash.substring(0, 2), hash.substring(2, 4), hash).toString());
+        a = fileRepo.save(a);
+
+        uploadService.delete(a);
+        assertThat(shared).exists();
+        assertThat(blobRepo.findById(hash)).get().extracting(UploadBlob::getRefCount).isEqualTo(1);
+
+        uploadService.delete(b);
+        assertThat(shared).doesNotExist();
+        assertThat(blobRepo.findById(hash)).isEmpty();
+    }
+
+    @Test
+    void legacyFiles_outsideTheBlobStore_areDeletedWithTheirRow(@TempDir Path dir) throws Exception {
+        Path legacy = Files.writeString(dir.resolve("1712345678_shots.pdf"), "old upload");
+
+        UploadedFile uf = new UploadedFile();
+        uf.setUser(customer);
+        uf.setFileName("shots.pdf");
+        uf.setFilePath(legacy.toString());
+        uf = fileRepo.save(uf);
+
+        uploadService.delete(uf);
+        assertThat(legacy).doesNotExist();
+        assertThat(fileRepo.findById(uf.getId())).isEmpty();
+    }
+}
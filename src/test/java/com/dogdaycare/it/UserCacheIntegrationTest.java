@@ -0,0 +1,109 @@
+package com.dogdaycare.it;
+
+import com.dogdaycare.model.User;
+import com.dogdaycare.repository.BookingRepository;
+import com.dogdaycare.repository.FileRepository;
+import com.dogdaycare.repository.UploadBlobRepository;
+import com.dogdaycare.repository.UserRepository;
+import com.dogdaycare.service.CustomUserDetails;
+import com.dogdaycare.service.CustomUserDetailsService;
+import com.dogdaycare.service.UserCache;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@Transactional
+class UserCacheIntegrationTest {
+
+    @Autowired MockMvc mvc;
+    @Autowired UserCache userCache;
+    @Autowired CustomUserDetailsService userDetailsService;
+    @Autowired BookingRepository bookingRepo;
+    @Autowired FileRepository fileRepo;
+    @Autowired UploadBlobRepository blobRepo;
+    @Autowired UserRepository userRepo;
+
+    private User customer;
+
+    @BeforeEach
+    void setup() {
+        bookingRepo.deleteAll();
+        fileRepo.deleteAll();
+        blobRepo.deleteAll();
+        userRepo.deleteAll();
+        userCache.invalidateAll();
+
+        User u = new User();
+        u.setUsername("cached@example.com");
+        u.setPassword("{noop}pw");
+        u.setRole("CUSTOMER");
+        u.setEnabled(true);
+        customer = userRepo.save(u);
+    }
+
+    private static Authentication auth(CustomUserDetails details) {
+        return new UsernamePasswordAuthenticationToken(details, null, details.getAuthorities());
+    }
+
+    @Test
+    void login_buildsPrincipalWithId_andPrimesTheCache() {
+        CustomUserDetails details = (CustomUserDetails) userDetailsService.loadUserByUsername("cached@example.com");
+        assertThat(details.getUserId()).isEqualTo(customer.getId());
+        assertThat(details.getRole()).isEqualTo("CUSTOMER");
+        assertThat(details.getAuthorities()).extracting(Object::toString).containsExactly("ROLE_CUSTOMER");
+
+        // A change behind the cache's back isn't seen => no query per request
+        customer.setRole("SOMETHING_ELSE");
+        userRepo.saveAndFlush(customer);
+        User current = userCache.current(auth(details));
+        assertThat(current.getId()).isEqualTo(customer.getId());
+        assertThat(current.getRole()).isEqualTo("CUSTOMER");
+
+        // Callers get copies; mutating one doesn't touch the cache
+        current.setUsername("mutated@example.com");
+        assertThat(userCache.current(auth(details)).getUsername()).isEqualTo("cached@example.com");
+
+        userCache.invalidate(customer.getId());
+        assertThat(userCache.current(auth(details)).getRole()).isEqualTo("SOMETHING_ELSE");
+    }
+
+    @Test
+    void customerEndpoints_resolveTheCustomerFromThePrincipal() throws Exception {
+        CustomUserDetails details = (CustomUserDetails) userDetailsService.loadUserByUsername("cached@example.com");
+
+        mvc.perform(get("/booking/week-paid").param("date", "2025-06-04").with(user(details)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.weekPaid").value(false));
+    }
+
+    @Test
+    @WithMockUser(username = "admin", roles = "ADMIN")
+    void toggleUser_invalidatesTheCachedAccount() throws Exception {
+        userCache.put(customer);
+        assertThat(userCache.get(customer.getId()).isEnabled()).isTrue();
+
+        mvc.perform(post("/admin/toggle/" + customer.getId()).with(csrf()))
+                .andExpect(status().is3xxRedirection());
+
+        assertThat(userCache.get(customer.getId()).isEnabled()).isFalse();
+    }
+}
@@ -0,0 +1,98 @@
+package com.dogdaycare.it;
+
+import com.dogdaycare.model.Booking;
+import com.dogdaycare.model.BookingStatus;
+import com.dogdaycare.model.User;
+import com.dogdaycare.repository.BookingRepository;
+import com.dogdaycare.repository.UserRepository;
+import com.dogdaycare.service.PricingService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+class WeeklyPricingEngineIntegrationTest {
+
+    @Autowired PricingService pricingService;
+    @Autowired BookingRepository bookingRepo;
+    @Autowired UserRepository userRepo;
+
+    private User customer;
+
+    @BeforeEach
+    void setup() {
+        bookingRepo.deleteAll();
+        userRepo.deleteAll();
+
+        customer = new User();
+        customer.setUsername("engine@example.com");
+        customer.setPassword("{noop}pw");
+        customer.setRole("CUSTOMER");
+        customer.setEnabled(true);
+        customer = userRepo.save(customer);
+    }
+
+    private Booking booking(LocalDate date, String serviceType, boolean prepay) {
+        Booking b = new Booking();
+        b.setCustomer(customer);
+        b.setDate(date);
+        b.setServiceType(serviceType);
+        b.setStatus(BookingStatus.APPROVED);
+        b.setAdvanceEligible(prepay);
+        b.setWantsAdvancePay(prepay);
+        return bookingRepo.save(b);
+    }
+
+    @Test
+    void priceWeek_matchesPerBookingPriceFor() {
+        // Week straddling a month boundary: Mon 2025-03-31 .. Sun 2025-04-06
+        LocalDate mon = LocalDate.of(2025, 3, 31);
+
+        // 4 boarding nights in February → March nights tier; 10 in March → April nights tier
+        for (int i = 0; i < 4; i++) booking(LocalDate.of(2025, 2, 3).plusDays(i), "Boarding", false);
+        for (int i = 0; i < 10; i++) booking(LocalDate.of(2025, 3, 3).plusDays(i), "Boarding", false);
+
+        Booking monBoarding = booking(mon, "Boarding", false);            // March: ≥4 → 80, next night boarded
+        Booking tueBoarding = booking(mon.plusDays(1), "Boarding", false); // April: ≥10 → 75 × 1.5 (no daycare Wed)
+        booking(mon.plusDays(3), "Daycare (6 AM - 3 PM)", true);
+        booking(mon.plusDays(4), "Daycare (6 AM - 3 PM)", true);
+        booking(mon.plusDays(5), "Daycare (6 AM - 8 PM)", true);
+        Booking sunBoarding = booking(mon.plusDays(6), "Boarding", false); // Monday daycare next week → no pickup
+        booking(mon.plusDays(7), "Daycare (6 AM - 3 PM)", false);
+
+        Map<Long, BigDecimal> week = pricingService.priceWeek(customer, mon);
+
+        assertThat(week).hasSize(6);
+        assertThat(week.get(monBoarding.getId())).isEqualByComparingTo("80.00");
+        assertThat(week.get(tueBoarding.getId())).isEqualByComparingTo("112.50");
+        assertThat(week.get(sunBoarding.getId())).isEqualByComparingTo("75.00");
+
+        for (var e : week.entrySet()) {
+            Booking b = bookingRepo.findById(e.getKey()).orElseThrow();
+            assertThat(pricingService.priceFor(b)).isEqualByComparingTo(e.getValue());
+        }
+    }
+
+    @Test
+    void unsavedBoardingProbe_stillUsesPriorMonthTier() {
+        for (int i = 0; i < 16; i++) booking(LocalDate.of(2025, 1, 2).plusDays(i), "Boarding", false);
+
+        Booking probe = new Booking();
+        probe.setCustomer(customer);
+        probe.setDate(LocalDate.of(2025, 2, 12));
+        probe.setServiceType("Boarding");
+
+        assertThat(pricingService.priceFor(probe)).isEqualByComparingTo("97.50"); // 65 × 1.5
+    }
+}
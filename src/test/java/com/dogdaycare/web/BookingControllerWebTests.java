@@ -8,7 +8,11 @@ import com.dogdaycare.repository.FileRepository;
 import com.dogdaycare.repository.UserRepository;
 import com.dogdaycare.service.BookingLimitService;
 import com.dogdaycare.service.BundleService;
+import com.dogdaycare.service.CustomerBookingViewService;
 import com.dogdaycare.service.PricingService;
+import com.dogdaycare.service.QuotePricingCache;
+import com.dogdaycare.service.UserCache;
+import com.dogdaycare.service.WeeklyPricingEngine;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentMatchers;
@@ -16,6 +20,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.test.web.servlet.MockMvc;
 
@@ -33,6 +38,7 @@ import static org.springframework.test.web.servlet.request.MockMvcRequestBuilder
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @WebMvcTest(controllers = BookingController.class)
+@Import({CustomerBookingViewService.class, UserCache.class})
 @AutoConfigureMockMvc(addFilters = true)
 class BookingControllerWebTests {
 
@@ -45,6 +51,7 @@ class BookingControllerWebTests {
     @MockBean PricingService pricingService;
     @MockBean BundleService bundleService;
     @MockBean BookingLimitService bookingLimitService;
+    @MockBean QuotePricingCache quotePricingCache;
     @MockBean com.dogdaycare.service.CancelPolicyService cancelPolicyService;
 
     // Spring Security will try to look this up; mock it so @WithMockUser works
@@ -73,7 +80,7 @@ class BookingControllerWebTests {
         when(userRepository.findByUsername("customer@test.local")).thenReturn(Optional.of(customer));
 
         // Default: no prior bookings, no files
-        when(bookingRepository.findByCustomer(customer)).thenReturn(List.of());
+        when(bookingRepository.findByCustomerAndDateGreaterThanEqual(eq(customer), any(LocalDate.class))).thenReturn(List.of());
         when(fileRepository.findByUserIdOrderByCreatedAtDesc(123L)).thenReturn(List.of());
 
         // Default pricing stubs (override per-test as needed)
@@ -86,8 +93,14 @@ class BookingControllerWebTests {
                 });
         when(pricingService.previewDaycarePrice(any(User.class), any(LocalDate.class), anyString(), anyBoolean(), anyBoolean()))
                 .thenReturn(new BigDecimal("50.00"));
+        when(pricingService.previewDaycarePrice(anyString(), anyBoolean(), anyBoolean(), any()))
+                .thenReturn(new BigDecimal("50.00"));
         when(pricingService.priceFor(any(Booking.class))).thenReturn(new BigDecimal("65.00"));
-        when(bookingLimitService.canCustomerBook(any(LocalDate.class), anyString())).thenReturn(true);
+        when(quotePricingCache.get(eq("customer@test.local"), any(LocalDate.class)))
+                .thenAnswer(inv -> new QuotePricingCache.WeekContext(
+                        123L, new WeeklyPricingEngine(inv.getArgument(1), List.of(), Map.of()), false));
+        when(bookingLimitService.reserveAndCreate(any(Booking.class)))
+                .thenAnswer(inv -> Optional.of(inv.getArgument(0)));
 
         // Security: return a Spring Security user so authentication succeeds
         when(userDetailsService.loadUserByUsername("customer@test.local"))
@@ -151,7 +164,7 @@ class BookingControllerWebTests {
 
     @Test
     void postBooking_rejectsWhenCapacityFull() throws Exception {
-        when(bookingLimitService.canCustomerBook(any(LocalDate.class), anyString())).thenReturn(false);
+        when(bookingLimitService.reserveAndCreate(any(Booking.class))).thenReturn(Optional.empty());
 
         mvc.perform(post("/booking")
                         .param("serviceType", "Daycare (6 AM - 3 PM)")
@@ -161,6 +174,8 @@ class BookingControllerWebTests {
                         .with(user("customer@test.local").roles("CUSTOMER"))
                         .with(csrf()))
                 .andExpect(status().is3xxRedirection())
-                .andExpect(redirectedUrl("/booking"));
+                .andExpect(redirectedUrl("/booking"))
+                .andExpect(flash().attribute("errorMessage",
+                        org.hamcrest.Matchers.containsString("full for this day")));
     }
 }